@@ -0,0 +1,20 @@
+package com.shoesapp.aop.background;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a method, or all the methods of a bean, as batch or maintenance work: the database connections they use are
+ * taken from the background pool, when {@code application.background-pool.enabled}, so that they cannot exhaust the
+ * pool serving the requests.
+ * <p>
+ * Work started outside of a Spring bean can use {@link BackgroundJobContext#run} instead.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target({ ElementType.METHOD, ElementType.TYPE })
+public @interface BackgroundJob {
+}
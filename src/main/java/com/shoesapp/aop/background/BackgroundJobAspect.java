@@ -0,0 +1,29 @@
+package com.shoesapp.aop.background;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+
+/**
+ * Aspect running the {@link BackgroundJob} methods in a {@link BackgroundJobContext}.
+ * <p>
+ * It wraps the transaction interceptor, so that the transaction of the job gets its connection from the background pool.
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class BackgroundJobAspect {
+
+    @Around("@annotation(com.shoesapp.aop.background.BackgroundJob) || @within(com.shoesapp.aop.background.BackgroundJob)")
+    public Object runInBackground(ProceedingJoinPoint joinPoint) throws Throwable {
+        boolean entered = BackgroundJobContext.enter();
+        try {
+            return joinPoint.proceed();
+        } finally {
+            if (entered) {
+                BackgroundJobContext.exit();
+            }
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.shoesapp.aop.background;
+
+import java.util.concurrent.Callable;
+
+/**
+ * Tells whether the current thread runs a {@link BackgroundJob}.
+ */
+public final class BackgroundJobContext {
+
+    private static final ThreadLocal<Boolean> ACTIVE = new ThreadLocal<>();
+
+    private BackgroundJobContext() {}
+
+    /**
+     * @return true if the current thread runs a background job.
+     */
+    public static boolean isActive() {
+        return ACTIVE.get() != null;
+    }
+
+    /**
+     * Run some work as a background job.
+     *
+     * @param job the work.
+     * @param <T> the type of the result.
+     * @return the result of the work.
+     * @throws Exception if the work failed.
+     */
+    public static <T> T run(Callable<T> job) throws Exception {
+        boolean entered = enter();
+        try {
+            return job.call();
+        } finally {
+            if (entered) {
+                exit();
+            }
+        }
+    }
+
+    /**
+     * @return true if the current thread entered the context, false if it was already in it.
+     */
+    static boolean enter() {
+        if (isActive()) {
+            return false;
+        }
+        ACTIVE.set(Boolean.TRUE);
+        return true;
+    }
+
+    static void exit() {
+        ACTIVE.remove();
+    }
+}
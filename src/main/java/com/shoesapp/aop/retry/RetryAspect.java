@@ -0,0 +1,124 @@
+package com.shoesapp.aop.retry;
+
+import com.shoesapp.config.ApplicationProperties;
+import com.shoesapp.service.RequestDeadline;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Aspect retrying the {@link RetryOnConcurrencyFailure} methods.
+ * <p>
+ * It wraps the transaction interceptor, so that each attempt runs in a new transaction, and is wrapped by the
+ * {@code BackgroundJobAspect}. The attempts are counted in {@code service.retries}, tagged with the method and an
+ * outcome: {@code retried} for each new attempt, then {@code recovered} once the method no longer fails with a
+ * concurrency failure, or {@code exhausted}.
+ */
+@Aspect
+@Order(Ordered.HIGHEST_PRECEDENCE + 1)
+public class RetryAspect {
+
+    private final Logger log = LoggerFactory.getLogger(RetryAspect.class);
+
+    private final int maxAttempts;
+
+    private final long initialBackoffNanos;
+
+    private final long maxBackoffNanos;
+
+    private final MeterRegistry meterRegistry;
+
+    private final Sleeper sleeper;
+
+    public RetryAspect(ApplicationProperties.Retry properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, TimeUnit.NANOSECONDS::sleep);
+    }
+
+    RetryAspect(ApplicationProperties.Retry properties, MeterRegistry meterRegistry, Sleeper sleeper) {
+        this.maxAttempts = Math.max(1, properties.getMaxAttempts());
+        this.initialBackoffNanos = TimeUnit.MILLISECONDS.toNanos(properties.getInitialBackoffInMillis());
+        this.maxBackoffNanos = TimeUnit.MILLISECONDS.toNanos(properties.getMaxBackoffInMillis());
+        this.meterRegistry = meterRegistry;
+        this.sleeper = sleeper;
+    }
+
+    @Around("@annotation(retryOnConcurrencyFailure)")
+    public Object retry(ProceedingJoinPoint joinPoint, RetryOnConcurrencyFailure retryOnConcurrencyFailure) throws Throwable {
+        // within a transaction, the failure marked it rollback-only: only its owner may retry
+        if (TransactionSynchronizationManager.isActualTransactionActive() || !RetryContext.enter()) {
+            return joinPoint.proceed();
+        }
+        String method = joinPoint.getSignature().getDeclaringType().getSimpleName() + "." + joinPoint.getSignature().getName();
+        try {
+            long backoffNanos = initialBackoffNanos;
+            for (int attempt = 1;; attempt++) {
+                try {
+                    Object result = joinPoint.proceed();
+                    if (attempt > 1) {
+                        counter(method, "recovered").increment();
+                    }
+                    return result;
+                } catch (Throwable e) {
+                    boolean retryable = isRetryable(e, retryOnConcurrencyFailure);
+                    if (!retryable || attempt >= maxAttempts || !sleep(backoffNanos)) {
+                        if (retryable) {
+                            counter(method, "exhausted").increment();
+                        } else if (attempt > 1) {
+                            // the conflict was resolved, into a business error such as a login already used
+                            counter(method, "recovered").increment();
+                        }
+                        throw e;
+                    }
+                    log.debug("Retrying {} after attempt {} failed: {}", method, attempt, e.toString());
+                    counter(method, "retried").increment();
+                    backoffNanos = Math.min(maxBackoffNanos, backoffNanos * 2);
+                }
+            }
+        } finally {
+            RetryContext.exit();
+        }
+    }
+
+    private static boolean isRetryable(Throwable e, RetryOnConcurrencyFailure retryOnConcurrencyFailure) {
+        for (Class<? extends Throwable> type : retryOnConcurrencyFailure.value()) {
+            if (type.isInstance(e)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Sleep for a random time up to the backoff ("full jitter"), so that the conflicting transactions do not collide
+     * again.
+     *
+     * @return false if the deadline of the request would be over.
+     */
+    private boolean sleep(long backoffNanos) throws InterruptedException {
+        long sleepNanos = ThreadLocalRandom.current().nextLong(backoffNanos + 1);
+        RequestDeadline deadline = RequestDeadline.current();
+        if (deadline != null && deadline.remainingNanos() <= sleepNanos) {
+            return false;
+        }
+        sleeper.sleep(sleepNanos);
+        return true;
+    }
+
+    private Counter counter(String method, String outcome) {
+        return Counter.builder("service.retries").tag("method", method).tag("outcome", outcome).register(meterRegistry);
+    }
+
+    @FunctionalInterface
+    interface Sleeper {
+        void sleep(long nanos) throws InterruptedException;
+    }
+}
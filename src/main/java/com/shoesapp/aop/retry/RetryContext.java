@@ -0,0 +1,47 @@
+package com.shoesapp.aop.retry;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Values computed once per invocation of a {@link RetryOnConcurrencyFailure} method, whatever its number of attempts.
+ */
+public final class RetryContext {
+
+    private static final ThreadLocal<Map<String, Object>> VALUES = new ThreadLocal<>();
+
+    private RetryContext() {}
+
+    /**
+     * Compute a value on the first attempt, and reuse it on the next ones.
+     *
+     * @param key the key of the value, unique within the method.
+     * @param supplier computes the value.
+     * @param <T> the type of the value.
+     * @return the value.
+     */
+    @SuppressWarnings("unchecked")
+    public static <T> T once(String key, Supplier<T> supplier) {
+        Map<String, Object> values = VALUES.get();
+        if (values == null) {
+            return supplier.get();
+        }
+        return (T) values.computeIfAbsent(key, k -> supplier.get());
+    }
+
+    /**
+     * @return true if the current thread entered the context, false if it was already in it.
+     */
+    static boolean enter() {
+        if (VALUES.get() != null) {
+            return false;
+        }
+        VALUES.set(new HashMap<>());
+        return true;
+    }
+
+    static void exit() {
+        VALUES.remove();
+    }
+}
@@ -0,0 +1,27 @@
+package com.shoesapp.aop.retry;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+import org.springframework.dao.ConcurrencyFailureException;
+
+/**
+ * Marks a transactional method to be retried, with a jittered exponential backoff, when it fails because of a
+ * concurrent transaction: optimistic locking failures, lock timeouts and deadlocks. The attempts and the backoff are
+ * configured in {@code application.retry}.
+ * <p>
+ * The method is only retried when it starts the transaction, and must not have side effects outside of it. Expensive
+ * work which does not depend on the database, such as hashing a password, can be kept across the attempts with
+ * {@link RetryContext#once}.
+ */
+@Documented
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.METHOD)
+public @interface RetryOnConcurrencyFailure {
+    /**
+     * @return the exceptions to retry on, with their subclasses.
+     */
+    Class<? extends Throwable>[] value() default { ConcurrencyFailureException.class };
+}
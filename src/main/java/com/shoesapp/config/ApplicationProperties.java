@@ -1,5 +1,9 @@
 package com.shoesapp.config;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import org.springframework.boot.context.properties.ConfigurationProperties;
 
 /**
@@ -9,4 +13,837 @@ import org.springframework.boot.context.properties.ConfigurationProperties;
  * See {@link tech.jhipster.config.JHipsterProperties} for a good example.
  */
 @ConfigurationProperties(prefix = "application", ignoreUnknownFields = false)
-public class ApplicationProperties {}
+public class ApplicationProperties {
+
+    private final Authentication authentication = new Authentication();
+
+    private final TokenRevocation tokenRevocation = new TokenRevocation();
+
+    private final RateLimiting rateLimiting = new RateLimiting();
+
+    private final Replica replica = new Replica();
+
+    private final BackgroundPool backgroundPool = new BackgroundPool();
+
+    private final Deadline deadline = new Deadline();
+
+    private final ConcurrencyLimit concurrencyLimit = new ConcurrencyLimit();
+
+    private final Retry retry = new Retry();
+
+    private final Idempotency idempotency = new Idempotency();
+
+    private final UserEvents userEvents = new UserEvents();
+
+    private final UserChanges userChanges = new UserChanges();
+
+    public Authentication getAuthentication() {
+        return authentication;
+    }
+
+    public Replica getReplica() {
+        return replica;
+    }
+
+    public BackgroundPool getBackgroundPool() {
+        return backgroundPool;
+    }
+
+    public Deadline getDeadline() {
+        return deadline;
+    }
+
+    public ConcurrencyLimit getConcurrencyLimit() {
+        return concurrencyLimit;
+    }
+
+    public Retry getRetry() {
+        return retry;
+    }
+
+    public UserEvents getUserEvents() {
+        return userEvents;
+    }
+
+    public UserChanges getUserChanges() {
+        return userChanges;
+    }
+
+    public Idempotency getIdempotency() {
+        return idempotency;
+    }
+
+    public RateLimiting getRateLimiting() {
+        return rateLimiting;
+    }
+
+    public TokenRevocation getTokenRevocation() {
+        return tokenRevocation;
+    }
+
+    public static class Authentication {
+
+        /**
+         * Validity of the JWT access tokens. The refresh tokens are valid for
+         * {@code jhipster.security.authentication.jwt.token-validity-in-seconds}, or
+         * {@code token-validity-in-seconds-for-remember-me}.
+         */
+        private long accessTokenValidityInSeconds = 900;
+
+        /**
+         * Embed the profile of the user in the JWT access tokens, so that {@code GET /api/account} is answered from
+         * the token while the profile is unchanged.
+         */
+        private boolean profileClaims = true;
+
+        /**
+         * How long the profile version of a user is trusted without checking the database. Bounds how long another
+         * instance serves a profile changed elsewhere.
+         */
+        private long profileVersionTimeToLiveInSeconds = 60;
+
+        /**
+         * Maximum number of users whose profile version is kept in memory.
+         */
+        private int profileVersionMaxEntries = 100_000;
+
+        public long getAccessTokenValidityInSeconds() {
+            return accessTokenValidityInSeconds;
+        }
+
+        public void setAccessTokenValidityInSeconds(long accessTokenValidityInSeconds) {
+            this.accessTokenValidityInSeconds = accessTokenValidityInSeconds;
+        }
+
+        public boolean isProfileClaims() {
+            return profileClaims;
+        }
+
+        public void setProfileClaims(boolean profileClaims) {
+            this.profileClaims = profileClaims;
+        }
+
+        public long getProfileVersionTimeToLiveInSeconds() {
+            return profileVersionTimeToLiveInSeconds;
+        }
+
+        public void setProfileVersionTimeToLiveInSeconds(long profileVersionTimeToLiveInSeconds) {
+            this.profileVersionTimeToLiveInSeconds = profileVersionTimeToLiveInSeconds;
+        }
+
+        public int getProfileVersionMaxEntries() {
+            return profileVersionMaxEntries;
+        }
+
+        public void setProfileVersionMaxEntries(int profileVersionMaxEntries) {
+            this.profileVersionMaxEntries = profileVersionMaxEntries;
+        }
+    }
+
+    public static class TokenRevocation {
+
+        /**
+         * Size of the Bloom filter fronting the revoked logins.
+         */
+        private int bloomFilterSizeInBytes = 256 * 1024;
+
+        /**
+         * Number of revoked logins the Bloom filter is sized for.
+         */
+        private int expectedEntries = 100_000;
+
+        /**
+         * Maximum number of revocation watermarks kept in memory, lookups of the others go to the database.
+         */
+        private int maxEntries = 20_000;
+
+        public int getBloomFilterSizeInBytes() {
+            return bloomFilterSizeInBytes;
+        }
+
+        public void setBloomFilterSizeInBytes(int bloomFilterSizeInBytes) {
+            this.bloomFilterSizeInBytes = bloomFilterSizeInBytes;
+        }
+
+        public int getExpectedEntries() {
+            return expectedEntries;
+        }
+
+        public void setExpectedEntries(int expectedEntries) {
+            this.expectedEntries = expectedEntries;
+        }
+
+        public int getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(int maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+    }
+
+    public static class Replica {
+
+        /**
+         * JDBC URL of the read replica the read-only transactions are routed to. Without it, all the transactions use
+         * {@code spring.datasource}.
+         */
+        private String url;
+
+        /**
+         * Credentials of the replica, the ones of {@code spring.datasource} when not set.
+         */
+        private String username;
+
+        private String password;
+
+        /**
+         * Size of the replica pool, the size of the primary pool when 0. The other pool settings are the ones of
+         * {@code spring.datasource.hikari}.
+         */
+        private int maximumPoolSize;
+
+        /**
+         * How long the read-only transactions of a user who just wrote are kept on the primary, so that the user reads
+         * its own writes despite the replication lag.
+         */
+        private long readYourWritesWindowInSeconds = 5;
+
+        /**
+         * Maximum number of recent writers tracked. When exceeded, all the read-only transactions use the primary for
+         * a window.
+         */
+        private int maxRecentWriters = 100_000;
+
+        public String getUrl() {
+            return url;
+        }
+
+        public void setUrl(String url) {
+            this.url = url;
+        }
+
+        public String getUsername() {
+            return username;
+        }
+
+        public void setUsername(String username) {
+            this.username = username;
+        }
+
+        public String getPassword() {
+            return password;
+        }
+
+        public void setPassword(String password) {
+            this.password = password;
+        }
+
+        public int getMaximumPoolSize() {
+            return maximumPoolSize;
+        }
+
+        public void setMaximumPoolSize(int maximumPoolSize) {
+            this.maximumPoolSize = maximumPoolSize;
+        }
+
+        public long getReadYourWritesWindowInSeconds() {
+            return readYourWritesWindowInSeconds;
+        }
+
+        public void setReadYourWritesWindowInSeconds(long readYourWritesWindowInSeconds) {
+            this.readYourWritesWindowInSeconds = readYourWritesWindowInSeconds;
+        }
+
+        public int getMaxRecentWriters() {
+            return maxRecentWriters;
+        }
+
+        public void setMaxRecentWriters(int maxRecentWriters) {
+            this.maxRecentWriters = maxRecentWriters;
+        }
+    }
+
+    public static class BackgroundPool {
+
+        /**
+         * Give the background jobs a pool of their own, so that they cannot exhaust the connections serving the
+         * requests.
+         */
+        private boolean enabled;
+
+        /**
+         * Size of the background pool. The other pool settings are the ones of {@code spring.datasource.hikari}.
+         */
+        private int maximumPoolSize = 2;
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaximumPoolSize() {
+            return maximumPoolSize;
+        }
+
+        public void setMaximumPoolSize(int maximumPoolSize) {
+            this.maximumPoolSize = maximumPoolSize;
+        }
+    }
+
+    public static class Idempotency {
+
+        private boolean enabled = true;
+
+        /**
+         * Request header holding the idempotency key, chosen by the client for each logical request.
+         */
+        private String header = "Idempotency-Key";
+
+        /**
+         * How long the first response to a key is sent again to the retries.
+         */
+        private long timeToLiveInSeconds = 86_400;
+
+        /**
+         * Maximum number of responses kept in memory, the others are read from the database.
+         */
+        private int maxEntries = 10_000;
+
+        /**
+         * How long a duplicate of a request still executing waits for its response, before a {@code 409 Conflict}.
+         */
+        private long maxWaitInMillis = 10_000;
+
+        /**
+         * A request still executing after this long is considered lost, for instance with its instance, and can be
+         * executed again.
+         */
+        private long executionTimeoutInSeconds = 60;
+
+        /**
+         * Endpoints accepting an idempotency key, by name.
+         */
+        private final Map<String, Endpoint> endpoints = new LinkedHashMap<>();
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public String getHeader() {
+            return header;
+        }
+
+        public void setHeader(String header) {
+            this.header = header;
+        }
+
+        public long getTimeToLiveInSeconds() {
+            return timeToLiveInSeconds;
+        }
+
+        public void setTimeToLiveInSeconds(long timeToLiveInSeconds) {
+            this.timeToLiveInSeconds = timeToLiveInSeconds;
+        }
+
+        public int getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(int maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        public long getMaxWaitInMillis() {
+            return maxWaitInMillis;
+        }
+
+        public void setMaxWaitInMillis(long maxWaitInMillis) {
+            this.maxWaitInMillis = maxWaitInMillis;
+        }
+
+        public long getExecutionTimeoutInSeconds() {
+            return executionTimeoutInSeconds;
+        }
+
+        public void setExecutionTimeoutInSeconds(long executionTimeoutInSeconds) {
+            this.executionTimeoutInSeconds = executionTimeoutInSeconds;
+        }
+
+        public Map<String, Endpoint> getEndpoints() {
+            return endpoints;
+        }
+
+        public static class Endpoint {
+
+            private String path;
+
+            private String method = "POST";
+
+            public String getPath() {
+                return path;
+            }
+
+            public void setPath(String path) {
+                this.path = path;
+            }
+
+            public String getMethod() {
+                return method;
+            }
+
+            public void setMethod(String method) {
+                this.method = method;
+            }
+        }
+    }
+
+    public static class Retry {
+
+        /**
+         * Maximum number of attempts of a method failing with a concurrency failure, including the first one.
+         */
+        private int maxAttempts = 3;
+
+        /**
+         * Upper bound of the wait before the first retry, doubled on each retry. The actual wait is random below it.
+         */
+        private long initialBackoffInMillis = 20;
+
+        private long maxBackoffInMillis = 200;
+
+        public int getMaxAttempts() {
+            return maxAttempts;
+        }
+
+        public void setMaxAttempts(int maxAttempts) {
+            this.maxAttempts = maxAttempts;
+        }
+
+        public long getInitialBackoffInMillis() {
+            return initialBackoffInMillis;
+        }
+
+        public void setInitialBackoffInMillis(long initialBackoffInMillis) {
+            this.initialBackoffInMillis = initialBackoffInMillis;
+        }
+
+        public long getMaxBackoffInMillis() {
+            return maxBackoffInMillis;
+        }
+
+        public void setMaxBackoffInMillis(long maxBackoffInMillis) {
+            this.maxBackoffInMillis = maxBackoffInMillis;
+        }
+    }
+
+    public static class UserEvents {
+
+        /**
+         * Maximum number of events waiting to be sent to a subscriber: a subscriber falling further behind is
+         * disconnected, and resumes from its last event once it reconnects.
+         */
+        private int bufferSize = 256;
+
+        /**
+         * Number of the last events kept to resume the subscribers reconnecting with a {@code Last-Event-ID}.
+         */
+        private int historySize = 1_000;
+
+        /**
+         * How long a subscription lasts, the clients reconnect after it.
+         */
+        private long timeoutInSeconds = 1_800;
+
+        public int getBufferSize() {
+            return bufferSize;
+        }
+
+        public void setBufferSize(int bufferSize) {
+            this.bufferSize = bufferSize;
+        }
+
+        public int getHistorySize() {
+            return historySize;
+        }
+
+        public void setHistorySize(int historySize) {
+            this.historySize = historySize;
+        }
+
+        public long getTimeoutInSeconds() {
+            return timeoutInSeconds;
+        }
+
+        public void setTimeoutInSeconds(long timeoutInSeconds) {
+            this.timeoutInSeconds = timeoutInSeconds;
+        }
+    }
+
+    public static class UserChanges {
+
+        /**
+         * How long the deletions of users are kept: a client syncing less often than that reads all the users again.
+         */
+        private long tombstoneRetentionInDays = 30;
+
+        /**
+         * How far behind the current time the changes are read, so that the transactions still committing when they are
+         * read are not skipped. A change is dated when it is written, not when it commits: the lag must be longer than
+         * the transactions changing the users, which are bounded by the deadlines of the requests
+         * ({@code application.deadline}) and, for the purge of the not activated users, by
+         * {@code UserService.PURGE_BATCH_TIMEOUT_IN_SECONDS}.
+         */
+        private long safetyLagInSeconds = 60;
+
+        /**
+         * Maximum number of users, and of deletions, returned at once.
+         */
+        private int maxSize = 1_000;
+
+        public long getTombstoneRetentionInDays() {
+            return tombstoneRetentionInDays;
+        }
+
+        public void setTombstoneRetentionInDays(long tombstoneRetentionInDays) {
+            this.tombstoneRetentionInDays = tombstoneRetentionInDays;
+        }
+
+        public long getSafetyLagInSeconds() {
+            return safetyLagInSeconds;
+        }
+
+        public void setSafetyLagInSeconds(long safetyLagInSeconds) {
+            this.safetyLagInSeconds = safetyLagInSeconds;
+        }
+
+        public int getMaxSize() {
+            return maxSize;
+        }
+
+        public void setMaxSize(int maxSize) {
+            this.maxSize = maxSize;
+        }
+    }
+
+    public static class ConcurrencyLimit {
+
+        private boolean enabled = true;
+
+        /**
+         * Lowest concurrency limit of a partition, however slow its requests.
+         */
+        private int minLimit = 2;
+
+        /**
+         * Factor applied to the limit of a partition on each slow or dropped request.
+         */
+        private double backoffRatio = 0.9;
+
+        private long retryAfterInSeconds = 1;
+
+        /**
+         * Partitions of the endpoints, each with its own limit, by name. The first matching partition applies, the
+         * requests matching none are not limited.
+         */
+        private final Map<String, Partition> partitions = new LinkedHashMap<>();
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMinLimit() {
+            return minLimit;
+        }
+
+        public void setMinLimit(int minLimit) {
+            this.minLimit = minLimit;
+        }
+
+        public double getBackoffRatio() {
+            return backoffRatio;
+        }
+
+        public void setBackoffRatio(double backoffRatio) {
+            this.backoffRatio = backoffRatio;
+        }
+
+        public long getRetryAfterInSeconds() {
+            return retryAfterInSeconds;
+        }
+
+        public void setRetryAfterInSeconds(long retryAfterInSeconds) {
+            this.retryAfterInSeconds = retryAfterInSeconds;
+        }
+
+        public Map<String, Partition> getPartitions() {
+            return partitions;
+        }
+
+        public static class Partition {
+
+            private List<String> paths = new ArrayList<>();
+
+            private int initialLimit = 20;
+
+            private int maxLimit = 200;
+
+            /**
+             * Requests slower than this shrink the limit.
+             */
+            private long latencyThresholdInMillis = 1000;
+
+            public List<String> getPaths() {
+                return paths;
+            }
+
+            public void setPaths(List<String> paths) {
+                this.paths = paths;
+            }
+
+            public int getInitialLimit() {
+                return initialLimit;
+            }
+
+            public void setInitialLimit(int initialLimit) {
+                this.initialLimit = initialLimit;
+            }
+
+            public int getMaxLimit() {
+                return maxLimit;
+            }
+
+            public void setMaxLimit(int maxLimit) {
+                this.maxLimit = maxLimit;
+            }
+
+            public long getLatencyThresholdInMillis() {
+                return latencyThresholdInMillis;
+            }
+
+            public void setLatencyThresholdInMillis(long latencyThresholdInMillis) {
+                this.latencyThresholdInMillis = latencyThresholdInMillis;
+            }
+        }
+    }
+
+    public static class Deadline {
+
+        private boolean enabled = true;
+
+        /**
+         * Budget of the {@code /api} requests matching none of the endpoints.
+         */
+        private long defaultBudgetInMillis = 10_000;
+
+        /**
+         * Request header in which clients may give a shorter budget, in milliseconds.
+         */
+        private String header = "X-Request-Timeout";
+
+        /**
+         * Endpoints with a budget of their own, by name. The first matching endpoint applies.
+         */
+        private final Map<String, Endpoint> endpoints = new LinkedHashMap<>();
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public long getDefaultBudgetInMillis() {
+            return defaultBudgetInMillis;
+        }
+
+        public void setDefaultBudgetInMillis(long defaultBudgetInMillis) {
+            this.defaultBudgetInMillis = defaultBudgetInMillis;
+        }
+
+        public String getHeader() {
+            return header;
+        }
+
+        public void setHeader(String header) {
+            this.header = header;
+        }
+
+        public Map<String, Endpoint> getEndpoints() {
+            return endpoints;
+        }
+
+        public static class Endpoint {
+
+            private String path;
+
+            /**
+             * HTTP method of the endpoint, any method if empty.
+             */
+            private String method;
+
+            private long budgetInMillis;
+
+            public String getPath() {
+                return path;
+            }
+
+            public void setPath(String path) {
+                this.path = path;
+            }
+
+            public String getMethod() {
+                return method;
+            }
+
+            public void setMethod(String method) {
+                this.method = method;
+            }
+
+            public long getBudgetInMillis() {
+                return budgetInMillis;
+            }
+
+            public void setBudgetInMillis(long budgetInMillis) {
+                this.budgetInMillis = budgetInMillis;
+            }
+        }
+    }
+
+    public static class RateLimiting {
+
+        private boolean enabled = true;
+
+        /**
+         * Maximum number of token buckets kept in memory, the least recently used ones are evicted first.
+         */
+        private int maxBuckets = 100_000;
+
+        /**
+         * Buckets unused for this long are evicted.
+         */
+        private long idleTimeoutInSeconds = 3600;
+
+        /**
+         * Rate limited endpoints, by name.
+         */
+        private final Map<String, Endpoint> endpoints = new LinkedHashMap<>();
+
+        public boolean isEnabled() {
+            return enabled;
+        }
+
+        public void setEnabled(boolean enabled) {
+            this.enabled = enabled;
+        }
+
+        public int getMaxBuckets() {
+            return maxBuckets;
+        }
+
+        public void setMaxBuckets(int maxBuckets) {
+            this.maxBuckets = maxBuckets;
+        }
+
+        public long getIdleTimeoutInSeconds() {
+            return idleTimeoutInSeconds;
+        }
+
+        public void setIdleTimeoutInSeconds(long idleTimeoutInSeconds) {
+            this.idleTimeoutInSeconds = idleTimeoutInSeconds;
+        }
+
+        public Map<String, Endpoint> getEndpoints() {
+            return endpoints;
+        }
+
+        public static class Endpoint {
+
+            private String path;
+
+            private String method = "POST";
+
+            /**
+             * Field of the JSON request body holding the targeted login or email, the whole body if empty.
+             */
+            private String principalField;
+
+            private final Limit perIp = new Limit();
+
+            private final Limit perPrincipal = new Limit();
+
+            public String getPath() {
+                return path;
+            }
+
+            public void setPath(String path) {
+                this.path = path;
+            }
+
+            public String getMethod() {
+                return method;
+            }
+
+            public void setMethod(String method) {
+                this.method = method;
+            }
+
+            public String getPrincipalField() {
+                return principalField;
+            }
+
+            public void setPrincipalField(String principalField) {
+                this.principalField = principalField;
+            }
+
+            public Limit getPerIp() {
+                return perIp;
+            }
+
+            public Limit getPerPrincipal() {
+                return perPrincipal;
+            }
+        }
+
+        public static class Limit {
+
+            /**
+             * Number of requests allowed in a burst, 0 to disable the limit.
+             */
+            private int capacity;
+
+            /**
+             * Number of requests allowed per minute once the burst is exhausted.
+             */
+            private double refillPerMinute;
+
+            public int getCapacity() {
+                return capacity;
+            }
+
+            public void setCapacity(int capacity) {
+                this.capacity = capacity;
+            }
+
+            public double getRefillPerMinute() {
+                return refillPerMinute;
+            }
+
+            public void setRefillPerMinute(double refillPerMinute) {
+                this.refillPerMinute = refillPerMinute;
+            }
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.shoesapp.config;
 
+import com.shoesapp.service.RequestDeadline;
 import java.util.concurrent.Executor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -36,6 +37,7 @@ public class AsyncConfiguration implements AsyncConfigurer {
         executor.setMaxPoolSize(taskExecutionProperties.getPool().getMaxSize());
         executor.setQueueCapacity(taskExecutionProperties.getPool().getQueueCapacity());
         executor.setThreadNamePrefix(taskExecutionProperties.getThreadNamePrefix());
+        executor.setTaskDecorator(RequestDeadline::propagate);
         return new ExceptionHandlingAsyncTaskExecutor(executor);
     }
 
@@ -0,0 +1,33 @@
+package com.shoesapp.config;
+
+import com.shoesapp.aop.background.BackgroundJob;
+import com.shoesapp.aop.background.BackgroundJobContext;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+/**
+ * Data source giving the {@link BackgroundJob}s connections from their own pool, a bulkhead keeping the pool serving the
+ * requests available while they run.
+ * <p>
+ * Like the {@link ReplicaRoutingDataSource}, wrap it in a {@link LazyConnectionDataSourceProxy}.
+ */
+public class BackgroundJobRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route {
+        INTERACTIVE,
+        BACKGROUND,
+    }
+
+    public BackgroundJobRoutingDataSource(DataSource interactive, DataSource background) {
+        setTargetDataSources(Map.of(Route.INTERACTIVE, interactive, Route.BACKGROUND, background));
+        setDefaultTargetDataSource(interactive);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Route determineCurrentLookupKey() {
+        return BackgroundJobContext.isActive() ? Route.BACKGROUND : Route.INTERACTIVE;
+    }
+}
@@ -0,0 +1,130 @@
+package com.shoesapp.config;
+
+import com.shoesapp.aop.background.BackgroundJobAspect;
+import com.zaxxer.hikari.HikariDataSource;
+import javax.sql.DataSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.AnyNestedCondition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Conditional;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+/**
+ * Splits the database connections between several Hikari pools, all with the settings of
+ * {@code spring.datasource.hikari}, which are bound to the primary pool and copied to the others:
+ * <ul>
+ * <li>the read-only transactions go to a read replica, when {@code application.replica.url} is set, see
+ * {@link ReplicaRoutingDataSource};</li>
+ * <li>the background jobs get their connections from a small pool of their own, when
+ * {@code application.background-pool.enabled}, see {@link BackgroundJobRoutingDataSource}.</li>
+ * </ul>
+ * Replaces the data source auto-configured from {@code spring.datasource}. Each pool is a bean with its own name, so
+ * that its {@code hikaricp.connections.pending} and {@code hikaricp.connections.acquire} metrics are tagged with it.
+ */
+@Configuration
+@Conditional(DataSourceRoutingConfiguration.RoutingCondition.class)
+public class DataSourceRoutingConfiguration {
+
+    private static final String BACKGROUND_POOL_ENABLED = "application.background-pool.enabled";
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties dataSourceProperties) {
+        return dataSourceProperties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+    }
+
+    @Bean
+    @ConditionalOnProperty("application.replica.url")
+    public HikariDataSource replicaDataSource(
+        @Qualifier("primaryDataSource") HikariDataSource primaryDataSource,
+        ApplicationProperties applicationProperties
+    ) {
+        ApplicationProperties.Replica replica = applicationProperties.getReplica();
+        HikariDataSource dataSource = copyOf(primaryDataSource);
+        dataSource.setJdbcUrl(replica.getUrl());
+        if (replica.getUsername() != null) {
+            dataSource.setUsername(replica.getUsername());
+        }
+        if (replica.getPassword() != null) {
+            dataSource.setPassword(replica.getPassword());
+        }
+        return dataSource;
+    }
+
+    @Bean
+    @ConditionalOnProperty(BACKGROUND_POOL_ENABLED)
+    public HikariDataSource backgroundDataSource(@Qualifier("primaryDataSource") HikariDataSource primaryDataSource) {
+        return copyOf(primaryDataSource);
+    }
+
+    @Bean
+    @ConditionalOnProperty(BACKGROUND_POOL_ENABLED)
+    public BackgroundJobAspect backgroundJobAspect() {
+        return new BackgroundJobAspect();
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(
+        @Qualifier("primaryDataSource") HikariDataSource primaryDataSource,
+        @Qualifier("replicaDataSource") ObjectProvider<HikariDataSource> replicaDataSource,
+        @Qualifier("backgroundDataSource") ObjectProvider<HikariDataSource> backgroundDataSource,
+        ApplicationProperties applicationProperties
+    ) {
+        // all the pools have the same settings, tell them apart in the metrics
+        String poolName = primaryDataSource.getPoolName() == null ? "Hikari" : primaryDataSource.getPoolName();
+        primaryDataSource.setPoolName(poolName + "-primary");
+        DataSource dataSource = primaryDataSource;
+
+        HikariDataSource replica = replicaDataSource.getIfAvailable();
+        if (replica != null) {
+            ApplicationProperties.Replica properties = applicationProperties.getReplica();
+            replica.setPoolName(poolName + "-replica");
+            if (properties.getMaximumPoolSize() > 0) {
+                replica.setMaximumPoolSize(properties.getMaximumPoolSize());
+            }
+            replica.setReadOnly(true);
+            dataSource = new ReplicaRoutingDataSource(dataSource, replica, properties);
+        }
+
+        HikariDataSource background = backgroundDataSource.getIfAvailable();
+        if (background != null) {
+            ApplicationProperties.BackgroundPool properties = applicationProperties.getBackgroundPool();
+            background.setPoolName(poolName + "-background");
+            background.setMaximumPoolSize(properties.getMaximumPoolSize());
+            // the jobs run now and then, do not keep connections in between
+            background.setMinimumIdle(0);
+            dataSource = new BackgroundJobRoutingDataSource(dataSource, background);
+        }
+
+        return new LazyConnectionDataSourceProxy(dataSource);
+    }
+
+    /**
+     * A pool with the settings of the primary one: {@code spring.datasource.hikari} is bound to the primary pool only.
+     */
+    private static HikariDataSource copyOf(HikariDataSource primaryDataSource) {
+        HikariDataSource dataSource = new HikariDataSource();
+        primaryDataSource.copyStateTo(dataSource);
+        return dataSource;
+    }
+
+    static class RoutingCondition extends AnyNestedCondition {
+
+        RoutingCondition() {
+            super(ConfigurationPhase.REGISTER_BEAN);
+        }
+
+        @ConditionalOnProperty("application.replica.url")
+        static class ReplicaConfigured {}
+
+        @ConditionalOnProperty(BACKGROUND_POOL_ENABLED)
+        static class BackgroundPoolEnabled {}
+    }
+}
@@ -0,0 +1,42 @@
+package com.shoesapp.config;
+
+import com.shoesapp.service.DeadlineExceededException;
+import com.shoesapp.service.RequestDeadline;
+import java.util.concurrent.TimeUnit;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+
+/**
+ * Transaction manager bounding the transactions of a request by its {@link RequestDeadline}.
+ * <p>
+ * No transaction starts past the deadline, a {@link DeadlineExceededException} is thrown instead. The others time out
+ * at the deadline: Hibernate sets the remaining time as the query timeout of each JDBC statement, so that the database
+ * cancels a slow query instead of keeping the thread and the connection after the client gave up. JDBC query timeouts
+ * are in seconds, the remaining time is rounded up.
+ */
+public class DeadlineJpaTransactionManager extends JpaTransactionManager {
+
+    private static final long serialVersionUID = 1L;
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        RequestDeadline deadline = RequestDeadline.current();
+        if (deadline != null) {
+            deadline.check();
+        }
+        super.doBegin(transaction, definition);
+    }
+
+    @Override
+    protected int determineTimeout(TransactionDefinition definition) {
+        int timeout = super.determineTimeout(definition);
+        RequestDeadline deadline = RequestDeadline.current();
+        if (deadline == null) {
+            return timeout;
+        }
+        long second = TimeUnit.SECONDS.toNanos(1);
+        // an expired deadline still leaves a second to the transactions already started
+        int remainingSeconds = (int) Math.min(Integer.MAX_VALUE, Math.max(1, (deadline.remainingNanos() + second - 1) / second));
+        return timeout == TransactionDefinition.TIMEOUT_DEFAULT ? remainingSeconds : Math.min(timeout, remainingSeconds);
+    }
+}
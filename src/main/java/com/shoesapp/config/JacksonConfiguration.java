@@ -1,10 +1,20 @@
 package com.shoesapp.config;
 
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
 import com.fasterxml.jackson.datatype.hibernate5.Hibernate5Module;
 import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.shoesapp.service.dto.AdminUserDTO;
+import com.shoesapp.web.util.FieldsFilter;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.smile.MappingJackson2SmileHttpMessageConverter;
 import org.zalando.problem.ProblemModule;
 import org.zalando.problem.violations.ConstraintViolationProblemModule;
 
@@ -25,6 +35,14 @@ public class JacksonConfiguration {
         return new Jdk8Module();
     }
 
+    /*
+     * Replaces the reflective access to the properties of the DTOs by generated lambdas, for every page element.
+     */
+    @Bean
+    public BlackbirdModule blackbirdModule() {
+        return new BlackbirdModule();
+    }
+
     /*
      * Support for Hibernate types in Jackson.
      */
@@ -48,4 +66,34 @@ public class JacksonConfiguration {
     public ConstraintViolationProblemModule constraintViolationProblemModule() {
         return new ConstraintViolationProblemModule();
     }
+
+    /*
+     * Sparse fieldsets of the users listed by the administrators, see {@link FieldsFilter}.
+     */
+    @Bean
+    public SimpleModule fieldsFilterModule() {
+        SimpleModule module = new SimpleModule("FieldsFilterModule");
+        module.setMixInAnnotation(AdminUserDTO.class, FieldsFilter.MixIn.class);
+        return module;
+    }
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer fieldsFilterCustomizer() {
+        return builder -> builder.filters(FieldsFilter.SERIALIZE_ALL);
+    }
+
+    /*
+     * Binary encodings of the same DTOs for the internal consumers, negotiated with the Accept and Content-Type headers:
+     * application/cbor and application/x-jackson-smile. JSON stays the default, the converters are configured like the
+     * JSON one, with the same modules and filters.
+     */
+    @Bean
+    public MappingJackson2CborHttpMessageConverter cborHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2CborHttpMessageConverter(builder.factory(new CBORFactory()).build());
+    }
+
+    @Bean
+    public MappingJackson2SmileHttpMessageConverter smileHttpMessageConverter(Jackson2ObjectMapperBuilder builder) {
+        return new MappingJackson2SmileHttpMessageConverter(builder.factory(new SmileFactory()).build());
+    }
 }
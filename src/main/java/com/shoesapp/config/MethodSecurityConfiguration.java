@@ -0,0 +1,59 @@
+package com.shoesapp.config;
+
+import com.shoesapp.security.AuthorityBitsMethodSecurityExpressionHandler;
+import com.shoesapp.security.CompiledPreInvocationAuthorizationAdvice;
+import com.shoesapp.security.CompilingPrePostInvocationAttributeFactory;
+import java.util.ArrayList;
+import java.util.List;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.access.AccessDecisionManager;
+import org.springframework.security.access.AccessDecisionVoter;
+import org.springframework.security.access.expression.method.MethodSecurityExpressionHandler;
+import org.springframework.security.access.method.MethodSecurityMetadataSource;
+import org.springframework.security.access.prepost.PrePostAnnotationSecurityMetadataSource;
+import org.springframework.security.access.prepost.PreInvocationAuthorizationAdviceVoter;
+import org.springframework.security.access.vote.AffirmativeBased;
+import org.springframework.security.access.vote.AuthenticatedVoter;
+import org.springframework.security.access.vote.RoleVoter;
+import org.springframework.security.config.annotation.method.configuration.EnableGlobalMethodSecurity;
+import org.springframework.security.config.annotation.method.configuration.GlobalMethodSecurityConfiguration;
+
+/**
+ * Method security, with the plain {@code hasAuthority} and {@code hasAnyAuthority} {@code @PreAuthorize} expressions
+ * compiled into authority checks at startup.
+ */
+@Configuration
+@EnableGlobalMethodSecurity(prePostEnabled = true, securedEnabled = true)
+public class MethodSecurityConfiguration extends GlobalMethodSecurityConfiguration {
+
+    private final ApplicationContext applicationContext;
+
+    public MethodSecurityConfiguration(ApplicationContext applicationContext) {
+        this.applicationContext = applicationContext;
+    }
+
+    @Override
+    protected MethodSecurityExpressionHandler createExpressionHandler() {
+        AuthorityBitsMethodSecurityExpressionHandler expressionHandler = new AuthorityBitsMethodSecurityExpressionHandler();
+        expressionHandler.setApplicationContext(applicationContext);
+        return expressionHandler;
+    }
+
+    /**
+     * Takes precedence over the standard {@code @PreAuthorize} metadata source.
+     */
+    @Override
+    protected MethodSecurityMetadataSource customMethodSecurityMetadataSource() {
+        return new PrePostAnnotationSecurityMetadataSource(new CompilingPrePostInvocationAttributeFactory(getExpressionHandler()));
+    }
+
+    @Override
+    protected AccessDecisionManager accessDecisionManager() {
+        List<AccessDecisionVoter<?>> decisionVoters = new ArrayList<>();
+        decisionVoters.add(new PreInvocationAuthorizationAdviceVoter(new CompiledPreInvocationAuthorizationAdvice(getExpressionHandler())));
+        decisionVoters.add(new RoleVoter());
+        decisionVoters.add(new AuthenticatedVoter());
+        return new AffirmativeBased(decisionVoters);
+    }
+}
@@ -0,0 +1,103 @@
+package com.shoesapp.config;
+
+import com.shoesapp.security.SecurityUtils;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import javax.sql.DataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Data source routing the read-only transactions to a read replica, and everything else to the primary.
+ * <p>
+ * The read-only transactions of a user who wrote in the last
+ * {@code application.replica.read-your-writes-window-in-seconds} stay on the primary, so that the user reads its own
+ * writes, for instance on {@code GET /api/account} right after an update, despite the replication lag.
+ * <p>
+ * The route is only known once the transaction started: wrap this data source in a
+ * {@link LazyConnectionDataSourceProxy}, so that the connection is fetched on the first statement.
+ */
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route {
+        PRIMARY,
+        REPLICA,
+    }
+
+    private final Map<String, Long> recentWriters = new ConcurrentHashMap<>();
+
+    private final long windowNanos;
+
+    private final int maxRecentWriters;
+
+    private final LongSupplier ticker;
+
+    private volatile long primaryOnlyUntil;
+
+    public ReplicaRoutingDataSource(DataSource primary, DataSource replica, ApplicationProperties.Replica properties) {
+        this(primary, replica, properties, System::nanoTime);
+    }
+
+    ReplicaRoutingDataSource(DataSource primary, DataSource replica, ApplicationProperties.Replica properties, LongSupplier ticker) {
+        this.windowNanos = TimeUnit.SECONDS.toNanos(properties.getReadYourWritesWindowInSeconds());
+        this.maxRecentWriters = properties.getMaxRecentWriters();
+        this.ticker = ticker;
+        this.primaryOnlyUntil = ticker.getAsLong();
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Route determineCurrentLookupKey() {
+        Optional<String> login = SecurityUtils.isAuthenticated() ? SecurityUtils.getCurrentUserLogin() : Optional.empty();
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (TransactionSynchronizationManager.isActualTransactionActive()) {
+                login.ifPresent(this::recordWrite);
+            }
+            return Route.PRIMARY;
+        }
+        boolean primary = ticker.getAsLong() - primaryOnlyUntil < 0 || login.map(this::wroteRecently).orElse(false);
+        return primary ? Route.PRIMARY : Route.REPLICA;
+    }
+
+    private boolean wroteRecently(String login) {
+        Long until = recentWriters.get(login);
+        return until != null && ticker.getAsLong() - until < 0;
+    }
+
+    /**
+     * Keep the reads of a user on the primary from now, and from the end of its transaction, which may write.
+     */
+    private void recordWrite(String login) {
+        touch(login);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        touch(login);
+                    }
+                }
+            );
+        }
+    }
+
+    private void touch(String login) {
+        long now = ticker.getAsLong();
+        if (recentWriters.size() >= maxRecentWriters && !recentWriters.containsKey(login)) {
+            recentWriters.values().removeIf(until -> now - until >= 0);
+            if (recentWriters.size() >= maxRecentWriters) {
+                // too many writers to track: nobody reads from the replica until the window is over
+                primaryOnlyUntil = now + windowNanos;
+                return;
+            }
+        }
+        recentWriters.put(login, now + windowNanos);
+    }
+}
@@ -0,0 +1,17 @@
+package com.shoesapp.config;
+
+import com.shoesapp.aop.retry.RetryAspect;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.EnableAspectJAutoProxy;
+
+@Configuration
+@EnableAspectJAutoProxy
+public class RetryAspectConfiguration {
+
+    @Bean
+    public RetryAspect retryAspect(ApplicationProperties applicationProperties, MeterRegistry meterRegistry) {
+        return new RetryAspect(applicationProperties.getRetry(), meterRegistry);
+    }
+}
@@ -1,11 +1,18 @@
 package com.shoesapp.config;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import com.shoesapp.security.*;
 import com.shoesapp.security.jwt.*;
+import com.shoesapp.service.IdempotencyService;
+import com.shoesapp.service.TokenRevocationService;
+import com.shoesapp.web.filter.ConcurrencyLimitFilter;
+import com.shoesapp.web.filter.IdempotencyFilter;
+import com.shoesapp.web.filter.RateLimitingFilter;
+import com.shoesapp.web.filter.RequestDeadlineFilter;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Import;
 import org.springframework.http.HttpMethod;
-import org.springframework.security.config.annotation.method.configuration.EnableGlobalMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.builders.WebSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -13,6 +20,7 @@ import org.springframework.security.config.annotation.web.configuration.WebSecur
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.web.access.intercept.FilterSecurityInterceptor;
 import org.springframework.security.web.authentication.UsernamePasswordAuthenticationFilter;
 import org.springframework.security.web.header.writers.ReferrerPolicyHeaderWriter;
 import org.springframework.web.filter.CorsFilter;
@@ -20,27 +28,46 @@ import org.zalando.problem.spring.web.advice.security.SecurityProblemSupport;
 import tech.jhipster.config.JHipsterProperties;
 
 @EnableWebSecurity
-@EnableGlobalMethodSecurity(prePostEnabled = true, securedEnabled = true)
 @Import(SecurityProblemSupport.class)
 public class SecurityConfiguration extends WebSecurityConfigurerAdapter {
 
     private final JHipsterProperties jHipsterProperties;
 
+    private final ApplicationProperties applicationProperties;
+
     private final TokenProvider tokenProvider;
 
+    private final TokenRevocationService tokenRevocationService;
+
+    private final IdempotencyService idempotencyService;
+
     private final CorsFilter corsFilter;
     private final SecurityProblemSupport problemSupport;
 
+    private final ObjectMapper objectMapper;
+
+    private final MeterRegistry meterRegistry;
+
     public SecurityConfiguration(
         TokenProvider tokenProvider,
+        TokenRevocationService tokenRevocationService,
+        IdempotencyService idempotencyService,
         CorsFilter corsFilter,
         JHipsterProperties jHipsterProperties,
-        SecurityProblemSupport problemSupport
+        ApplicationProperties applicationProperties,
+        SecurityProblemSupport problemSupport,
+        ObjectMapper objectMapper,
+        MeterRegistry meterRegistry
     ) {
         this.tokenProvider = tokenProvider;
+        this.tokenRevocationService = tokenRevocationService;
+        this.idempotencyService = idempotencyService;
         this.corsFilter = corsFilter;
         this.problemSupport = problemSupport;
         this.jHipsterProperties = jHipsterProperties;
+        this.applicationProperties = applicationProperties;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
     }
 
     @Bean
@@ -67,6 +94,10 @@ public class SecurityConfiguration extends WebSecurityConfigurerAdapter {
             .csrf()
             .disable()
             .addFilterBefore(corsFilter, UsernamePasswordAuthenticationFilter.class)
+            .addFilterBefore(concurrencyLimitFilter(), UsernamePasswordAuthenticationFilter.class)
+            .addFilterBefore(requestDeadlineFilter(), UsernamePasswordAuthenticationFilter.class)
+            .addFilterBefore(rateLimitingFilter(), UsernamePasswordAuthenticationFilter.class)
+            .addFilterAfter(idempotencyFilter(), FilterSecurityInterceptor.class)
             .exceptionHandling()
                 .authenticationEntryPoint(problemSupport)
                 .accessDeniedHandler(problemSupport)
@@ -86,6 +117,7 @@ public class SecurityConfiguration extends WebSecurityConfigurerAdapter {
         .and()
             .authorizeRequests()
             .antMatchers("/api/authenticate").permitAll()
+            .antMatchers("/api/authenticate/refresh").permitAll()
             .antMatchers("/api/register").permitAll()
             .antMatchers("/api/activate").permitAll()
             .antMatchers("/api/account/reset-password/init").permitAll()
@@ -104,7 +136,23 @@ public class SecurityConfiguration extends WebSecurityConfigurerAdapter {
         // @formatter:on
     }
 
+    private ConcurrencyLimitFilter concurrencyLimitFilter() {
+        return new ConcurrencyLimitFilter(applicationProperties.getConcurrencyLimit(), objectMapper, meterRegistry);
+    }
+
+    private RequestDeadlineFilter requestDeadlineFilter() {
+        return new RequestDeadlineFilter(applicationProperties.getDeadline(), meterRegistry);
+    }
+
+    private RateLimitingFilter rateLimitingFilter() {
+        return new RateLimitingFilter(applicationProperties.getRateLimiting(), objectMapper, meterRegistry);
+    }
+
+    private IdempotencyFilter idempotencyFilter() {
+        return new IdempotencyFilter(applicationProperties.getIdempotency(), idempotencyService, objectMapper);
+    }
+
     private JWTConfigurer securityConfigurerAdapter() {
-        return new JWTConfigurer(tokenProvider);
+        return new JWTConfigurer(tokenProvider, tokenRevocationService);
     }
 }
@@ -0,0 +1,65 @@
+package com.shoesapp.config.dev;
+
+import com.shoesapp.aop.background.BackgroundJob;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import javax.sql.DataSource;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.context.annotation.Profile;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+import tech.jhipster.config.JHipsterConstants;
+
+/**
+ * Development-only management endpoint bulk-loading synthetic users with {@link UserDatasetGenerator}, to run the
+ * benchmarks and load tests against a production-shaped database.
+ * <p>
+ * For example, to load 5 million users:
+ * {@code curl -X POST -H "Authorization: Bearer $TOKEN" -H "Content-Type: application/json" -d '{"count": 5000000}' localhost:8080/management/userdataset}
+ */
+@Component
+@Profile(JHipsterConstants.SPRING_PROFILE_DEVELOPMENT)
+@Endpoint(id = "userdataset")
+public class UserDatasetEndpoint {
+
+    private static final long DEFAULT_SEED = 42;
+
+    private final DataSource dataSource;
+
+    public UserDatasetEndpoint(DataSource dataSource) {
+        this.dataSource = dataSource;
+    }
+
+    @WriteOperation
+    @BackgroundJob
+    public Map<String, Object> generate(
+        long count,
+        @Nullable Long seed,
+        @Nullable Double adminRatio,
+        @Nullable Double notActivatedRatio,
+        @Nullable Double resetKeyRatio,
+        @Nullable Integer creationSpreadInDays
+    ) throws SQLException {
+        UserDatasetGenerator generator = new UserDatasetGenerator(dataSource, seed != null ? seed : DEFAULT_SEED);
+        if (adminRatio != null) {
+            generator.adminRatio(adminRatio);
+        }
+        if (notActivatedRatio != null) {
+            generator.notActivatedRatio(notActivatedRatio);
+        }
+        if (resetKeyRatio != null) {
+            generator.resetKeyRatio(resetKeyRatio);
+        }
+        if (creationSpreadInDays != null) {
+            generator.creationSpreadInDays(creationSpreadInDays);
+        }
+        long start = System.currentTimeMillis();
+        long generated = generator.generate(count);
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("generated", generated);
+        result.put("durationMillis", System.currentTimeMillis() - start);
+        return result;
+    }
+}
@@ -0,0 +1,250 @@
+package com.shoesapp.config.dev;
+
+import com.shoesapp.config.Constants;
+import com.shoesapp.domain.enums.Gender;
+import com.shoesapp.security.AuthoritiesConstants;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.SplittableRandom;
+import javax.sql.DataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Bulk-loads synthetic users into {@code jhi_user} and {@code jhi_user_authority} with batched JDBC.
+ * <p>
+ * JPA is bypassed on purpose: a multi-million row dataset is loaded in a few minutes, provided MySQL is told to
+ * rewrite the batches into multi-row inserts ({@code rewriteBatchedStatements}, set in the "dev" profile).
+ * <p>
+ * The data is deterministic for a given seed: user {@code n} always gets the login {@link #login(long)} and
+ * the email {@link #email(long)}, so benchmarks can pick existing rows without querying for them.
+ */
+public class UserDatasetGenerator {
+
+    // BCrypt hash of "user", hashing millions of passwords would dominate the load time
+    private static final String PASSWORD_HASH = "$2a$10$VEjxo0jq2YG9Rbk2HmX9S.k1uZBGYUHdUcid3g/vfiEl7lwWgOH/K";
+
+    private static final String[] LANG_KEYS = { "en", "en", "en", "fr", "de", "es", "vi" };
+
+    private static final String[] FIRST_NAMES = { "Anna", "Minh", "Lucas", "Sofia", "Noah", "Linh", "Emma", "Hugo", "Mai", "Jonas" };
+
+    private static final String[] LAST_NAMES = { "Nguyen", "Martin", "Smith", "Muller", "Tran", "Garcia", "Rossi", "Pham", "Dubois" };
+
+    private static final int BATCH_SIZE = 1_000;
+
+    private static final int PROGRESS_INTERVAL = 100_000;
+
+    private static final String INSERT_USER =
+        "INSERT INTO jhi_user (id, login, password_hash, first_name, last_name, email, image_url, activated, lang_key, " +
+        "activation_key, reset_key, created_by, created_date, reset_date, last_modified_by, last_modified_date, phone_number, gender) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String INSERT_AUTHORITY = "INSERT INTO jhi_user_authority (user_id, authority_name) VALUES (?, ?)";
+
+    private final Logger log = LoggerFactory.getLogger(UserDatasetGenerator.class);
+
+    private final DataSource dataSource;
+
+    private final long seed;
+
+    private double adminRatio = 0.01;
+
+    private double notActivatedRatio = 0.1;
+
+    private double resetKeyRatio = 0.03;
+
+    private int creationSpreadInDays = 5 * 365;
+
+    public UserDatasetGenerator(DataSource dataSource, long seed) {
+        this.dataSource = dataSource;
+        this.seed = seed;
+    }
+
+    public static String login(long n) {
+        return "synth" + n;
+    }
+
+    public static String email(long n) {
+        return "synth" + n + "@example.com";
+    }
+
+    public UserDatasetGenerator adminRatio(double adminRatio) {
+        this.adminRatio = adminRatio;
+        return this;
+    }
+
+    public UserDatasetGenerator notActivatedRatio(double notActivatedRatio) {
+        this.notActivatedRatio = notActivatedRatio;
+        return this;
+    }
+
+    public UserDatasetGenerator resetKeyRatio(double resetKeyRatio) {
+        this.resetKeyRatio = resetKeyRatio;
+        return this;
+    }
+
+    public UserDatasetGenerator creationSpreadInDays(int creationSpreadInDays) {
+        this.creationSpreadInDays = creationSpreadInDays;
+        return this;
+    }
+
+    /**
+     * Insert {@code count} users with ids starting after the current maximum id, each numbered after its id,
+     * so that repeated calls never generate the same login twice.
+     *
+     * @param count number of users to insert.
+     * @return the number of inserted users.
+     * @throws SQLException if the inserts fail.
+     */
+    public long generate(long count) throws SQLException {
+        return generate(null, count);
+    }
+
+    /**
+     * Insert {@code count} users numbered from {@code firstIndex}, with ids starting after the current maximum id.
+     *
+     * @param firstIndex index of the first generated user, used for its login and email.
+     * @param count number of users to insert.
+     * @return the number of inserted users.
+     * @throws SQLException if the inserts fail.
+     */
+    public long generate(long firstIndex, long count) throws SQLException {
+        return generate(Long.valueOf(firstIndex), count);
+    }
+
+    private long generate(Long requestedFirstIndex, long count) throws SQLException {
+        long start = System.nanoTime();
+        Instant now = Instant.now();
+        try (Connection connection = dataSource.getConnection()) {
+            connection.setAutoCommit(false);
+            long firstId = nextId(connection);
+            long firstIndex = requestedFirstIndex != null ? requestedFirstIndex : firstId;
+            SplittableRandom random = new SplittableRandom(seed + firstIndex);
+            try (
+                PreparedStatement userStatement = connection.prepareStatement(INSERT_USER);
+                PreparedStatement authorityStatement = connection.prepareStatement(INSERT_AUTHORITY)
+            ) {
+                for (long i = 0; i < count; i++) {
+                    long id = firstId + i;
+                    addUser(userStatement, authorityStatement, id, firstIndex + i, random, now);
+                    if ((i + 1) % BATCH_SIZE == 0) {
+                        userStatement.executeBatch();
+                        authorityStatement.executeBatch();
+                        connection.commit();
+                    }
+                    if ((i + 1) % PROGRESS_INTERVAL == 0) {
+                        log.debug("Generated {} of {} users", i + 1, count);
+                    }
+                }
+                userStatement.executeBatch();
+                authorityStatement.executeBatch();
+                connection.commit();
+            }
+            restartIdentity(connection, firstId + count);
+            connection.commit();
+        }
+        log.info("Generated {} users in {} ms", count, (System.nanoTime() - start) / 1_000_000);
+        return count;
+    }
+
+    /**
+     * Insert {@code count} users which are not activated and were created before the purge threshold of
+     * {@link UserService#removeNotActivatedUsers()}.
+     *
+     * @param firstIndex index of the first generated user, used for its login and email.
+     * @param count number of users to insert.
+     * @throws SQLException if the inserts fail.
+     */
+    public void generateExpiredRegistrations(long firstIndex, long count) throws SQLException {
+        double previousRatio = notActivatedRatio;
+        int previousSpread = creationSpreadInDays;
+        notActivatedRatio = 1;
+        creationSpreadInDays = 0;
+        try {
+            generate(firstIndex, count);
+        } finally {
+            notActivatedRatio = previousRatio;
+            creationSpreadInDays = previousSpread;
+        }
+    }
+
+    private void addUser(
+        PreparedStatement userStatement,
+        PreparedStatement authorityStatement,
+        long id,
+        long n,
+        SplittableRandom random,
+        Instant now
+    ) throws SQLException {
+        boolean activated = random.nextDouble() >= notActivatedRatio;
+        Instant createdDate = activated || creationSpreadInDays > 0
+            ? now.minus(random.nextInt(Math.max(creationSpreadInDays, 1)), ChronoUnit.DAYS).minusSeconds(random.nextInt(86_400))
+            : now.minus(4, ChronoUnit.DAYS);
+        boolean hasResetKey = activated && random.nextDouble() < resetKeyRatio;
+
+        userStatement.setLong(1, id);
+        userStatement.setString(2, login(n));
+        userStatement.setString(3, PASSWORD_HASH);
+        userStatement.setString(4, FIRST_NAMES[random.nextInt(FIRST_NAMES.length)]);
+        userStatement.setString(5, LAST_NAMES[random.nextInt(LAST_NAMES.length)]);
+        userStatement.setString(6, email(n));
+        userStatement.setNull(7, Types.VARCHAR);
+        userStatement.setBoolean(8, activated);
+        userStatement.setString(9, LANG_KEYS[random.nextInt(LANG_KEYS.length)]);
+        userStatement.setString(10, activated ? null : randomKey(random));
+        userStatement.setString(11, hasResetKey ? randomKey(random) : null);
+        userStatement.setString(12, Constants.SYSTEM);
+        userStatement.setTimestamp(13, Timestamp.from(createdDate));
+        userStatement.setTimestamp(14, hasResetKey ? Timestamp.from(now.minus(random.nextInt(48), ChronoUnit.HOURS)) : null);
+        userStatement.setString(15, Constants.SYSTEM);
+        userStatement.setTimestamp(16, Timestamp.from(createdDate));
+        userStatement.setString(17, String.format("09%09d", random.nextInt(1_000_000_000)));
+        userStatement.setString(18, random.nextBoolean() ? Gender.MALE.name() : Gender.FEMALE.name());
+        userStatement.addBatch();
+
+        authorityStatement.setLong(1, id);
+        authorityStatement.setString(2, AuthoritiesConstants.USER);
+        authorityStatement.addBatch();
+        if (random.nextDouble() < adminRatio) {
+            authorityStatement.setLong(1, id);
+            authorityStatement.setString(2, AuthoritiesConstants.ADMIN);
+            authorityStatement.addBatch();
+        }
+    }
+
+    private static String randomKey(SplittableRandom random) {
+        StringBuilder key = new StringBuilder(20);
+        for (int i = 0; i < 20; i++) {
+            key.append((char) ('0' + random.nextInt(10)));
+        }
+        return key.toString();
+    }
+
+    private static long nextId(Connection connection) throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement("SELECT COALESCE(MAX(id), 0) + 1 FROM jhi_user")) {
+            try (ResultSet resultSet = statement.executeQuery()) {
+                resultSet.next();
+                return resultSet.getLong(1);
+            }
+        }
+    }
+
+    /**
+     * MySQL moves its auto-increment counter past explicitly inserted ids, H2 has to be told.
+     */
+    private static void restartIdentity(Connection connection, long nextId) throws SQLException {
+        DatabaseMetaData metaData = connection.getMetaData();
+        if ("H2".equals(metaData.getDatabaseProductName())) {
+            try (PreparedStatement statement = connection.prepareStatement("ALTER TABLE jhi_user ALTER COLUMN id RESTART WITH " + nextId)) {
+                statement.execute();
+            }
+        }
+    }
+}
@@ -0,0 +1,4 @@
+/**
+ * Development-only tooling, enabled by the "dev" profile.
+ */
+package com.shoesapp.config.dev;
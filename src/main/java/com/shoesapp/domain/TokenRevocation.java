@@ -0,0 +1,79 @@
+package com.shoesapp.domain;
+
+import java.io.Serializable;
+import java.time.Instant;
+import java.util.Objects;
+import javax.persistence.Column;
+import javax.persistence.Entity;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Size;
+
+/**
+ * The tokens of a user issued before a given instant, which must not be accepted anymore.
+ */
+@Entity
+@Table(name = "jhi_token_revocation")
+public class TokenRevocation implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @NotNull
+    @Size(max = 50)
+    @Id
+    @Column(length = 50)
+    private String login;
+
+    @NotNull
+    @Column(name = "revoked_before", nullable = false)
+    private Instant revokedBefore;
+
+    public TokenRevocation() {}
+
+    public TokenRevocation(String login, Instant revokedBefore) {
+        this.login = login;
+        this.revokedBefore = revokedBefore;
+    }
+
+    public String getLogin() {
+        return login;
+    }
+
+    public void setLogin(String login) {
+        this.login = login;
+    }
+
+    public Instant getRevokedBefore() {
+        return revokedBefore;
+    }
+
+    public void setRevokedBefore(Instant revokedBefore) {
+        this.revokedBefore = revokedBefore;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof TokenRevocation)) {
+            return false;
+        }
+        return Objects.equals(login, ((TokenRevocation) o).login);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(login);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "TokenRevocation{" +
+            "login='" + login + '\'' +
+            ", revokedBefore='" + revokedBefore + '\'' +
+            "}";
+    }
+}
@@ -89,6 +89,11 @@ public class User extends AbstractAuditingEntity implements Serializable {
     @Enumerated(value = EnumType.STRING)
     private Gender gender;
 
+    @JsonIgnore
+    @Version
+    @Column(name = "version", nullable = false)
+    private Long version;
+
     @JsonIgnore
     @ManyToMany
     @JoinTable(
@@ -204,6 +209,14 @@ public class User extends AbstractAuditingEntity implements Serializable {
         this.authorities = authorities;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     public String getPhoneNumber() { return phoneNumber; }
 
     public void setPhoneNumber(String phoneNumber) { this.phoneNumber = phoneNumber; }
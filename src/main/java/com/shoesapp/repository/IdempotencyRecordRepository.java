@@ -0,0 +1,47 @@
+package com.shoesapp.repository;
+
+import com.shoesapp.domain.IdempotencyRecord;
+import java.time.Instant;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Spring Data JPA repository for the {@link IdempotencyRecord} entity.
+ */
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, Long> {
+    /**
+     * Read-write, so that it reads from the primary: a replica may not have the record of a concurrent request yet.
+     */
+    @Transactional
+    Optional<IdempotencyRecord> findOneByKeyHash(String keyHash);
+
+    @Transactional
+    @Modifying
+    @Query(
+        "update IdempotencyRecord idempotencyRecord set idempotencyRecord.responseStatus = :status, " +
+        "idempotencyRecord.responseHeaders = :headers, idempotencyRecord.responseBody = :body " +
+        "where idempotencyRecord.keyHash = :keyHash"
+    )
+    int updateResponse(
+        @Param("keyHash") String keyHash,
+        @Param("status") int status,
+        @Param("headers") String headers,
+        @Param("body") byte[] body
+    );
+
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyRecord idempotencyRecord where idempotencyRecord.keyHash = :keyHash")
+    int deleteByKeyHash(@Param("keyHash") String keyHash);
+
+    @Transactional
+    @Modifying
+    @Query("delete from IdempotencyRecord idempotencyRecord where idempotencyRecord.expiryDate < :instant")
+    int deleteAllByExpiryDateBefore(@Param("instant") Instant instant);
+}
@@ -0,0 +1,34 @@
+package com.shoesapp.repository;
+
+import com.shoesapp.domain.RefreshToken;
+import java.time.Instant;
+import java.util.Optional;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Spring Data JPA repository for the {@link RefreshToken} entity.
+ */
+@Repository
+public interface RefreshTokenRepository extends JpaRepository<RefreshToken, Long> {
+    Optional<RefreshToken> findOneByTokenHash(String tokenHash);
+
+    @Transactional
+    @Modifying
+    @Query("delete from RefreshToken refreshToken where refreshToken.tokenHash = :tokenHash")
+    int deleteByTokenHash(@Param("tokenHash") String tokenHash);
+
+    @Transactional
+    @Modifying
+    @Query("delete from RefreshToken refreshToken where refreshToken.login = :login")
+    int deleteAllByLogin(@Param("login") String login);
+
+    @Transactional
+    @Modifying
+    @Query("delete from RefreshToken refreshToken where refreshToken.expiryDate < :instant")
+    int deleteAllByExpiryDateBefore(@Param("instant") Instant instant);
+}
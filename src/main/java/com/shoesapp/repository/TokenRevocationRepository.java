@@ -0,0 +1,24 @@
+package com.shoesapp.repository;
+
+import com.shoesapp.domain.TokenRevocation;
+import java.time.Instant;
+import java.util.List;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Spring Data JPA repository for the {@link TokenRevocation} entity.
+ */
+@Repository
+public interface TokenRevocationRepository extends JpaRepository<TokenRevocation, String> {
+    List<TokenRevocation> findAllByRevokedBeforeAfter(Instant instant);
+
+    @Transactional
+    @Modifying
+    @Query("delete from TokenRevocation tokenRevocation where tokenRevocation.revokedBefore < :instant")
+    int deleteAllByRevokedBeforeBefore(@Param("instant") Instant instant);
+}
@@ -0,0 +1,38 @@
+package com.shoesapp.repository;
+
+import com.shoesapp.domain.User;
+import java.time.Instant;
+import java.util.Map;
+
+/**
+ * Fragment of the {@link UserRepository} updating users without loading them.
+ */
+public interface UserPatchRepository {
+    /**
+     * Attributes of a {@link User} which can be patched.
+     */
+    String FIRST_NAME = "firstName";
+    String LAST_NAME = "lastName";
+    String EMAIL = "email";
+    String IMAGE_URL = "imageUrl";
+    String LANG_KEY = "langKey";
+    String PHONE_NUMBER = "phoneNumber";
+    String GENDER = "gender";
+    String ACTIVATED = "activated";
+
+    /**
+     * Update some attributes of a user with a single {@code UPDATE} statement, setting its audit columns and
+     * incrementing its version.
+     * <p>
+     * The statement bypasses the persistence context: a user already loaded in the current transaction is not updated.
+     *
+     * @param login the login of the user.
+     * @param attributes the new values of the attributes, by name.
+     * @param version the version the user must have, or {@code null} to update any version.
+     * @param modifiedBy the login of the user making the change.
+     * @param modifiedDate the date of the change.
+     * @return the number of updated users, {@code 0} if the user does not exist or has another version.
+     * @throws IllegalArgumentException if an attribute cannot be patched.
+     */
+    int patchByLogin(String login, Map<String, Object> attributes, Long version, String modifiedBy, Instant modifiedDate);
+}
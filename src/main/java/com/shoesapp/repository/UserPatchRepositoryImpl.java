@@ -0,0 +1,59 @@
+package com.shoesapp.repository;
+
+import java.time.Instant;
+import java.util.Map;
+import java.util.Set;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Implementation of the {@link UserPatchRepository} fragment with a JPQL bulk update.
+ */
+class UserPatchRepositoryImpl implements UserPatchRepository {
+
+    private static final Set<String> PATCHABLE_ATTRIBUTES = Set.of(
+        FIRST_NAME,
+        LAST_NAME,
+        EMAIL,
+        IMAGE_URL,
+        LANG_KEY,
+        PHONE_NUMBER,
+        GENDER,
+        ACTIVATED
+    );
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional
+    public int patchByLogin(String login, Map<String, Object> attributes, Long version, String modifiedBy, Instant modifiedDate) {
+        StringBuilder jpql = new StringBuilder("update User u set ");
+        for (String attribute : attributes.keySet()) {
+            if (!PATCHABLE_ATTRIBUTES.contains(attribute)) {
+                throw new IllegalArgumentException("The attribute " + attribute + " of a user cannot be patched");
+            }
+            // the attribute names are whitelisted, only the values are bound
+            jpql.append("u.").append(attribute).append(" = :").append(attribute).append(", ");
+        }
+        // bulk updates bypass the @Version handling of Hibernate
+        jpql
+            .append("u.lastModifiedBy = :lastModifiedBy, u.lastModifiedDate = :lastModifiedDate, u.version = u.version + 1")
+            .append(" where u.login = :login");
+        if (version != null) {
+            jpql.append(" and u.version = :version");
+        }
+
+        Query query = entityManager.createQuery(jpql.toString());
+        attributes.forEach(query::setParameter);
+        query.setParameter("lastModifiedBy", modifiedBy);
+        query.setParameter("lastModifiedDate", modifiedDate);
+        query.setParameter("login", login);
+        if (version != null) {
+            query.setParameter("version", version);
+        }
+        return query.executeUpdate();
+    }
+}
@@ -0,0 +1,53 @@
+package com.shoesapp.repository;
+
+import com.shoesapp.domain.User;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+/**
+ * Fragment of the {@link UserRepository} reading some attributes of users without loading them.
+ */
+public interface UserProjectionRepository {
+    /**
+     * Basic attributes of a {@link User} which can be read on their own.
+     */
+    Set<String> PROJECTABLE_ATTRIBUTES = Set.of(
+        "id",
+        "login",
+        "firstName",
+        "lastName",
+        "email",
+        "imageUrl",
+        "activated",
+        "langKey",
+        "createdBy",
+        "createdDate",
+        "lastModifiedBy",
+        "lastModifiedDate",
+        "phoneNumber",
+        "gender"
+    );
+
+    /**
+     * Find a page of users, selecting only some of their columns.
+     * <p>
+     * The id and the version of the users are always selected.
+     *
+     * @param attributes the names of the attributes to read.
+     * @param pageable the pagination information, sorted by projectable attributes.
+     * @return the values of the attributes by name, for each user of the page.
+     * @throws IllegalArgumentException if an attribute cannot be read on its own.
+     */
+    Page<Map<String, Object>> findAllAttributes(Set<String> attributes, Pageable pageable);
+
+    /**
+     * Find the names of the authorities of some users, in a single query.
+     *
+     * @param ids the ids of the users.
+     * @return the names of the authorities by user id, without the users having none.
+     */
+    Map<Long, Set<String>> findAuthorityNamesByIdIn(Collection<Long> ids);
+}
@@ -0,0 +1,86 @@
+package com.shoesapp.repository;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Tuple;
+import javax.persistence.TupleElement;
+import javax.persistence.TypedQuery;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.data.support.PageableExecutionUtils;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Implementation of the {@link UserProjectionRepository} fragment with JPQL tuple queries.
+ */
+class UserProjectionRepositoryImpl implements UserProjectionRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<Map<String, Object>> findAllAttributes(Set<String> attributes, Pageable pageable) {
+        Set<String> selected = new LinkedHashSet<>(List.of("id", "version"));
+        for (String attribute : attributes) {
+            if (!PROJECTABLE_ATTRIBUTES.contains(attribute)) {
+                throw new IllegalArgumentException("The attribute " + attribute + " of a user cannot be read on its own");
+            }
+            selected.add(attribute);
+        }
+        // the attribute names are whitelisted, only aliases of them end up in the statement
+        String jpql = selected
+            .stream()
+            .map(attribute -> "u." + attribute + " as " + attribute)
+            .collect(Collectors.joining(", ", "select ", " from User u"));
+        TypedQuery<Tuple> query = entityManager.createQuery(QueryUtils.applySorting(jpql, pageable.getSort(), "u"), Tuple.class);
+        if (pageable.isPaged()) {
+            query.setFirstResult((int) pageable.getOffset());
+            query.setMaxResults(pageable.getPageSize());
+        }
+
+        List<Map<String, Object>> content = query
+            .getResultList()
+            .stream()
+            .map(UserProjectionRepositoryImpl::toMap)
+            .collect(Collectors.toList());
+        return PageableExecutionUtils.getPage(
+            content,
+            pageable,
+            () -> entityManager.createQuery("select count(u) from User u", Long.class).getSingleResult()
+        );
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, Set<String>> findAuthorityNamesByIdIn(Collection<Long> ids) {
+        Map<Long, Set<String>> authorities = new HashMap<>();
+        if (ids.isEmpty()) {
+            return authorities;
+        }
+        entityManager
+            .createQuery("select u.id, a.name from User u join u.authorities a where u.id in :ids", Object[].class)
+            .setParameter("ids", ids)
+            .getResultList()
+            .forEach(row -> authorities.computeIfAbsent((Long) row[0], id -> new HashSet<>()).add((String) row[1]));
+        return authorities;
+    }
+
+    private static Map<String, Object> toMap(Tuple tuple) {
+        Map<String, Object> values = new LinkedHashMap<>();
+        for (TupleElement<?> element : tuple.getElements()) {
+            values.put(element.getAlias(), tuple.get(element));
+        }
+        return values;
+    }
+}
@@ -2,23 +2,28 @@ package com.shoesapp.repository;
 
 import com.shoesapp.domain.User;
 import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 /**
  * Spring Data JPA repository for the {@link User} entity.
  */
 @Repository
-public interface UserRepository extends JpaRepository<User, Long> {
+public interface UserRepository extends JpaRepository<User, Long>, UserPatchRepository, UserProjectionRepository {
     Optional<User> findOneByActivationKey(String activationKey);
 
     List<User> findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(Instant dateTime);
 
+    List<User> findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(Instant dateTime, Pageable pageable);
+
     Optional<User> findOneByResetKey(String resetKey);
 
     Optional<User> findOneByEmailIgnoreCase(String email);
@@ -31,5 +36,26 @@ public interface UserRepository extends JpaRepository<User, Long> {
     @EntityGraph(attributePaths = "authorities")
     Optional<User> findOneWithAuthoritiesByEmailIgnoreCase(String email);
 
+    @EntityGraph(attributePaths = "authorities")
+    List<User> findAllWithAuthoritiesByLoginIn(Collection<String> logins);
+
+    @EntityGraph(attributePaths = "authorities")
+    List<User> findAllWithAuthoritiesByIdIn(Collection<Long> ids);
+
+    List<User> findAllByLoginInAndActivatedIsTrue(Collection<String> logins);
+
+    List<User> findAllByIdInAndActivatedIsTrue(Collection<Long> ids);
+
     Page<User> findAllByIdNotNullAndActivatedIsTrue(Pageable pageable);
+
+    /**
+     * The users modified after the given position, up to {@code until}, in {@code (lastModifiedDate, id)} order: the
+     * {@code idx_user_last_modified_date_id} index gives both the range and the order. The authorities are not fetched
+     * with the users, so that the page is limited in the database; they are loaded in batches.
+     */
+    @Query(
+        "select u from User u where (u.lastModifiedDate > :since or (u.lastModifiedDate = :since and u.id > :id)) " +
+        "and u.lastModifiedDate <= :until order by u.lastModifiedDate, u.id"
+    )
+    List<User> findAllModifiedAfter(@Param("since") Instant since, @Param("id") long id, @Param("until") Instant until, Pageable pageable);
 }
@@ -0,0 +1,38 @@
+package com.shoesapp.repository;
+
+import com.shoesapp.domain.UserTombstone;
+import java.time.Instant;
+import java.util.List;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Spring Data JPA repository for the {@link UserTombstone} entity.
+ */
+@Repository
+public interface UserTombstoneRepository extends JpaRepository<UserTombstone, Long> {
+    /**
+     * The deletions after the given position, up to {@code until}, in {@code (deletedDate, id)} order.
+     */
+    @Query(
+        "select userTombstone from UserTombstone userTombstone " +
+        "where (userTombstone.deletedDate > :since or (userTombstone.deletedDate = :since and userTombstone.id > :id)) " +
+        "and userTombstone.deletedDate <= :until order by userTombstone.deletedDate, userTombstone.id"
+    )
+    List<UserTombstone> findAllDeletedAfter(
+        @Param("since") Instant since,
+        @Param("id") long id,
+        @Param("until") Instant until,
+        Pageable pageable
+    );
+
+    @Transactional
+    @Modifying
+    @Query("delete from UserTombstone userTombstone where userTombstone.deletedDate < :instant")
+    int deleteAllByDeletedDateBefore(@Param("instant") Instant instant);
+}
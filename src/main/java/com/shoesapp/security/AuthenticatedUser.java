@@ -0,0 +1,125 @@
+package com.shoesapp.security;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Objects;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.UserDetails;
+
+/**
+ * Principal of a user authenticated with a JWT token, carrying its authorities as a bitset of the
+ * {@link AuthorityRegistry} for allocation-free authorization checks.
+ */
+public class AuthenticatedUser implements UserDetails {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String username;
+
+    private final Collection<GrantedAuthority> authorities;
+
+    private final long authorityBits;
+
+    private final transient Map<String, Object> claims;
+
+    /**
+     * @param username the login of the user.
+     * @param authorities the canonical authorities of the user, which are not copied.
+     * @param authorityBits the bits of the authorities.
+     */
+    public AuthenticatedUser(String username, Collection<GrantedAuthority> authorities, long authorityBits) {
+        this(username, authorities, authorityBits, null);
+    }
+
+    /**
+     * @param username the login of the user.
+     * @param authorities the canonical authorities of the user, which are not copied.
+     * @param authorityBits the bits of the authorities.
+     * @param claims the claims of the JWT token of the user.
+     */
+    public AuthenticatedUser(String username, Collection<GrantedAuthority> authorities, long authorityBits, Map<String, Object> claims) {
+        this.username = username;
+        this.authorities = authorities;
+        this.authorityBits = authorityBits;
+        this.claims = claims;
+    }
+
+    public long getAuthorityBits() {
+        return authorityBits;
+    }
+
+    /**
+     * @return the claims of the JWT token of the user, or {@code null} if unknown.
+     */
+    public Map<String, Object> getClaims() {
+        return claims;
+    }
+
+    /**
+     * @param bits the bits of some authorities, from {@link AuthorityRegistry#bits(String...)}.
+     * @return true if the user has any of the authorities.
+     */
+    public boolean hasAnyAuthority(long bits) {
+        return (authorityBits & bits) != 0;
+    }
+
+    @Override
+    public Collection<GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    @Override
+    public String getPassword() {
+        return "";
+    }
+
+    @Override
+    public String getUsername() {
+        return username;
+    }
+
+    @Override
+    public boolean isAccountNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isAccountNonLocked() {
+        return true;
+    }
+
+    @Override
+    public boolean isCredentialsNonExpired() {
+        return true;
+    }
+
+    @Override
+    public boolean isEnabled() {
+        return true;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof AuthenticatedUser)) {
+            return false;
+        }
+        return Objects.equals(username, ((AuthenticatedUser) o).username);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(username);
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "AuthenticatedUser{" +
+            "username='" + username + '\'' +
+            ", authorities=" + authorities +
+            "}";
+    }
+}
@@ -0,0 +1,22 @@
+package com.shoesapp.security;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
+import org.springframework.security.access.expression.method.MethodSecurityExpressionOperations;
+import org.springframework.security.core.Authentication;
+
+/**
+ * Method security expression handler evaluating the authority checks of the users authenticated with a JWT token as
+ * bit tests, see {@link AuthorityBitsMethodSecurityExpressionRoot}.
+ */
+public class AuthorityBitsMethodSecurityExpressionHandler extends DefaultMethodSecurityExpressionHandler {
+
+    @Override
+    protected MethodSecurityExpressionOperations createSecurityExpressionRoot(Authentication authentication, MethodInvocation invocation) {
+        MethodSecurityExpressionOperations root = super.createSecurityExpressionRoot(authentication, invocation);
+        if (getRoleHierarchy() == null && authentication.getPrincipal() instanceof AuthenticatedUser) {
+            return new AuthorityBitsMethodSecurityExpressionRoot(root, (AuthenticatedUser) authentication.getPrincipal());
+        }
+        return root;
+    }
+}
@@ -0,0 +1,130 @@
+package com.shoesapp.security;
+
+import org.springframework.security.access.expression.method.MethodSecurityExpressionOperations;
+import org.springframework.security.core.Authentication;
+
+/**
+ * Method security expression root evaluating {@code hasAuthority} and {@code hasAnyAuthority} as bit tests on an
+ * {@link AuthenticatedUser}, and delegating everything else to the standard root.
+ * <p>
+ * The standard root copies the authorities of the user into a set on its first authority check.
+ */
+class AuthorityBitsMethodSecurityExpressionRoot implements MethodSecurityExpressionOperations {
+
+    public final boolean permitAll = true;
+
+    public final boolean denyAll = false;
+
+    public final String read = "read";
+
+    public final String write = "write";
+
+    public final String create = "create";
+
+    public final String delete = "delete";
+
+    public final String admin = "administration";
+
+    private final MethodSecurityExpressionOperations delegate;
+
+    private final AuthenticatedUser user;
+
+    AuthorityBitsMethodSecurityExpressionRoot(MethodSecurityExpressionOperations delegate, AuthenticatedUser user) {
+        this.delegate = delegate;
+        this.user = user;
+    }
+
+    @Override
+    public boolean hasAuthority(String authority) {
+        return user.hasAnyAuthority(AuthorityRegistry.bit(authority));
+    }
+
+    @Override
+    public boolean hasAnyAuthority(String... authorities) {
+        return user.hasAnyAuthority(AuthorityRegistry.bits(authorities));
+    }
+
+    @Override
+    public Authentication getAuthentication() {
+        return delegate.getAuthentication();
+    }
+
+    public Object getPrincipal() {
+        return delegate.getAuthentication().getPrincipal();
+    }
+
+    @Override
+    public boolean hasRole(String role) {
+        return delegate.hasRole(role);
+    }
+
+    @Override
+    public boolean hasAnyRole(String... roles) {
+        return delegate.hasAnyRole(roles);
+    }
+
+    @Override
+    public boolean permitAll() {
+        return true;
+    }
+
+    @Override
+    public boolean denyAll() {
+        return false;
+    }
+
+    @Override
+    public boolean isAnonymous() {
+        return delegate.isAnonymous();
+    }
+
+    @Override
+    public boolean isAuthenticated() {
+        return delegate.isAuthenticated();
+    }
+
+    @Override
+    public boolean isRememberMe() {
+        return delegate.isRememberMe();
+    }
+
+    @Override
+    public boolean isFullyAuthenticated() {
+        return delegate.isFullyAuthenticated();
+    }
+
+    @Override
+    public boolean hasPermission(Object target, Object permission) {
+        return delegate.hasPermission(target, permission);
+    }
+
+    @Override
+    public boolean hasPermission(Object targetId, String targetType, Object permission) {
+        return delegate.hasPermission(targetId, targetType, permission);
+    }
+
+    @Override
+    public void setFilterObject(Object filterObject) {
+        delegate.setFilterObject(filterObject);
+    }
+
+    @Override
+    public Object getFilterObject() {
+        return delegate.getFilterObject();
+    }
+
+    @Override
+    public void setReturnObject(Object returnObject) {
+        delegate.setReturnObject(returnObject);
+    }
+
+    @Override
+    public Object getReturnObject() {
+        return delegate.getReturnObject();
+    }
+
+    @Override
+    public Object getThis() {
+        return delegate.getThis();
+    }
+}
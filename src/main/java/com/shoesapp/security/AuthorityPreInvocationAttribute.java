@@ -0,0 +1,55 @@
+package com.shoesapp.security;
+
+import java.util.Arrays;
+import org.springframework.security.access.prepost.PreInvocationAttribute;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+/**
+ * A {@code @PreAuthorize("hasAnyAuthority(...)")} compiled into an authority check, see
+ * {@link CompilingPrePostInvocationAttributeFactory}.
+ */
+class AuthorityPreInvocationAttribute implements PreInvocationAttribute {
+
+    private static final long serialVersionUID = 1L;
+
+    private final String[] authorities;
+
+    private final long bits;
+
+    AuthorityPreInvocationAttribute(String[] authorities) {
+        this.authorities = authorities;
+        this.bits = AuthorityRegistry.bits(authorities);
+    }
+
+    /**
+     * @param authentication the authentication of the caller.
+     * @return true if the caller has any of the authorities.
+     */
+    boolean isGranted(Authentication authentication) {
+        if (authentication.getPrincipal() instanceof AuthenticatedUser) {
+            return ((AuthenticatedUser) authentication.getPrincipal()).hasAnyAuthority(bits);
+        }
+        for (GrantedAuthority grantedAuthority : authentication.getAuthorities()) {
+            for (String authority : authorities) {
+                if (authority.equals(grantedAuthority.getAuthority())) {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Like the expression based attributes, not representable as a string.
+     */
+    @Override
+    public String getAttribute() {
+        return null;
+    }
+
+    @Override
+    public String toString() {
+        return "[authorize: hasAnyAuthority" + Arrays.toString(authorities) + "]";
+    }
+}
@@ -0,0 +1,105 @@
+package com.shoesapp.security;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+
+/**
+ * Registry of the canonical {@link GrantedAuthority} instances, each mapped to a bit of a {@code long}.
+ * <p>
+ * A set of authorities can then be carried as a bitset, and checking that a user has any of some authorities becomes
+ * a bit test. The application only has a handful of authorities: the registry holds at most 64 of them.
+ */
+public final class AuthorityRegistry {
+
+    private static final ConcurrentMap<String, RegisteredAuthority> AUTHORITIES = new ConcurrentHashMap<>();
+
+    static {
+        register(AuthoritiesConstants.ADMIN);
+        register(AuthoritiesConstants.USER);
+        register(AuthoritiesConstants.ANONYMOUS);
+    }
+
+    private AuthorityRegistry() {}
+
+    /**
+     * Get the canonical instance of an authority.
+     *
+     * @param name the name of the authority.
+     * @return the canonical authority.
+     */
+    public static GrantedAuthority authority(String name) {
+        return register(name).authority;
+    }
+
+    /**
+     * Get the bit of an authority.
+     *
+     * @param name the name of the authority.
+     * @return a {@code long} with the bit of the authority set.
+     */
+    public static long bit(String name) {
+        return register(name).bit;
+    }
+
+    /**
+     * Get the bits of some authorities.
+     *
+     * @param names the names of the authorities.
+     * @return a {@code long} with the bits of the authorities set.
+     */
+    public static long bits(String... names) {
+        long bits = 0;
+        for (String name : names) {
+            bits |= bit(name);
+        }
+        return bits;
+    }
+
+    /**
+     * Get the bits of some authorities.
+     *
+     * @param authorities the authorities.
+     * @return a {@code long} with the bits of the authorities set.
+     */
+    public static long bits(Collection<? extends GrantedAuthority> authorities) {
+        long bits = 0;
+        for (GrantedAuthority authority : authorities) {
+            bits |= bit(authority.getAuthority());
+        }
+        return bits;
+    }
+
+    private static RegisteredAuthority register(String name) {
+        RegisteredAuthority registered = AUTHORITIES.get(name);
+        if (registered != null) {
+            return registered;
+        }
+        synchronized (AUTHORITIES) {
+            return AUTHORITIES.computeIfAbsent(
+                name,
+                key -> {
+                    int index = AUTHORITIES.size();
+                    if (index >= Long.SIZE) {
+                        throw new IllegalStateException("Cannot register more than " + Long.SIZE + " authorities, " + key + " is one too many");
+                    }
+                    return new RegisteredAuthority(new SimpleGrantedAuthority(key), 1L << index);
+                }
+            );
+        }
+    }
+
+    private static final class RegisteredAuthority {
+
+        private final GrantedAuthority authority;
+
+        private final long bit;
+
+        private RegisteredAuthority(GrantedAuthority authority, long bit) {
+            this.authority = authority;
+            this.bit = bit;
+        }
+    }
+}
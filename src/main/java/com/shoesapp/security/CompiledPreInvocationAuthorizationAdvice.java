@@ -0,0 +1,31 @@
+package com.shoesapp.security;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.security.access.expression.method.ExpressionBasedPreInvocationAdvice;
+import org.springframework.security.access.expression.method.MethodSecurityExpressionHandler;
+import org.springframework.security.access.prepost.PreInvocationAttribute;
+import org.springframework.security.access.prepost.PreInvocationAuthorizationAdvice;
+import org.springframework.security.core.Authentication;
+
+/**
+ * {@code @PreAuthorize} advice checking the authorities compiled by {@link CompilingPrePostInvocationAttributeFactory}
+ * directly, and evaluating the other expressions with SpEL.
+ * <p>
+ * Like the expressions, the compiled checks do not use any role hierarchy.
+ */
+public class CompiledPreInvocationAuthorizationAdvice implements PreInvocationAuthorizationAdvice {
+
+    private final ExpressionBasedPreInvocationAdvice expressionAdvice = new ExpressionBasedPreInvocationAdvice();
+
+    public CompiledPreInvocationAuthorizationAdvice(MethodSecurityExpressionHandler expressionHandler) {
+        expressionAdvice.setExpressionHandler(expressionHandler);
+    }
+
+    @Override
+    public boolean before(Authentication authentication, MethodInvocation mi, PreInvocationAttribute preInvocationAttribute) {
+        if (preInvocationAttribute instanceof AuthorityPreInvocationAttribute) {
+            return ((AuthorityPreInvocationAttribute) preInvocationAttribute).isGranted(authentication);
+        }
+        return expressionAdvice.before(authentication, mi, preInvocationAttribute);
+    }
+}
@@ -0,0 +1,85 @@
+package com.shoesapp.security;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.access.expression.method.ExpressionBasedAnnotationAttributeFactory;
+import org.springframework.security.access.expression.method.MethodSecurityExpressionHandler;
+import org.springframework.security.access.prepost.PostInvocationAttribute;
+import org.springframework.security.access.prepost.PreInvocationAttribute;
+import org.springframework.security.access.prepost.PrePostInvocationAttributeFactory;
+
+/**
+ * Compiles the plain {@code hasAuthority('...')} and {@code hasAnyAuthority('...', ...)} {@code @PreAuthorize}
+ * expressions into authority checks, evaluated by {@link CompiledPreInvocationAuthorizationAdvice} without SpEL.
+ * <p>
+ * The annotations are read when the secured beans are proxied, at startup. Any other expression, and any method also
+ * annotated with {@code @PreFilter}, is left to the standard {@link ExpressionBasedAnnotationAttributeFactory}.
+ */
+public class CompilingPrePostInvocationAttributeFactory implements PrePostInvocationAttributeFactory {
+
+    private static final Pattern HAS_AUTHORITY = Pattern.compile("\\s*has(Any)?Authority\\s*\\((.*)\\)\\s*");
+
+    private static final Pattern QUOTED_AUTHORITY = Pattern.compile("\\s*(?:'([^'\"]+)'|\"([^'\"]+)\")\\s*");
+
+    private final Logger log = LoggerFactory.getLogger(CompilingPrePostInvocationAttributeFactory.class);
+
+    private final ExpressionBasedAnnotationAttributeFactory expressionAttributeFactory;
+
+    public CompilingPrePostInvocationAttributeFactory(MethodSecurityExpressionHandler expressionHandler) {
+        this.expressionAttributeFactory = new ExpressionBasedAnnotationAttributeFactory(expressionHandler);
+    }
+
+    @Override
+    public PreInvocationAttribute createPreInvocationAttribute(
+        String preFilterAttribute,
+        String filterObject,
+        String preAuthorizeAttribute
+    ) {
+        if (preFilterAttribute == null) {
+            String[] authorities = parseAuthorities(preAuthorizeAttribute);
+            if (authorities != null) {
+                log.debug("Compiled @PreAuthorize(\"{}\") into an authority check", preAuthorizeAttribute);
+                return new AuthorityPreInvocationAttribute(authorities);
+            }
+        }
+        return expressionAttributeFactory.createPreInvocationAttribute(preFilterAttribute, filterObject, preAuthorizeAttribute);
+    }
+
+    @Override
+    public PostInvocationAttribute createPostInvocationAttribute(String postFilterAttribute, String postAuthorizeAttribute) {
+        return expressionAttributeFactory.createPostInvocationAttribute(postFilterAttribute, postAuthorizeAttribute);
+    }
+
+    /**
+     * Parse a {@code hasAuthority} or {@code hasAnyAuthority} expression.
+     *
+     * @param expression the SpEL expression.
+     * @return the authorities checked by the expression, or {@code null} if it is not a plain authority check.
+     */
+    static String[] parseAuthorities(String expression) {
+        if (expression == null) {
+            return null;
+        }
+        Matcher matcher = HAS_AUTHORITY.matcher(expression);
+        if (!matcher.matches()) {
+            return null;
+        }
+        List<String> authorities = new ArrayList<>();
+        for (String argument : matcher.group(2).split(",", -1)) {
+            Matcher quoted = QUOTED_AUTHORITY.matcher(argument);
+            if (!quoted.matches()) {
+                return null;
+            }
+            authorities.add(quoted.group(1) != null ? quoted.group(1) : quoted.group(2));
+        }
+        boolean any = matcher.group(1) != null;
+        if (!any && authorities.size() != 1) {
+            return null;
+        }
+        return authorities.toArray(new String[0]);
+    }
+}
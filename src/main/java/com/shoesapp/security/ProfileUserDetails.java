@@ -0,0 +1,38 @@
+package com.shoesapp.security;
+
+import com.shoesapp.service.dto.AdminUserDTO;
+import java.util.Collection;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.userdetails.User;
+
+/**
+ * A user loaded from the database for authentication, with its profile to embed in its JWT tokens.
+ */
+public class ProfileUserDetails extends User {
+
+    private static final long serialVersionUID = 1L;
+
+    private final transient AdminUserDTO profile;
+
+    private final long profileVersion;
+
+    public ProfileUserDetails(
+        String username,
+        String password,
+        Collection<? extends GrantedAuthority> authorities,
+        AdminUserDTO profile,
+        long profileVersion
+    ) {
+        super(username, password, authorities);
+        this.profile = profile;
+        this.profileVersion = profileVersion;
+    }
+
+    public AdminUserDTO getProfile() {
+        return profile;
+    }
+
+    public long getProfileVersion() {
+        return profileVersion;
+    }
+}
@@ -1,11 +1,15 @@
 package com.shoesapp.security.jwt;
 
+import com.shoesapp.service.TokenRevocationService;
+import io.jsonwebtoken.Claims;
 import java.io.IOException;
 import javax.servlet.FilterChain;
 import javax.servlet.ServletException;
 import javax.servlet.ServletRequest;
 import javax.servlet.ServletResponse;
 import javax.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.util.StringUtils;
@@ -13,16 +17,30 @@ import org.springframework.web.filter.GenericFilterBean;
 
 /**
  * Filters incoming requests and installs a Spring Security principal if a header corresponding to a valid user is
- * found.
+ * found, and its token was not revoked.
  */
 public class JWTFilter extends GenericFilterBean {
 
     public static final String AUTHORIZATION_HEADER = "Authorization";
 
+    private final Logger log = LoggerFactory.getLogger(JWTFilter.class);
+
     private final TokenProvider tokenProvider;
 
+    private final TokenRevocationService tokenRevocationService;
+
+    /**
+     * Create a filter which does not check whether tokens were revoked.
+     *
+     * @param tokenProvider the token provider.
+     */
     public JWTFilter(TokenProvider tokenProvider) {
+        this(tokenProvider, null);
+    }
+
+    public JWTFilter(TokenProvider tokenProvider, TokenRevocationService tokenRevocationService) {
         this.tokenProvider = tokenProvider;
+        this.tokenRevocationService = tokenRevocationService;
     }
 
     @Override
@@ -30,13 +48,25 @@ public class JWTFilter extends GenericFilterBean {
         throws IOException, ServletException {
         HttpServletRequest httpServletRequest = (HttpServletRequest) servletRequest;
         String jwt = resolveToken(httpServletRequest);
-        if (StringUtils.hasText(jwt) && this.tokenProvider.validateToken(jwt)) {
-            Authentication authentication = this.tokenProvider.getAuthentication(jwt);
+        Claims claims = StringUtils.hasText(jwt) ? this.tokenProvider.parseClaims(jwt) : null;
+        if (claims != null && !isRevoked(claims)) {
+            Authentication authentication = this.tokenProvider.getAuthentication(claims, jwt);
             SecurityContextHolder.getContext().setAuthentication(authentication);
         }
         filterChain.doFilter(servletRequest, servletResponse);
     }
 
+    private boolean isRevoked(Claims claims) {
+        if (tokenRevocationService == null) {
+            return false;
+        }
+        if (tokenRevocationService.isRevoked(claims.getSubject(), TokenProvider.getIssuedAt(claims))) {
+            log.debug("Rejected the revoked JWT token of {}", claims.getSubject());
+            return true;
+        }
+        return false;
+    }
+
     private String resolveToken(HttpServletRequest request) {
         String bearerToken = request.getHeader(AUTHORIZATION_HEADER);
         if (StringUtils.hasText(bearerToken) && bearerToken.startsWith("Bearer ")) {
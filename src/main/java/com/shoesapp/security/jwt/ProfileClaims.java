@@ -0,0 +1,115 @@
+package com.shoesapp.security.jwt;
+
+import com.shoesapp.service.dto.AdminUserDTO;
+import io.jsonwebtoken.JwtBuilder;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+import org.springframework.security.core.GrantedAuthority;
+
+/**
+ * Claims embedding the profile of the user in its JWT access tokens, named after the OpenID Connect standard claims
+ * when there is one.
+ * <p>
+ * Only the names, email, language and picture are embedded, with the authorities and the profile version: the tokens
+ * are not encrypted and travel in every request, so the phone number, the gender and the audit fields are left out.
+ * The account read from the database is reduced to the same fields with {@link #toAccount(AdminUserDTO)}, so that it
+ * is the same whether it is answered from the token or not.
+ */
+public final class ProfileClaims {
+
+    public static final String PROFILE_VERSION = "pver";
+
+    static final String ID = "uid";
+
+    static final String FIRST_NAME = "given_name";
+
+    static final String LAST_NAME = "family_name";
+
+    static final String EMAIL = "email";
+
+    static final String IMAGE_URL = "picture";
+
+    static final String LANG_KEY = "locale";
+
+    private ProfileClaims() {}
+
+    static void addTo(JwtBuilder builder, AdminUserDTO profile, long profileVersion) {
+        builder.claim(PROFILE_VERSION, profileVersion);
+        addIfPresent(builder, ID, profile.getId());
+        addIfPresent(builder, FIRST_NAME, profile.getFirstName());
+        addIfPresent(builder, LAST_NAME, profile.getLastName());
+        addIfPresent(builder, EMAIL, profile.getEmail());
+        addIfPresent(builder, IMAGE_URL, profile.getImageUrl());
+        addIfPresent(builder, LANG_KEY, profile.getLangKey());
+    }
+
+    /**
+     * Get the profile version of a token.
+     *
+     * @param claims the claims of the token.
+     * @return the profile version, or {@code null} if the token does not embed the profile.
+     */
+    public static Long getProfileVersion(Map<String, Object> claims) {
+        return claims == null ? null : getLong(claims, PROFILE_VERSION);
+    }
+
+    /**
+     * Rebuild the profile embedded in a token.
+     *
+     * @param login the login of the user.
+     * @param authorities the authorities of the user.
+     * @param claims the claims of the token, embedding the profile.
+     * @return the profile, as read from the database when the token was issued, without the phone number, the gender
+     * and the audit fields.
+     */
+    public static AdminUserDTO toProfile(String login, Collection<? extends GrantedAuthority> authorities, Map<String, Object> claims) {
+        AdminUserDTO profile = new AdminUserDTO();
+        profile.setId(getLong(claims, ID));
+        profile.setLogin(login);
+        profile.setFirstName((String) claims.get(FIRST_NAME));
+        profile.setLastName((String) claims.get(LAST_NAME));
+        profile.setEmail((String) claims.get(EMAIL));
+        profile.setImageUrl((String) claims.get(IMAGE_URL));
+        // tokens are only issued to activated users
+        profile.setActivated(true);
+        profile.setLangKey((String) claims.get(LANG_KEY));
+        Set<String> authorityNames = authorities.stream().map(GrantedAuthority::getAuthority).collect(Collectors.toSet());
+        profile.setAuthorities(authorityNames);
+        profile.setVersion(getLong(claims, PROFILE_VERSION));
+        return profile;
+    }
+
+    /**
+     * Reduce a profile to the fields embedded in the tokens.
+     *
+     * @param profile the profile, as read from the database.
+     * @return the same profile as {@link #toProfile(String, Collection, Map)} rebuilds from a token issued now.
+     */
+    public static AdminUserDTO toAccount(AdminUserDTO profile) {
+        AdminUserDTO account = new AdminUserDTO();
+        account.setId(profile.getId());
+        account.setLogin(profile.getLogin());
+        account.setFirstName(profile.getFirstName());
+        account.setLastName(profile.getLastName());
+        account.setEmail(profile.getEmail());
+        account.setImageUrl(profile.getImageUrl());
+        account.setActivated(profile.isActivated());
+        account.setLangKey(profile.getLangKey());
+        account.setAuthorities(profile.getAuthorities());
+        account.setVersion(profile.getVersion());
+        return account;
+    }
+
+    private static void addIfPresent(JwtBuilder builder, String name, Object value) {
+        if (value != null) {
+            builder.claim(name, value);
+        }
+    }
+
+    private static Long getLong(Map<String, Object> claims, String name) {
+        Object value = claims.get(name);
+        return value instanceof Number ? ((Number) value).longValue() : null;
+    }
+}
@@ -1,19 +1,24 @@
 package com.shoesapp.security.jwt;
 
+import com.shoesapp.config.ApplicationProperties;
+import com.shoesapp.security.AuthenticatedUser;
+import com.shoesapp.security.AuthorityRegistry;
+import com.shoesapp.security.ProfileUserDetails;
 import io.jsonwebtoken.*;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.time.Instant;
 import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.core.authority.SimpleGrantedAuthority;
-import org.springframework.security.core.userdetails.User;
 import org.springframework.stereotype.Component;
 import org.springframework.util.ObjectUtils;
 import tech.jhipster.config.JHipsterProperties;
@@ -25,13 +30,44 @@ public class TokenProvider {
 
     private static final String AUTHORITIES_KEY = "auth";
 
+    /**
+     * Issue time of the token in milliseconds, as {@code iat} is in seconds: a token issued right after the tokens of
+     * its user were revoked must not be mistaken for a revoked one.
+     */
+    private static final String ISSUED_AT_MILLIS_KEY = "iat_ms";
+
+    /**
+     * Users share a handful of combinations of authorities, so the parsed {@code auth} claims are cached. The bound
+     * is only a safeguard.
+     */
+    private static final int MAX_PARSED_AUTHORITIES = 1024;
+
+    private final Map<String, ParsedAuthorities> parsedAuthorities = new ConcurrentHashMap<>();
+
     private final Key key;
 
     private final JwtParser jwtParser;
 
-    private final long tokenValidityInMilliseconds;
-
-    private final long tokenValidityInMillisecondsForRememberMe;
+    private long tokenValidityInMilliseconds;
+
+    private long tokenValidityInMillisecondsForRememberMe;
+
+    private boolean profileClaims = true;
+
+    /**
+     * Create a provider issuing short-lived access tokens, which are renewed with refresh tokens.
+     *
+     * @param jHipsterProperties the JWT secret.
+     * @param applicationProperties the validity of the access tokens, and whether they embed the profile of the user.
+     */
+    @Autowired
+    public TokenProvider(JHipsterProperties jHipsterProperties, ApplicationProperties applicationProperties) {
+        this(jHipsterProperties);
+        long accessTokenValidityInMilliseconds = 1000 * applicationProperties.getAuthentication().getAccessTokenValidityInSeconds();
+        this.tokenValidityInMilliseconds = accessTokenValidityInMilliseconds;
+        this.tokenValidityInMillisecondsForRememberMe = accessTokenValidityInMilliseconds;
+        this.profileClaims = applicationProperties.getAuthentication().isProfileClaims();
+    }
 
     public TokenProvider(JHipsterProperties jHipsterProperties) {
         byte[] keyBytes;
@@ -65,37 +101,103 @@ public class TokenProvider {
             validity = new Date(now + this.tokenValidityInMilliseconds);
         }
 
-        return Jwts
+        JwtBuilder builder = Jwts
             .builder()
             .setSubject(authentication.getName())
             .claim(AUTHORITIES_KEY, authorities)
             .signWith(key, SignatureAlgorithm.HS512)
-            .setExpiration(validity)
-            .compact();
+            .setIssuedAt(new Date(now))
+            .claim(ISSUED_AT_MILLIS_KEY, now)
+            .setExpiration(validity);
+        if (profileClaims && authentication.getPrincipal() instanceof ProfileUserDetails) {
+            ProfileUserDetails user = (ProfileUserDetails) authentication.getPrincipal();
+            if (user.getProfile() != null) {
+                ProfileClaims.addTo(builder, user.getProfile(), user.getProfileVersion());
+            }
+        }
+        return builder.compact();
     }
 
     public Authentication getAuthentication(String token) {
-        Claims claims = jwtParser.parseClaimsJws(token).getBody();
+        return getAuthentication(jwtParser.parseClaimsJws(token).getBody(), token);
+    }
+
+    /**
+     * Build the authentication of a token already parsed by {@link #parseClaims(String)}.
+     *
+     * @param claims the claims of the token.
+     * @param token the token.
+     * @return the authentication.
+     */
+    public Authentication getAuthentication(Claims claims, String token) {
+        String authoritiesClaim = claims.get(AUTHORITIES_KEY).toString();
+        ParsedAuthorities authorities = parsedAuthorities.get(authoritiesClaim);
+        if (authorities == null) {
+            authorities = new ParsedAuthorities(authoritiesClaim);
+            if (parsedAuthorities.size() < MAX_PARSED_AUTHORITIES) {
+                parsedAuthorities.put(authoritiesClaim, authorities);
+            }
+        }
 
-        Collection<? extends GrantedAuthority> authorities = Arrays
-            .stream(claims.get(AUTHORITIES_KEY).toString().split(","))
-            .filter(auth -> !auth.trim().isEmpty())
-            .map(SimpleGrantedAuthority::new)
-            .collect(Collectors.toList());
+        AuthenticatedUser principal = new AuthenticatedUser(claims.getSubject(), authorities.authorities, authorities.bits, claims);
 
-        User principal = new User(claims.getSubject(), "", authorities);
+        return new UsernamePasswordAuthenticationToken(principal, token, authorities.authorities);
+    }
 
-        return new UsernamePasswordAuthenticationToken(principal, token, authorities);
+    /**
+     * Get the issue time of a token, to the millisecond if the token has it.
+     *
+     * @param claims the claims of the token.
+     * @return the issue time, or {@code null} if unknown.
+     */
+    public static Instant getIssuedAt(Claims claims) {
+        Object issuedAtMillis = claims.get(ISSUED_AT_MILLIS_KEY);
+        if (issuedAtMillis instanceof Number) {
+            return Instant.ofEpochMilli(((Number) issuedAtMillis).longValue());
+        }
+        Date issuedAt = claims.getIssuedAt();
+        return issuedAt != null ? issuedAt.toInstant() : null;
     }
 
     public boolean validateToken(String authToken) {
+        return parseClaims(authToken) != null;
+    }
+
+    /**
+     * Validate a token and return its claims, so that it is parsed only once.
+     *
+     * @param authToken the token.
+     * @return the claims of the token, or {@code null} if the token is not valid.
+     */
+    public Claims parseClaims(String authToken) {
         try {
-            jwtParser.parseClaimsJws(authToken);
-            return true;
+            return jwtParser.parseClaimsJws(authToken).getBody();
         } catch (JwtException | IllegalArgumentException e) {
             log.info("Invalid JWT token.");
             log.trace("Invalid JWT token trace.", e);
         }
-        return false;
+        return null;
+    }
+
+    /**
+     * The canonical authorities of an {@code auth} claim, and their bits.
+     */
+    private static final class ParsedAuthorities {
+
+        private final List<GrantedAuthority> authorities;
+
+        private final long bits;
+
+        ParsedAuthorities(String authoritiesClaim) {
+            this.authorities =
+                Collections.unmodifiableList(
+                    Arrays
+                        .stream(authoritiesClaim.split(","))
+                        .filter(auth -> !auth.trim().isEmpty())
+                        .map(AuthorityRegistry::authority)
+                        .collect(Collectors.toList())
+                );
+            this.bits = AuthorityRegistry.bits(authorities);
+        }
     }
 }
@@ -0,0 +1,106 @@
+package com.shoesapp.service;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A fixed-size, thread-safe Bloom filter of strings.
+ * <p>
+ * {@link #mightContain(String)} never returns {@code false} for an added string, and returns {@code true} for a
+ * string which was not added with a probability given by {@link #expectedFalsePositiveProbability()}.
+ * Strings cannot be removed: the filter has to be rebuilt instead.
+ */
+final class BloomFilter {
+
+    private final AtomicLongArray words;
+
+    private final long bitCount;
+
+    private final int hashFunctions;
+
+    private final AtomicLong setBits = new AtomicLong();
+
+    private final AtomicLong insertions = new AtomicLong();
+
+    /**
+     * @param sizeInBytes memory used by the bit array, rounded up to a multiple of 8.
+     * @param expectedInsertions number of strings the number of hash functions is optimized for.
+     */
+    BloomFilter(int sizeInBytes, int expectedInsertions) {
+        int wordCount = Math.max((sizeInBytes + Long.BYTES - 1) / Long.BYTES, 1);
+        this.words = new AtomicLongArray(wordCount);
+        this.bitCount = (long) wordCount * Long.SIZE;
+        // k = m/n * ln(2) minimizes the false positive probability for n insertions
+        long optimal = Math.round((double) bitCount / Math.max(expectedInsertions, 1) * Math.log(2));
+        this.hashFunctions = (int) Math.max(1, Math.min(optimal, 16));
+    }
+
+    void put(String value) {
+        long hash = hash(value);
+        long h1 = (int) hash;
+        long h2 = hash >>> 32;
+        for (int i = 1; i <= hashFunctions; i++) {
+            long bit = index(h1 + i * h2);
+            int word = (int) (bit >>> 6);
+            long mask = 1L << bit;
+            long current;
+            do {
+                current = words.get(word);
+                if ((current & mask) != 0) {
+                    break;
+                }
+            } while (!words.compareAndSet(word, current, current | mask));
+            if ((current & mask) == 0) {
+                setBits.incrementAndGet();
+            }
+        }
+        insertions.incrementAndGet();
+    }
+
+    boolean mightContain(String value) {
+        long hash = hash(value);
+        long h1 = (int) hash;
+        long h2 = hash >>> 32;
+        for (int i = 1; i <= hashFunctions; i++) {
+            long bit = index(h1 + i * h2);
+            if ((words.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * @return the probability that {@link #mightContain(String)} is wrong, estimated from the fraction of set bits.
+     */
+    double expectedFalsePositiveProbability() {
+        return Math.pow((double) setBits.get() / bitCount, hashFunctions);
+    }
+
+    long sizeInBytes() {
+        return bitCount / Byte.SIZE;
+    }
+
+    long insertions() {
+        return insertions.get();
+    }
+
+    private long index(long combinedHash) {
+        return Math.floorMod(combinedHash, bitCount);
+    }
+
+    /**
+     * 64-bit FNV-1a over the UTF-8 bytes, followed by the SplitMix64 finalizer to spread the bits of short strings.
+     */
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b;
+            hash *= 0x100000001b3L;
+        }
+        hash = (hash ^ (hash >>> 30)) * 0xbf58476d1ce4e5b9L;
+        hash = (hash ^ (hash >>> 27)) * 0x94d049bb133111ebL;
+        return hash ^ (hash >>> 31);
+    }
+}
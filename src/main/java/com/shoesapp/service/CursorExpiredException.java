@@ -0,0 +1,10 @@
+package com.shoesapp.service;
+
+public class CursorExpiredException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public CursorExpiredException() {
+        super("The changes since the cursor are not all known anymore");
+    }
+}
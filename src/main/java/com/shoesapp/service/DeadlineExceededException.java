@@ -0,0 +1,10 @@
+package com.shoesapp.service;
+
+public class DeadlineExceededException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public DeadlineExceededException(String endpoint) {
+        super("The deadline of the " + endpoint + " request is exceeded!");
+    }
+}
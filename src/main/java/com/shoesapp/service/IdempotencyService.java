@@ -0,0 +1,377 @@
+package com.shoesapp.service;
+
+import com.shoesapp.aop.background.BackgroundJob;
+import com.shoesapp.config.ApplicationProperties;
+import com.shoesapp.domain.IdempotencyRecord;
+import com.shoesapp.repository.IdempotencyRecordRepository;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+/**
+ * Service remembering the first response to the requests sent with an idempotency key, so that the retries of a
+ * client get that response without the request being executed again.
+ * <p>
+ * The responses are stored in the database for {@code application.idempotency.time-to-live-in-seconds}, and the most
+ * recent ones are also kept in memory. A duplicate of a request still being executed waits for its response, in memory
+ * on this instance or by polling the database otherwise, for at most {@code max-wait-in-millis}.
+ */
+@Service
+public class IdempotencyService {
+
+    private static final long POLL_INTERVAL_MILLIS = 50;
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private final Logger log = LoggerFactory.getLogger(IdempotencyService.class);
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+
+    private final Map<String, Execution> executions;
+
+    private final Duration timeToLive;
+
+    private final long maxWaitNanos;
+
+    private final Duration executionTimeout;
+
+    public IdempotencyService(IdempotencyRecordRepository idempotencyRecordRepository, ApplicationProperties applicationProperties) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        ApplicationProperties.Idempotency properties = applicationProperties.getIdempotency();
+        this.timeToLive = Duration.ofSeconds(properties.getTimeToLiveInSeconds());
+        this.maxWaitNanos = TimeUnit.MILLISECONDS.toNanos(properties.getMaxWaitInMillis());
+        this.executionTimeout = Duration.ofSeconds(properties.getExecutionTimeoutInSeconds());
+        int maxEntries = properties.getMaxEntries();
+        this.executions =
+            new LinkedHashMap<>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Execution> eldest) {
+                    return size() > maxEntries;
+                }
+            };
+    }
+
+    /**
+     * Claim the execution of a request sent with an idempotency key.
+     *
+     * @param key the idempotency key.
+     * @param caller the login of the caller, the same key from two callers identifies two requests.
+     * @param request the method, the URI and the body of the request, to tell whether the key is reused for another request.
+     * @return the claim, whose outcome tells whether the request must be executed, and then {@link #complete} or
+     * {@link #abandon} called, or what to answer instead.
+     */
+    public Claim claim(String key, String caller, byte[] request) {
+        String keyHash = hash((caller + '\n' + key).getBytes(StandardCharsets.UTF_8));
+        String requestHash = hash(request);
+        long deadline = System.nanoTime() + maxWaitNanos;
+        try {
+            while (true) {
+                Execution execution = new Execution(requestHash, Instant.now().plus(timeToLive));
+                Execution existing;
+                synchronized (executions) {
+                    existing = executions.get(keyHash);
+                    if (existing != null && existing.expiryDate.isBefore(Instant.now())) {
+                        existing = null;
+                    }
+                    if (existing == null) {
+                        executions.put(keyHash, execution);
+                    }
+                }
+                Optional<Claim> claim = existing == null
+                    ? claimStored(keyHash, caller, execution, deadline)
+                    : awaitExecution(existing, requestHash, deadline);
+                if (claim.isPresent()) {
+                    return claim.get();
+                }
+                // the first execution was abandoned, claim it again
+                if (System.nanoTime() - deadline >= 0) {
+                    return Claim.IN_PROGRESS;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return Claim.IN_PROGRESS;
+        }
+    }
+
+    /**
+     * Store the response to a claimed request.
+     *
+     * @param claim the claim of the request.
+     * @param response the response.
+     */
+    public void complete(Claim claim, StoredResponse response) {
+        String headers = formatHeaders(response.getHeaders());
+        idempotencyRecordRepository.updateResponse(claim.keyHash, response.getStatus(), headers, response.getBody());
+        claim.execution.result.complete(response);
+    }
+
+    /**
+     * Forget a claimed request which failed, so that it can be executed again.
+     *
+     * @param claim the claim of the request.
+     */
+    public void abandon(Claim claim) {
+        synchronized (executions) {
+            executions.remove(claim.keyHash, claim.execution);
+        }
+        try {
+            idempotencyRecordRepository.deleteByKeyHash(claim.keyHash);
+        } finally {
+            claim.execution.result.complete(null);
+        }
+    }
+
+    /**
+     * Expired records are deleted every day, at 02:30 (am).
+     */
+    @Scheduled(cron = "0 30 2 * * ?")
+    @BackgroundJob
+    public void removeExpiredRecords() {
+        int removed = idempotencyRecordRepository.deleteAllByExpiryDateBefore(Instant.now());
+        log.debug("Deleted {} expired idempotency records", removed);
+    }
+
+    private Optional<Claim> claimStored(String keyHash, String caller, Execution execution, long deadline) throws InterruptedException {
+        String requestHash = execution.requestHash;
+        boolean claimed = false;
+        try {
+            IdempotencyRecord stored = idempotencyRecordRepository.findOneByKeyHash(keyHash).orElse(null);
+            if (stored != null && isOver(stored)) {
+                idempotencyRecordRepository.deleteByKeyHash(keyHash);
+                stored = null;
+            }
+            if (stored == null && insert(keyHash, caller, execution)) {
+                claimed = true;
+                return Optional.of(new Claim(Outcome.EXECUTE, null, keyHash, execution));
+            }
+            // another instance executes the request
+            stored = poll(keyHash, deadline);
+            if (stored == null) {
+                return Optional.empty();
+            }
+            if (stored.getResponseStatus() == null) {
+                return Optional.of(Claim.IN_PROGRESS);
+            }
+            StoredResponse response = new StoredResponse(
+                stored.getResponseStatus(),
+                parseHeaders(stored.getResponseHeaders()),
+                stored.getResponseBody()
+            );
+            execution.requestHash = stored.getRequestHash();
+            execution.result.complete(response);
+            return Optional.of(replay(stored.getRequestHash(), requestHash, response));
+        } finally {
+            if (!claimed && !execution.result.isDone()) {
+                // nothing to share with the local duplicates, they claim again
+                synchronized (executions) {
+                    executions.remove(keyHash, execution);
+                }
+                execution.result.complete(null);
+            }
+        }
+    }
+
+    /**
+     * @return true if the record expired, or if its request was lost, for instance with the instance executing it.
+     */
+    private boolean isOver(IdempotencyRecord stored) {
+        Instant now = Instant.now();
+        return (
+            stored.getExpiryDate().isBefore(now) ||
+            (stored.getResponseStatus() == null && stored.getCreatedDate().plus(executionTimeout).isBefore(now))
+        );
+    }
+
+    private Optional<Claim> awaitExecution(Execution execution, String requestHash, long deadline) throws InterruptedException {
+        StoredResponse response;
+        try {
+            response = execution.result.get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            return Optional.of(Claim.IN_PROGRESS);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+        return response == null ? Optional.empty() : Optional.of(replay(execution.requestHash, requestHash, response));
+    }
+
+    private static Claim replay(String storedRequestHash, String requestHash, StoredResponse response) {
+        return storedRequestHash.equals(requestHash) ? new Claim(Outcome.REPLAY, response, null, null) : Claim.MISMATCH;
+    }
+
+    private boolean insert(String keyHash, String caller, Execution execution) {
+        IdempotencyRecord idempotencyRecord = new IdempotencyRecord();
+        idempotencyRecord.setKeyHash(keyHash);
+        idempotencyRecord.setCaller(caller);
+        idempotencyRecord.setRequestHash(execution.requestHash);
+        idempotencyRecord.setCreatedDate(Instant.now());
+        idempotencyRecord.setExpiryDate(execution.expiryDate);
+        try {
+            idempotencyRecordRepository.saveAndFlush(idempotencyRecord);
+            return true;
+        } catch (DataIntegrityViolationException e) {
+            log.debug("Request with idempotency key of {} claimed concurrently", caller);
+            return false;
+        }
+    }
+
+    /**
+     * @return the record once it has a response, or still without one when the wait is over, or {@code null} if it
+     * was abandoned.
+     */
+    private IdempotencyRecord poll(String keyHash, long deadline) throws InterruptedException {
+        while (true) {
+            IdempotencyRecord stored = idempotencyRecordRepository.findOneByKeyHash(keyHash).orElse(null);
+            if (stored == null || stored.getResponseStatus() != null || System.nanoTime() - deadline >= 0) {
+                return stored;
+            }
+            Thread.sleep(POLL_INTERVAL_MILLIS);
+        }
+    }
+
+    private static String formatHeaders(Map<String, List<String>> headers) {
+        StringBuilder formatted = new StringBuilder();
+        headers.forEach((name, values) -> values.forEach(value -> formatted.append(name).append(": ").append(value).append('\n')));
+        return formatted.toString();
+    }
+
+    private static Map<String, List<String>> parseHeaders(String formatted) {
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        if (formatted != null) {
+            for (String line : formatted.split("\n")) {
+                int separator = line.indexOf(": ");
+                if (separator > 0) {
+                    headers.computeIfAbsent(line.substring(0, separator), name -> new ArrayList<>()).add(line.substring(separator + 2));
+                }
+            }
+        }
+        return headers;
+    }
+
+    private static String hash(byte[] value) {
+        byte[] digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256").digest(value);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        char[] hex = new char[digest.length * 2];
+        for (int i = 0; i < digest.length; i++) {
+            hex[2 * i] = HEX_DIGITS[(digest[i] >> 4) & 0xf];
+            hex[2 * i + 1] = HEX_DIGITS[digest[i] & 0xf];
+        }
+        return new String(hex);
+    }
+
+    public enum Outcome {
+        /**
+         * The request must be executed, it is the first one with its key.
+         */
+        EXECUTE,
+        /**
+         * The request was already executed, its response must be sent again.
+         */
+        REPLAY,
+        /**
+         * The key was already used for another request.
+         */
+        MISMATCH,
+        /**
+         * The first request with the key is still executing.
+         */
+        IN_PROGRESS,
+    }
+
+    public static final class Claim {
+
+        private static final Claim MISMATCH = new Claim(Outcome.MISMATCH, null, null, null);
+
+        private static final Claim IN_PROGRESS = new Claim(Outcome.IN_PROGRESS, null, null, null);
+
+        private final Outcome outcome;
+
+        private final StoredResponse response;
+
+        private final String keyHash;
+
+        private final Execution execution;
+
+        private Claim(Outcome outcome, StoredResponse response, String keyHash, Execution execution) {
+            this.outcome = outcome;
+            this.response = response;
+            this.keyHash = keyHash;
+            this.execution = execution;
+        }
+
+        public Outcome getOutcome() {
+            return outcome;
+        }
+
+        /**
+         * @return the response to send again, when the outcome is {@link Outcome#REPLAY}.
+         */
+        public StoredResponse getResponse() {
+            return response;
+        }
+    }
+
+    public static final class StoredResponse {
+
+        private final int status;
+
+        private final Map<String, List<String>> headers;
+
+        private final byte[] body;
+
+        public StoredResponse(int status, Map<String, List<String>> headers, byte[] body) {
+            this.status = status;
+            this.headers = headers;
+            this.body = body;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        public Map<String, List<String>> getHeaders() {
+            return headers;
+        }
+
+        public byte[] getBody() {
+            return body;
+        }
+    }
+
+    /**
+     * A request executing, or executed, on this instance. Its result is {@code null} if it was abandoned.
+     */
+    private static final class Execution {
+
+        private final CompletableFuture<StoredResponse> result = new CompletableFuture<>();
+
+        private final Instant expiryDate;
+
+        private String requestHash;
+
+        Execution(String requestHash, Instant expiryDate) {
+            this.requestHash = requestHash;
+            this.expiryDate = expiryDate;
+        }
+    }
+}
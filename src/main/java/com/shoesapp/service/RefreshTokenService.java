@@ -0,0 +1,131 @@
+package com.shoesapp.service;
+
+import com.shoesapp.aop.background.BackgroundJob;
+import com.shoesapp.domain.RefreshToken;
+import com.shoesapp.repository.RefreshTokenRepository;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Service issuing the opaque refresh tokens which renew the short-lived JWT access tokens.
+ * <p>
+ * Refresh tokens are single use: each refresh consumes the token and issues a new one expiring at the same time, so
+ * that the user still has to authenticate again after {@code jhipster.security.authentication.jwt.token-validity-in-seconds},
+ * or {@code token-validity-in-seconds-for-remember-me}. Only the SHA-256 hash of the tokens is stored.
+ */
+@Service
+@Transactional
+public class RefreshTokenService {
+
+    private static final int TOKEN_LENGTH_IN_BYTES = 32;
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private final Logger log = LoggerFactory.getLogger(RefreshTokenService.class);
+
+    private final SecureRandom secureRandom = new SecureRandom();
+
+    private final RefreshTokenRepository refreshTokenRepository;
+
+    private final Duration tokenValidity;
+
+    private final Duration tokenValidityForRememberMe;
+
+    public RefreshTokenService(RefreshTokenRepository refreshTokenRepository, JHipsterProperties jHipsterProperties) {
+        this.refreshTokenRepository = refreshTokenRepository;
+        JHipsterProperties.Security.Authentication.Jwt jwt = jHipsterProperties.getSecurity().getAuthentication().getJwt();
+        this.tokenValidity = Duration.ofSeconds(jwt.getTokenValidityInSeconds());
+        this.tokenValidityForRememberMe = Duration.ofSeconds(jwt.getTokenValidityInSecondsForRememberMe());
+    }
+
+    /**
+     * Issue a refresh token to a user who just authenticated.
+     *
+     * @param login the login of the user.
+     * @param rememberMe whether the token is valid for {@code token-validity-in-seconds-for-remember-me}.
+     * @return the value of the refresh token.
+     */
+    public String createRefreshToken(String login, boolean rememberMe) {
+        Instant now = Instant.now();
+        return createRefreshToken(login, rememberMe, now.plus(rememberMe ? tokenValidityForRememberMe : tokenValidity));
+    }
+
+    /**
+     * Consume a refresh token, which cannot be used anymore.
+     *
+     * @param value the value of the refresh token.
+     * @return the consumed refresh token, or an empty {@link Optional} if it is unknown, expired or was consumed concurrently.
+     */
+    public Optional<RefreshToken> consumeRefreshToken(String value) {
+        String tokenHash = hash(value);
+        return refreshTokenRepository
+            .findOneByTokenHash(tokenHash)
+            .filter(refreshToken -> refreshToken.getExpiryDate().isAfter(Instant.now()))
+            // the row lock taken by the delete lets only one of two concurrent refreshes succeed
+            .filter(refreshToken -> refreshTokenRepository.deleteByTokenHash(tokenHash) == 1);
+    }
+
+    /**
+     * Issue the refresh token replacing a consumed one, with the same expiry date.
+     *
+     * @param consumed the consumed refresh token.
+     * @return the value of the new refresh token.
+     */
+    public String rotateRefreshToken(RefreshToken consumed) {
+        return createRefreshToken(consumed.getLogin(), consumed.isRememberMe(), consumed.getExpiryDate());
+    }
+
+    /**
+     * Expired refresh tokens should be removed.
+     * <p>
+     * This is scheduled to get fired everyday, at 02:00 (am).
+     */
+    @Scheduled(cron = "0 0 2 * * ?")
+    @BackgroundJob
+    public void removeExpiredRefreshTokens() {
+        int removed = refreshTokenRepository.deleteAllByExpiryDateBefore(Instant.now());
+        log.debug("Deleted {} expired refresh tokens", removed);
+    }
+
+    private String createRefreshToken(String login, boolean rememberMe, Instant expiryDate) {
+        byte[] bytes = new byte[TOKEN_LENGTH_IN_BYTES];
+        secureRandom.nextBytes(bytes);
+        String value = Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+
+        RefreshToken refreshToken = new RefreshToken();
+        refreshToken.setTokenHash(hash(value));
+        refreshToken.setLogin(login);
+        refreshToken.setRememberMe(rememberMe);
+        refreshToken.setCreatedDate(Instant.now());
+        refreshToken.setExpiryDate(expiryDate);
+        refreshTokenRepository.save(refreshToken);
+        return value;
+    }
+
+    private static String hash(String value) {
+        byte[] digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+        char[] hex = new char[digest.length * 2];
+        for (int i = 0; i < digest.length; i++) {
+            hex[2 * i] = HEX_DIGITS[(digest[i] >> 4) & 0xf];
+            hex[2 * i + 1] = HEX_DIGITS[digest[i] & 0xf];
+        }
+        return new String(hex);
+    }
+}
@@ -0,0 +1,103 @@
+package com.shoesapp.service;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Deadline of the request handled by the current thread, past which its work is abandoned.
+ * <p>
+ * The transactions started before the deadline time out at the deadline, and so do their JDBC statements; work
+ * started after it fails fast with a {@link DeadlineExceededException}.
+ */
+public final class RequestDeadline {
+
+    private static final ThreadLocal<RequestDeadline> CURRENT = new ThreadLocal<>();
+
+    private final String endpoint;
+
+    private final long deadlineNanos;
+
+    private final LongSupplier ticker;
+
+    public RequestDeadline(String endpoint, long budgetMillis) {
+        this(endpoint, budgetMillis, System::nanoTime);
+    }
+
+    public RequestDeadline(String endpoint, long budgetMillis, LongSupplier ticker) {
+        this.endpoint = endpoint;
+        this.deadlineNanos = ticker.getAsLong() + TimeUnit.MILLISECONDS.toNanos(budgetMillis);
+        this.ticker = ticker;
+    }
+
+    /**
+     * @return the deadline of the current thread, or {@code null} if it has none.
+     */
+    public static RequestDeadline current() {
+        return CURRENT.get();
+    }
+
+    /**
+     * @param deadline the deadline of the current thread, or {@code null} to remove it.
+     */
+    public static void set(RequestDeadline deadline) {
+        if (deadline == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(deadline);
+        }
+    }
+
+    /**
+     * @return true if the current thread has a deadline, and it is over.
+     */
+    public static boolean isCurrentExpired() {
+        RequestDeadline deadline = CURRENT.get();
+        return deadline != null && deadline.isExpired();
+    }
+
+    /**
+     * Propagate the deadline of the current thread to a task run by another thread.
+     *
+     * @param task the task.
+     * @return the task, running with the deadline of the current thread.
+     */
+    public static Runnable propagate(Runnable task) {
+        RequestDeadline deadline = CURRENT.get();
+        if (deadline == null) {
+            return task;
+        }
+        return () -> {
+            RequestDeadline previous = CURRENT.get();
+            CURRENT.set(deadline);
+            try {
+                task.run();
+            } finally {
+                set(previous);
+            }
+        };
+    }
+
+    /**
+     * @return the name of the endpoint whose budget set the deadline.
+     */
+    public String getEndpoint() {
+        return endpoint;
+    }
+
+    public long remainingNanos() {
+        return deadlineNanos - ticker.getAsLong();
+    }
+
+    public boolean isExpired() {
+        return remainingNanos() <= 0;
+    }
+
+    /**
+     * @throws DeadlineExceededException if the deadline is over.
+     */
+    public void check() {
+        if (isExpired()) {
+            throw new DeadlineExceededException(endpoint);
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.shoesapp.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.function.Supplier;
+
+/**
+ * Collapses the concurrent identical lookups into one: the first caller for a key runs the lookup, and the callers
+ * arriving while it runs wait for its result, or its exception, instead of running their own.
+ * <p>
+ * The result is shared between the callers, which must not modify it. The calls saved are counted in
+ * {@code service.single.flight.saved}, tagged with the name of the lookup.
+ *
+ * @param <K> the type of the keys.
+ * @param <V> the type of the results.
+ */
+public class SingleFlight<K, V> {
+
+    private final ConcurrentMap<K, CompletableFuture<V>> calls = new ConcurrentHashMap<>();
+
+    private final Counter saved;
+
+    public SingleFlight(String name, MeterRegistry meterRegistry) {
+        this.saved = Counter.builder("service.single.flight.saved").tag("name", name).register(meterRegistry);
+    }
+
+    /**
+     * Run a lookup, unless the same one is already running.
+     *
+     * @param key the key of the lookup.
+     * @param lookup the lookup.
+     * @return the result of the lookup.
+     */
+    public V execute(K key, Supplier<V> lookup) {
+        CompletableFuture<V> call = new CompletableFuture<>();
+        CompletableFuture<V> running = calls.putIfAbsent(key, call);
+        if (running != null) {
+            saved.increment();
+            return await(running);
+        }
+        try {
+            V result = lookup.get();
+            call.complete(result);
+            return result;
+        } catch (RuntimeException | Error e) {
+            call.completeExceptionally(e);
+            throw e;
+        } finally {
+            calls.remove(key, call);
+        }
+    }
+
+    private static <V> V await(CompletableFuture<V> running) {
+        try {
+            return running.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            if (e.getCause() instanceof Error) {
+                throw (Error) e.getCause();
+            }
+            throw e;
+        }
+    }
+}
@@ -0,0 +1,253 @@
+package com.shoesapp.service;
+
+import com.shoesapp.aop.background.BackgroundJob;
+import com.shoesapp.config.ApplicationProperties;
+import com.shoesapp.domain.TokenRevocation;
+import com.shoesapp.repository.RefreshTokenRepository;
+import com.shoesapp.repository.TokenRevocationRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToDoubleFunction;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Service revoking the JWT tokens of a user, by rejecting all its tokens issued before a watermark.
+ * <p>
+ * The watermarks are persisted in the small {@code jhi_token_revocation} table and mirrored in memory, so that
+ * {@link #isRevoked(String, Instant)} does not hit the database for each request: a Bloom filter answers for the vast
+ * majority of users which have no watermark, and the watermarks themselves are kept in memory up to
+ * {@code application.token-revocation.max-entries}. Only the users matched by the Bloom filter whose watermark did not
+ * fit in memory are looked up in the database.
+ * <p>
+ * The in-memory state is built once the application is ready, and refreshed from the table every 10 seconds, to pick up the revocations made by other
+ * instances, and rebuilt every hour, as Bloom filters cannot forget the watermarks purged once all the tokens they
+ * revoke have expired.
+ */
+@Service
+public class TokenRevocationService {
+
+    private static final String METRIC_PREFIX = "security.token.revocation";
+
+    /**
+     * Overlap between incremental refreshes, so that a revocation committed while the previous refresh was running is
+     * not missed.
+     */
+    private static final Duration REFRESH_OVERLAP = Duration.ofMinutes(1);
+
+    private final Logger log = LoggerFactory.getLogger(TokenRevocationService.class);
+
+    private final TokenRevocationRepository tokenRevocationRepository;
+
+    private final RefreshTokenRepository refreshTokenRepository;
+
+    private final ApplicationProperties.TokenRevocation properties;
+
+    private final Duration maxTokenValidity;
+
+    private final Counter databaseLookups;
+
+    private final Counter falsePositives;
+
+    private final Counter rejectedTokens;
+
+    private volatile Snapshot snapshot;
+
+    public TokenRevocationService(
+        TokenRevocationRepository tokenRevocationRepository,
+        RefreshTokenRepository refreshTokenRepository,
+        ApplicationProperties applicationProperties,
+        JHipsterProperties jHipsterProperties,
+        MeterRegistry meterRegistry
+    ) {
+        this.tokenRevocationRepository = tokenRevocationRepository;
+        this.refreshTokenRepository = refreshTokenRepository;
+        this.properties = applicationProperties.getTokenRevocation();
+        JHipsterProperties.Security.Authentication.Jwt jwt = jHipsterProperties.getSecurity().getAuthentication().getJwt();
+        this.maxTokenValidity = Duration.ofSeconds(Math.max(jwt.getTokenValidityInSeconds(), jwt.getTokenValidityInSecondsForRememberMe()));
+        this.databaseLookups =
+            Counter.builder(METRIC_PREFIX + ".lookups").tag("source", "database").register(meterRegistry);
+        this.falsePositives =
+            Counter.builder(METRIC_PREFIX + ".lookups").tag("source", "false_positive").register(meterRegistry);
+        this.rejectedTokens = Counter.builder(METRIC_PREFIX + ".rejected").register(meterRegistry);
+        Gauge
+            .builder(METRIC_PREFIX + ".entries", this, service -> service.whenLoaded(s -> s.bloomFilter.insertions()))
+            .description("Number of revocation watermarks added to the Bloom filter")
+            .register(meterRegistry);
+        Gauge
+            .builder(METRIC_PREFIX + ".memory", this, service -> service.whenLoaded(s -> s.bloomFilter.sizeInBytes()))
+            .description("Memory used by the Bloom filter")
+            .baseUnit("bytes")
+            .register(meterRegistry);
+        Gauge
+            .builder(
+                METRIC_PREFIX + ".false.positive.probability",
+                this,
+                service -> service.whenLoaded(s -> s.bloomFilter.expectedFalsePositiveProbability())
+            )
+            .description("Estimated false positive probability of the Bloom filter")
+            .register(meterRegistry);
+    }
+
+    /**
+     * Revoke all the access tokens of a user issued until now, and all its refresh tokens.
+     * <p>
+     * When called in a transaction, the in-memory state is only updated after a successful commit.
+     *
+     * @param login the login of the user.
+     */
+    @Transactional
+    public void revokeTokens(String login) {
+        // tokens carry their issue time in milliseconds: those issued once the revocation is committed are accepted
+        Instant revokedBefore = Instant.now().truncatedTo(ChronoUnit.MILLIS).plusMillis(1);
+        TokenRevocation tokenRevocation = tokenRevocationRepository.findById(login).orElseGet(() -> new TokenRevocation(login, null));
+        tokenRevocation.setRevokedBefore(revokedBefore);
+        tokenRevocationRepository.save(tokenRevocation);
+        refreshTokenRepository.deleteAllByLogin(login);
+        log.debug("Revoked the tokens of {} issued before {}", login, revokedBefore);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        addToSnapshot(login, revokedBefore);
+                    }
+                }
+            );
+        } else {
+            addToSnapshot(login, revokedBefore);
+        }
+    }
+
+    /**
+     * Check whether a token was revoked.
+     *
+     * @param login the subject of the token.
+     * @param issuedAt the issue time of the token, {@code null} if unknown.
+     * @return {@code true} if the token was issued before the revocation watermark of its user.
+     */
+    public boolean isRevoked(String login, Instant issuedAt) {
+        Snapshot current = snapshot;
+        Instant revokedBefore;
+        if (current == null) {
+            revokedBefore = findRevokedBefore(login);
+        } else if (!current.bloomFilter.mightContain(login)) {
+            return false;
+        } else {
+            revokedBefore = current.watermarks.get(login);
+            if (revokedBefore == null) {
+                if (current.complete) {
+                    falsePositives.increment();
+                    return false;
+                }
+                revokedBefore = findRevokedBefore(login);
+            }
+        }
+        boolean revoked = revokedBefore != null && (issuedAt == null || issuedAt.isBefore(revokedBefore));
+        if (revoked) {
+            rejectedTokens.increment();
+        }
+        return revoked;
+    }
+
+    /**
+     * Load the revocations made since the last refresh, by this instance or by others.
+     */
+    @Scheduled(initialDelay = 10_000, fixedDelay = 10_000)
+    @BackgroundJob
+    public void refresh() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            rebuild();
+            return;
+        }
+        Instant start = Instant.now();
+        for (TokenRevocation tokenRevocation : tokenRevocationRepository.findAllByRevokedBeforeAfter(current.loadedUntil.minus(REFRESH_OVERLAP))) {
+            current.add(tokenRevocation.getLogin(), tokenRevocation.getRevokedBefore());
+        }
+        current.loadedUntil = start;
+    }
+
+    /**
+     * Purge the revocations of which all tokens have expired, and rebuild the in-memory state from the others.
+     * <p>
+     * This is run once the application is ready, so that the tokens are not all checked against the database until
+     * the first refresh, and then scheduled to run every hour, at the start of the hour.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "0 0 * * * ?")
+    @BackgroundJob
+    @Transactional
+    public void rebuild() {
+        int purged = tokenRevocationRepository.deleteAllByRevokedBeforeBefore(Instant.now().minus(maxTokenValidity));
+        Instant start = Instant.now();
+        Snapshot rebuilt = new Snapshot(properties, start);
+        for (TokenRevocation tokenRevocation : tokenRevocationRepository.findAll()) {
+            rebuilt.add(tokenRevocation.getLogin(), tokenRevocation.getRevokedBefore());
+        }
+        snapshot = rebuilt;
+        log.debug("Rebuilt the token revocations with {} entries, purged {}", rebuilt.bloomFilter.insertions(), purged);
+    }
+
+    private Instant findRevokedBefore(String login) {
+        databaseLookups.increment();
+        return tokenRevocationRepository.findById(login).map(TokenRevocation::getRevokedBefore).orElse(null);
+    }
+
+    private void addToSnapshot(String login, Instant revokedBefore) {
+        Snapshot current = snapshot;
+        if (current != null) {
+            current.add(login, revokedBefore);
+        }
+    }
+
+    private double whenLoaded(ToDoubleFunction<Snapshot> value) {
+        Snapshot current = snapshot;
+        return current == null ? Double.NaN : value.applyAsDouble(current);
+    }
+
+    private static final class Snapshot {
+
+        private final BloomFilter bloomFilter;
+
+        private final Map<String, Instant> watermarks = new ConcurrentHashMap<>();
+
+        private final int maxEntries;
+
+        /**
+         * Whether every login of the Bloom filter has its watermark in memory.
+         */
+        private volatile boolean complete = true;
+
+        private volatile Instant loadedUntil;
+
+        Snapshot(ApplicationProperties.TokenRevocation properties, Instant loadedUntil) {
+            this.bloomFilter = new BloomFilter(properties.getBloomFilterSizeInBytes(), properties.getExpectedEntries());
+            this.maxEntries = properties.getMaxEntries();
+            this.loadedUntil = loadedUntil;
+        }
+
+        void add(String login, Instant revokedBefore) {
+            if (watermarks.containsKey(login) || watermarks.size() < maxEntries) {
+                watermarks.merge(login, revokedBefore, (previous, next) -> next.isAfter(previous) ? next : previous);
+            } else {
+                complete = false;
+            }
+            bloomFilter.put(login);
+        }
+    }
+}
@@ -0,0 +1,193 @@
+package com.shoesapp.service;
+
+import com.shoesapp.aop.background.BackgroundJob;
+import com.shoesapp.config.ApplicationProperties;
+import com.shoesapp.domain.User;
+import com.shoesapp.domain.UserTombstone;
+import com.shoesapp.repository.UserRepository;
+import com.shoesapp.repository.UserTombstoneRepository;
+import com.shoesapp.service.dto.AdminUserDTO;
+import com.shoesapp.service.dto.UserChangesDTO;
+import com.shoesapp.service.dto.UserTombstoneDTO;
+import java.nio.charset.StandardCharsets;
+import java.time.DateTimeException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Service reading the changes of the users since a cursor, so that the systems copying the users read only what
+ * changed since their last sync.
+ * <p>
+ * The users are read in {@code (lastModifiedDate, id)} order, and the deletions from their tombstones in
+ * {@code (deletedDate, id)} order; the cursor is the position reached in both. Only the changes older than
+ * {@code application.user-changes.safety-lag-in-seconds} are read, so that a transaction committing after a more
+ * recent one is not skipped: the changes are dated when they are written, and the lag is longer than the transactions
+ * changing the users. The tombstones are kept for {@code tombstone-retention-in-days}: a cursor older than that
+ * has expired, and its client reads all the users again.
+ * <p>
+ * The changes are read in read-write transactions, from the primary: the replica may not have all the changes up to
+ * the end of the page yet, and they would be skipped for good.
+ */
+@Service
+@Transactional
+public class UserChangesService {
+
+    private final Logger log = LoggerFactory.getLogger(UserChangesService.class);
+
+    private final UserRepository userRepository;
+
+    private final UserTombstoneRepository userTombstoneRepository;
+
+    private final Duration tombstoneRetention;
+
+    private final Duration safetyLag;
+
+    private final int maxSize;
+
+    public UserChangesService(
+        UserRepository userRepository,
+        UserTombstoneRepository userTombstoneRepository,
+        ApplicationProperties applicationProperties
+    ) {
+        this.userRepository = userRepository;
+        this.userTombstoneRepository = userTombstoneRepository;
+        this.tombstoneRetention = Duration.ofDays(applicationProperties.getUserChanges().getTombstoneRetentionInDays());
+        this.safetyLag = Duration.ofSeconds(applicationProperties.getUserChanges().getSafetyLagInSeconds());
+        this.maxSize = applicationProperties.getUserChanges().getMaxSize();
+    }
+
+    /**
+     * Get the changes of the users since a cursor.
+     *
+     * @param since the cursor returned by the previous call, or {@code null} to read all the users.
+     * @param size the maximum number of users, and of deletions, to return, at most {@code max-size}.
+     * @return the users created or modified since the cursor, the deleted ones, and the next cursor.
+     * @throws InvalidCursorException if the cursor was not returned by this service.
+     * @throws CursorExpiredException if the deletions since the cursor are not all kept anymore.
+     */
+    public UserChangesDTO getChanges(String since, int size) {
+        Instant now = Instant.now();
+        Instant until = now.minus(safetyLag);
+        Cursor cursor;
+        if (since == null) {
+            // the users deleted before they are read need no tombstone
+            cursor = new Cursor(new Position(Instant.EPOCH, 0), new Position(until, Long.MAX_VALUE));
+        } else {
+            cursor = Cursor.decode(since);
+            if (cursor.deleted.date.isBefore(now.minus(tombstoneRetention))) {
+                throw new CursorExpiredException();
+            }
+        }
+
+        int limit = Math.max(1, Math.min(size, maxSize));
+        Pageable pageable = PageRequest.of(0, limit + 1);
+        List<User> users = userRepository.findAllModifiedAfter(cursor.updated.date, cursor.updated.id, until, pageable);
+        List<UserTombstone> tombstones = userTombstoneRepository.findAllDeletedAfter(
+            cursor.deleted.date,
+            cursor.deleted.id,
+            until,
+            pageable
+        );
+
+        UserChangesDTO changes = new UserChangesDTO();
+        changes.setUpdated(users.stream().limit(limit).map(AdminUserDTO::new).collect(Collectors.toList()));
+        changes.setDeleted(tombstones.stream().limit(limit).map(UserTombstoneDTO::new).collect(Collectors.toList()));
+        changes.setHasMore(users.size() > limit || tombstones.size() > limit);
+        Cursor next = new Cursor(
+            next(cursor.updated, users, limit, until, user -> new Position(user.getLastModifiedDate(), user.getId())),
+            next(cursor.deleted, tombstones, limit, until, tombstone -> new Position(tombstone.getDeletedDate(), tombstone.getId()))
+        );
+        changes.setCursor(next.encode());
+        log.debug("Read {} since {}", changes, since);
+        return changes;
+    }
+
+    /**
+     * Tombstones are deleted once their retention is over, every day, at 02:45 (am).
+     */
+    @Scheduled(cron = "0 45 2 * * ?")
+    @BackgroundJob
+    public void removeExpiredTombstones() {
+        int removed = userTombstoneRepository.deleteAllByDeletedDateBefore(Instant.now().minus(tombstoneRetention));
+        log.debug("Deleted {} expired user tombstones", removed);
+    }
+
+    /**
+     * The position after a page: its last row, or {@code until} once all the rows are read, so that the position keeps
+     * up with the time even without changes.
+     */
+    private static <T> Position next(Position from, List<T> rows, int limit, Instant until, Function<T, Position> position) {
+        if (rows.size() > limit) {
+            return position.apply(rows.get(limit - 1));
+        }
+        Position end = new Position(until, Long.MAX_VALUE);
+        // the clocks of the instances may disagree: never go back
+        return end.date.isAfter(from.date) ? end : from;
+    }
+
+    private static final class Position {
+
+        final Instant date;
+
+        final long id;
+
+        Position(Instant date, long id) {
+            this.date = date;
+            this.id = id;
+        }
+    }
+
+    /**
+     * The positions reached in the users and in the tombstones, encoded in URL-safe base64.
+     */
+    private static final class Cursor {
+
+        final Position updated;
+
+        final Position deleted;
+
+        Cursor(Position updated, Position deleted) {
+            this.updated = updated;
+            this.deleted = deleted;
+        }
+
+        String encode() {
+            String value = String.join(
+                ",",
+                Long.toString(updated.date.getEpochSecond()),
+                Integer.toString(updated.date.getNano()),
+                Long.toString(updated.id),
+                Long.toString(deleted.date.getEpochSecond()),
+                Integer.toString(deleted.date.getNano()),
+                Long.toString(deleted.id)
+            );
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(value.getBytes(StandardCharsets.US_ASCII));
+        }
+
+        static Cursor decode(String cursor) {
+            try {
+                String[] parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.US_ASCII).split(",");
+                if (parts.length != 6) {
+                    throw new InvalidCursorException();
+                }
+                return new Cursor(
+                    new Position(Instant.ofEpochSecond(Long.parseLong(parts[0]), Integer.parseInt(parts[1])), Long.parseLong(parts[2])),
+                    new Position(Instant.ofEpochSecond(Long.parseLong(parts[3]), Integer.parseInt(parts[4])), Long.parseLong(parts[5]))
+                );
+            } catch (IllegalArgumentException | DateTimeException | ArithmeticException e) {
+                throw new InvalidCursorException();
+            }
+        }
+    }
+}
@@ -0,0 +1,252 @@
+package com.shoesapp.service;
+
+import com.shoesapp.config.ApplicationProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Sends the {@link UserLifecycleEvent}s to their subscribers, once the transaction publishing them committed.
+ * <p>
+ * Each event gets an id, increasing from the start of the application. The last
+ * {@code application.user-events.history-size} events are kept, so that a subscriber reconnecting with the id of the
+ * last event it received first gets the ones it missed; when they are not all known anymore, or the id comes from
+ * another run of the application, it is told to resynchronize instead.
+ * <p>
+ * The events of a subscriber wait in a buffer of {@code application.user-events.buffer-size} events, and are sent by
+ * the task executor: a subscriber which cannot keep up fills its buffer and is dropped, without slowing down the
+ * transactions or the other subscribers. The subscribers are counted in {@code service.user.events.subscribers}, the
+ * dropped ones in {@code service.user.events.dropped}.
+ * <p>
+ * Only the events of this instance of the application are sent.
+ */
+@Service
+public class UserEventBroadcaster {
+
+    /**
+     * Receives the events of a subscription, one call at a time, from the task executor.
+     */
+    public interface Listener {
+        void onEvent(String id, UserLifecycleEvent event) throws IOException;
+
+        /**
+         * Some events since the last event id of the subscriber are not known: it should read the users again.
+         */
+        void onResync() throws IOException;
+
+        /**
+         * The subscriber fell too far behind, or could not be sent an event, and is not sent anything anymore.
+         */
+        void onDropped();
+    }
+
+    private final Logger log = LoggerFactory.getLogger(UserEventBroadcaster.class);
+
+    private final Set<Subscription> subscriptions = ConcurrentHashMap.newKeySet();
+
+    private final Deque<Entry> history = new ArrayDeque<>();
+
+    private final Object lock = new Object();
+
+    /**
+     * Prefix of the event ids, telling apart the runs of the application.
+     */
+    private final String epoch = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+
+    private long lastSequence;
+
+    private final Executor executor;
+
+    private final int bufferSize;
+
+    private final int historySize;
+
+    private final Counter dropped;
+
+    public UserEventBroadcaster(
+        ApplicationProperties applicationProperties,
+        @Qualifier("taskExecutor") Executor executor,
+        MeterRegistry meterRegistry
+    ) {
+        this.executor = executor;
+        this.bufferSize = applicationProperties.getUserEvents().getBufferSize();
+        this.historySize = applicationProperties.getUserEvents().getHistorySize();
+        this.dropped = Counter.builder("service.user.events.dropped").register(meterRegistry);
+        Gauge.builder("service.user.events.subscribers", subscriptions, Set::size).register(meterRegistry);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onUserLifecycleEvent(UserLifecycleEvent event) {
+        synchronized (lock) {
+            Entry entry = new Entry(++lastSequence, event);
+            history.addLast(entry);
+            if (history.size() > historySize) {
+                history.removeFirst();
+            }
+            subscriptions.forEach(subscription -> subscription.offer(entry));
+        }
+    }
+
+    /**
+     * Subscribe to the events committed from now.
+     *
+     * @param lastEventId the id of the last event received by the subscriber, to get the events since then first, or
+     * {@code null}.
+     * @param listener the listener of the events.
+     * @return the subscription, to cancel.
+     */
+    public Subscription subscribe(String lastEventId, Listener listener) {
+        Subscription subscription = new Subscription(listener);
+        synchronized (lock) {
+            if (lastEventId != null) {
+                Long from = parseSequence(lastEventId);
+                Entry oldest = history.peekFirst();
+                boolean missing =
+                    from == null || from > lastSequence || (from < lastSequence && (oldest == null || oldest.sequence > from + 1));
+                if (missing || lastSequence - from > bufferSize) {
+                    subscription.offer(Entry.RESYNC);
+                } else {
+                    history.stream().filter(entry -> entry.sequence > from).forEach(subscription::offer);
+                }
+            }
+            subscriptions.add(subscription);
+        }
+        return subscription;
+    }
+
+    private Long parseSequence(String eventId) {
+        int separator = eventId.lastIndexOf('-');
+        if (separator < 0 || !eventId.substring(0, separator).equals(epoch)) {
+            return null;
+        }
+        try {
+            return Long.parseLong(eventId.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static final class Entry {
+
+        static final Entry RESYNC = new Entry(0, null);
+
+        final long sequence;
+
+        final UserLifecycleEvent event;
+
+        Entry(long sequence, UserLifecycleEvent event) {
+            this.sequence = sequence;
+            this.event = event;
+        }
+    }
+
+    public final class Subscription {
+
+        private final Listener listener;
+
+        private final Queue<Entry> buffer = new ArrayBlockingQueue<>(bufferSize);
+
+        private final AtomicBoolean draining = new AtomicBoolean();
+
+        private final AtomicBoolean closed = new AtomicBoolean();
+
+        private volatile boolean droppedSubscriber;
+
+        private Subscription(Listener listener) {
+            this.listener = listener;
+        }
+
+        /**
+         * Stop sending events to the subscriber.
+         */
+        public void cancel() {
+            close();
+        }
+
+        private void offer(Entry entry) {
+            if (closed.get()) {
+                return;
+            }
+            if (!buffer.offer(entry)) {
+                drop();
+                return;
+            }
+            schedule();
+        }
+
+        private void drop() {
+            if (close()) {
+                droppedSubscriber = true;
+                dropped.increment();
+                // the listener is told from the task executor, never from the committing thread
+                schedule();
+            }
+        }
+
+        private boolean close() {
+            if (!closed.compareAndSet(false, true)) {
+                return false;
+            }
+            subscriptions.remove(this);
+            buffer.clear();
+            return true;
+        }
+
+        private void schedule() {
+            if (draining.compareAndSet(false, true)) {
+                try {
+                    executor.execute(this::drain);
+                } catch (RejectedExecutionException e) {
+                    draining.set(false);
+                    if (!closed.get()) {
+                        drop();
+                    }
+                }
+            }
+        }
+
+        private void drain() {
+            try {
+                Entry entry;
+                while (!closed.get() && (entry = buffer.poll()) != null) {
+                    if (entry == Entry.RESYNC) {
+                        listener.onResync();
+                    } else {
+                        listener.onEvent(epoch + "-" + entry.sequence, entry.event);
+                    }
+                }
+            } catch (IOException | RuntimeException e) {
+                log.debug("Could not send a user event, dropping the subscriber: {}", e.getMessage());
+                if (close()) {
+                    droppedSubscriber = true;
+                }
+            } finally {
+                draining.set(false);
+            }
+            if (closed.get()) {
+                if (droppedSubscriber && draining.compareAndSet(false, true)) {
+                    // told once, the flag stays set
+                    listener.onDropped();
+                }
+            } else if (!buffer.isEmpty()) {
+                schedule();
+            }
+        }
+    }
+}
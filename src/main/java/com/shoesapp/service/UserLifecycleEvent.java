@@ -0,0 +1,57 @@
+package com.shoesapp.service;
+
+import java.time.Instant;
+
+/**
+ * A change in the lifecycle of a user, published by the {@link UserService} and sent to the subscribers of
+ * {@code GET /api/admin/user-events} once its transaction committed.
+ */
+public class UserLifecycleEvent {
+
+    public enum Type {
+        REGISTERED,
+        CREATED,
+        ACTIVATED,
+        UPDATED,
+        DELETED,
+        PURGED,
+    }
+
+    private final Type type;
+
+    private final String login;
+
+    private final Instant timestamp;
+
+    public UserLifecycleEvent(Type type, String login) {
+        this(type, login, Instant.now());
+    }
+
+    public UserLifecycleEvent(Type type, String login, Instant timestamp) {
+        this.type = type;
+        this.login = login;
+        this.timestamp = timestamp;
+    }
+
+    public Type getType() {
+        return type;
+    }
+
+    public String getLogin() {
+        return login;
+    }
+
+    public Instant getTimestamp() {
+        return timestamp;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "UserLifecycleEvent{" +
+            "type=" + type +
+            ", login='" + login + "'" +
+            ", timestamp=" + timestamp +
+            "}";
+    }
+}
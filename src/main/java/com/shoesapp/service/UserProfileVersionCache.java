@@ -0,0 +1,116 @@
+package com.shoesapp.service;
+
+import com.shoesapp.config.ApplicationProperties;
+import com.shoesapp.domain.User;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Cache of the profile version of the users, last read from the database.
+ * <p>
+ * The JWT access tokens embed the profile of the user with its version, and {@code GET /api/account} answers from the
+ * token as long as its version is the cached one. Changes made by this instance evict the version once committed, the
+ * changes made by other instances are picked up when the cached version expires, after
+ * {@code application.authentication.profile-version-time-to-live-in-seconds}.
+ */
+@Service
+public class UserProfileVersionCache {
+
+    private final Map<String, CachedVersion> versions = new ConcurrentHashMap<>();
+
+    private final long timeToLiveNanos;
+
+    private final int maxEntries;
+
+    private final LongSupplier ticker;
+
+    @Autowired
+    public UserProfileVersionCache(ApplicationProperties applicationProperties) {
+        this(applicationProperties.getAuthentication(), System::nanoTime);
+    }
+
+    UserProfileVersionCache(ApplicationProperties.Authentication properties, LongSupplier ticker) {
+        this.timeToLiveNanos = TimeUnit.SECONDS.toNanos(properties.getProfileVersionTimeToLiveInSeconds());
+        this.maxEntries = properties.getProfileVersionMaxEntries();
+        this.ticker = ticker;
+    }
+
+    /**
+     * Get the version of the profile of a user.
+     *
+     * @param user the user.
+     * @return the optimistic locking version, incremented by any update of the user.
+     */
+    public static long versionOf(User user) {
+        return user.getVersion() == null ? 0 : user.getVersion();
+    }
+
+    /**
+     * @param login the login of the user.
+     * @param version the version of a profile of the user.
+     * @return true if the profile was the one in the database when last read, less than the time to live ago.
+     */
+    public boolean isCurrent(String login, long version) {
+        CachedVersion cached = versions.get(login);
+        return cached != null && cached.version == version && ticker.getAsLong() - cached.expiresAt < 0;
+    }
+
+    /**
+     * Cache the version of a user just read from the database.
+     *
+     * @param user the user.
+     */
+    public void put(User user) {
+        if (versions.size() < maxEntries || versions.containsKey(user.getLogin())) {
+            versions.put(user.getLogin(), new CachedVersion(versionOf(user), ticker.getAsLong() + timeToLiveNanos));
+        }
+    }
+
+    /**
+     * Evict the version of a user whose profile is changed by the current transaction, once it is committed.
+     *
+     * @param login the login of the user.
+     */
+    public void evict(String login) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(
+                new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        versions.remove(login);
+                    }
+                }
+            );
+        } else {
+            versions.remove(login);
+        }
+    }
+
+    /**
+     * Remove the expired versions, so that they leave room for the active users.
+     */
+    @Scheduled(fixedDelay = 60_000)
+    public void removeExpiredVersions() {
+        long now = ticker.getAsLong();
+        versions.values().removeIf(cached -> now - cached.expiresAt >= 0);
+    }
+
+    private static final class CachedVersion {
+
+        private final long version;
+
+        private final long expiresAt;
+
+        private CachedVersion(long version, long expiresAt) {
+            this.version = version;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
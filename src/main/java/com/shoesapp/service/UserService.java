@@ -1,27 +1,45 @@
 package com.shoesapp.service;
 
+import com.shoesapp.aop.background.BackgroundJob;
+import com.shoesapp.aop.retry.RetryContext;
+import com.shoesapp.aop.retry.RetryOnConcurrencyFailure;
 import com.shoesapp.config.Constants;
 import com.shoesapp.domain.Authority;
 import com.shoesapp.domain.User;
+import com.shoesapp.domain.UserTombstone;
 import com.shoesapp.domain.enums.Gender;
 import com.shoesapp.repository.AuthorityRepository;
+import com.shoesapp.repository.UserPatchRepository;
 import com.shoesapp.repository.UserRepository;
+import com.shoesapp.repository.UserTombstoneRepository;
 import com.shoesapp.security.AuthoritiesConstants;
 import com.shoesapp.security.SecurityUtils;
 import com.shoesapp.service.dto.AdminUserDTO;
 import com.shoesapp.service.dto.UserDTO;
+import io.micrometer.core.instrument.MeterRegistry;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
 import java.util.*;
+import java.util.function.Function;
 import java.util.stream.Collectors;
+import org.hibernate.Hibernate;
+import org.hibernate.exception.ConstraintViolationException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import tech.jhipster.security.RandomUtil;
 
 /**
@@ -31,6 +49,22 @@ import tech.jhipster.security.RandomUtil;
 @Transactional
 public class UserService {
 
+    private static final String AUTHORITIES_FIELD = "authorities";
+
+    private static final String LOGIN_CONSTRAINT = "ux_user_login";
+
+    private static final String EMAIL_CONSTRAINT = "ux_user_email";
+
+    /**
+     * Number of not activated users deleted by each transaction of the purge.
+     */
+    public static final int PURGE_BATCH_SIZE = 500;
+
+    /**
+     * Timeout of each transaction of the purge, in seconds: the changes of the users are read at least that far behind.
+     */
+    public static final int PURGE_BATCH_TIMEOUT_IN_SECONDS = 30;
+
     private final Logger log = LoggerFactory.getLogger(UserService.class);
 
     private final UserRepository userRepository;
@@ -39,12 +73,42 @@ public class UserService {
 
     private final AuthorityRepository authorityRepository;
 
-    public UserService(UserRepository userRepository, PasswordEncoder passwordEncoder, AuthorityRepository authorityRepository) {
+    private final TokenRevocationService tokenRevocationService;
+
+    private final UserProfileVersionCache userProfileVersionCache;
+
+    private final SingleFlight<String, Optional<User>> userWithAuthoritiesLookups;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final UserTombstoneRepository userTombstoneRepository;
+
+    private final TransactionTemplate purgeBatchTransaction;
+
+    public UserService(
+        UserRepository userRepository,
+        PasswordEncoder passwordEncoder,
+        AuthorityRepository authorityRepository,
+        TokenRevocationService tokenRevocationService,
+        UserProfileVersionCache userProfileVersionCache,
+        MeterRegistry meterRegistry,
+        ApplicationEventPublisher eventPublisher,
+        UserTombstoneRepository userTombstoneRepository,
+        PlatformTransactionManager transactionManager
+    ) {
         this.userRepository = userRepository;
         this.passwordEncoder = passwordEncoder;
         this.authorityRepository = authorityRepository;
+        this.tokenRevocationService = tokenRevocationService;
+        this.userProfileVersionCache = userProfileVersionCache;
+        this.userWithAuthoritiesLookups = new SingleFlight<>("userWithAuthorities", meterRegistry);
+        this.eventPublisher = eventPublisher;
+        this.userTombstoneRepository = userTombstoneRepository;
+        this.purgeBatchTransaction = new TransactionTemplate(transactionManager);
+        this.purgeBatchTransaction.setTimeout(PURGE_BATCH_TIMEOUT_IN_SECONDS);
     }
 
+    @RetryOnConcurrencyFailure
     public Optional<User> activateRegistration(String key) {
         log.debug("Activating user for activation key {}", key);
         return userRepository
@@ -53,24 +117,28 @@ public class UserService {
                 // activate given user for the registration key.
                 user.setActivated(true);
                 user.setActivationKey(null);
+                publish(UserLifecycleEvent.Type.ACTIVATED, user.getLogin());
                 log.debug("Activated user: {}", user);
                 return user;
             });
     }
 
+    @RetryOnConcurrencyFailure
     public Optional<User> completePasswordReset(String newPassword, String key) {
         log.debug("Reset user password for reset key {}", key);
         return userRepository
             .findOneByResetKey(key)
             .filter(user -> user.getResetDate().isAfter(Instant.now().minus(1, ChronoUnit.DAYS)))
             .map(user -> {
-                user.setPassword(passwordEncoder.encode(newPassword));
+                user.setPassword(RetryContext.once("password", () -> passwordEncoder.encode(newPassword)));
                 user.setResetKey(null);
                 user.setResetDate(null);
+                tokenRevocationService.revokeTokens(user.getLogin());
                 return user;
             });
     }
 
+    @RetryOnConcurrencyFailure
     public Optional<User> requestPasswordReset(String mail) {
         return userRepository
             .findOneByEmailIgnoreCase(mail)
@@ -82,6 +150,11 @@ public class UserService {
             });
     }
 
+    /**
+     * Of racing requests for the same login or email, the loser fails with the same error as if the user was found
+     * beforehand, see {@link #insert(User)}.
+     */
+    @RetryOnConcurrencyFailure
     public User registerUser(AdminUserDTO userDTO, String password) {
         userRepository
             .findOneByLogin(userDTO.getLogin().toLowerCase())
@@ -100,7 +173,7 @@ public class UserService {
                 }
             });
         User newUser = new User();
-        String encryptedPassword = passwordEncoder.encode(password);
+        String encryptedPassword = RetryContext.once("password", () -> passwordEncoder.encode(password));
         newUser.setLogin(userDTO.getLogin().toLowerCase());
         // new user gets initially a generated password
         newUser.setPassword(encryptedPassword);
@@ -111,6 +184,8 @@ public class UserService {
         }
         newUser.setImageUrl(userDTO.getImageUrl());
         newUser.setLangKey(userDTO.getLangKey());
+        newUser.setPhoneNumber(userDTO.getPhoneNumber());
+        newUser.setGender(userDTO.getGender());
         // new user is not active
         newUser.setActivated(false);
         // new user gets registration key
@@ -118,20 +193,46 @@ public class UserService {
         Set<Authority> authorities = new HashSet<>();
         authorityRepository.findById(AuthoritiesConstants.USER).ifPresent(authorities::add);
         newUser.setAuthorities(authorities);
-        userRepository.save(newUser);
+        insert(newUser);
+        publish(UserLifecycleEvent.Type.REGISTERED, newUser.getLogin());
         log.debug("Created Information for User: {}", newUser);
         return newUser;
     }
 
+    /**
+     * Insert a new user: a user with the same login or email inserted since it was looked for fails the insert on a
+     * unique constraint, reported as {@link UsernameAlreadyUsedException} or {@link EmailAlreadyUsedException}. Any other
+     * integrity violation is rethrown as is.
+     */
+    private void insert(User user) {
+        try {
+            userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException e) {
+            String constraintName = e.getCause() instanceof ConstraintViolationException
+                ? ((ConstraintViolationException) e.getCause()).getConstraintName()
+                : null;
+            if (constraintName != null && constraintName.toLowerCase(Locale.ROOT).contains(LOGIN_CONSTRAINT)) {
+                throw new UsernameAlreadyUsedException();
+            }
+            if (constraintName != null && constraintName.toLowerCase(Locale.ROOT).contains(EMAIL_CONSTRAINT)) {
+                throw new EmailAlreadyUsedException();
+            }
+            throw e;
+        }
+    }
+
     private boolean removeNonActivatedUser(User existingUser) {
         if (existingUser.isActivated()) {
             return false;
         }
         userRepository.delete(existingUser);
         userRepository.flush();
+        recordDeletion(existingUser);
+        publish(UserLifecycleEvent.Type.DELETED, existingUser.getLogin());
         return true;
     }
 
+    @RetryOnConcurrencyFailure
     public User createUser(AdminUserDTO userDTO) {
         User user = new User();
         user.setLogin(userDTO.getLogin().toLowerCase());
@@ -146,13 +247,13 @@ public class UserService {
         } else {
             user.setLangKey(userDTO.getLangKey());
         }
-        String encryptedPassword = passwordEncoder.encode(RandomUtil.generatePassword());
+        String encryptedPassword = RetryContext.once("password", () -> passwordEncoder.encode(RandomUtil.generatePassword()));
         user.setPassword(encryptedPassword);
         user.setResetKey(RandomUtil.generateResetKey());
         user.setResetDate(Instant.now());
         user.setActivated(true);
         user.setPhoneNumber(userDTO.getPhoneNumber());
-        user.setGender(user.getGender());
+        user.setGender(userDTO.getGender());
         if (userDTO.getAuthorities() != null) {
             Set<Authority> authorities = userDTO
                 .getAuthorities()
@@ -163,7 +264,8 @@ public class UserService {
                 .collect(Collectors.toSet());
             user.setAuthorities(authorities);
         }
-        userRepository.save(user);
+        insert(user);
+        publish(UserLifecycleEvent.Type.CREATED, user.getLogin());
         log.debug("Created Information for User: {}", user);
         return user;
     }
@@ -171,15 +273,21 @@ public class UserService {
     /**
      * Update all information for a specific user, and return the modified user.
      *
-     * @param userDTO user to update.
-     * @return updated user.
+     * @param userDTO user to update, with the version it was read at, or a {@code null} version to update any version.
+     * @return updated user, with its new version.
+     * @throws UserVersionMismatchException if the user was updated since it was read.
      */
+    @RetryOnConcurrencyFailure
     public Optional<AdminUserDTO> updateUser(AdminUserDTO userDTO) {
         return Optional
             .of(userRepository.findById(userDTO.getId()))
             .filter(Optional::isPresent)
             .map(Optional::get)
             .map(user -> {
+                if (userDTO.getVersion() != null && !userDTO.getVersion().equals(user.getVersion())) {
+                    throw new UserVersionMismatchException();
+                }
+                userProfileVersionCache.evict(user.getLogin());
                 user.setLogin(userDTO.getLogin().toLowerCase());
                 user.setFirstName(userDTO.getFirstName());
                 user.setLastName(userDTO.getLastName());
@@ -200,17 +308,25 @@ public class UserService {
                     .filter(Optional::isPresent)
                     .map(Optional::get)
                     .forEach(managedAuthorities::add);
+                // increments the version returned as ETag
+                userRepository.flush();
+                publish(UserLifecycleEvent.Type.UPDATED, user.getLogin());
                 log.debug("Changed Information for User: {}", user);
                 return user;
             })
             .map(AdminUserDTO::new);
     }
 
+    @RetryOnConcurrencyFailure
     public void deleteUser(String login) {
         userRepository
             .findOneByLogin(login)
             .ifPresent(user -> {
                 userRepository.delete(user);
+                recordDeletion(user);
+                tokenRevocationService.revokeTokens(user.getLogin());
+                userProfileVersionCache.evict(user.getLogin());
+                publish(UserLifecycleEvent.Type.DELETED, user.getLogin());
                 log.debug("Deleted User: {}", user);
             });
     }
@@ -223,12 +339,18 @@ public class UserService {
      * @param email     email id of user.
      * @param langKey   language key.
      * @param imageUrl  image URL of user.
+     * @param version   version of the user these information were read at, or {@code null} to update any version.
+     * @throws UserVersionMismatchException if the user was updated since it was read.
      */
-    public void updateUser(String firstName, String lastName, String email, String langKey, String imageUrl) {
+    @RetryOnConcurrencyFailure
+    public void updateUser(String firstName, String lastName, String email, String langKey, String imageUrl, Long version) {
         SecurityUtils
             .getCurrentUserLogin()
             .flatMap(userRepository::findOneByLogin)
             .ifPresent(user -> {
+                if (version != null && !version.equals(user.getVersion())) {
+                    throw new UserVersionMismatchException();
+                }
                 user.setFirstName(firstName);
                 user.setLastName(lastName);
                 if (email != null) {
@@ -236,22 +358,68 @@ public class UserService {
                 }
                 user.setLangKey(langKey);
                 user.setImageUrl(imageUrl);
+                userProfileVersionCache.evict(user.getLogin());
+                publish(UserLifecycleEvent.Type.UPDATED, user.getLogin());
                 log.debug("Changed Information for User: {}", user);
             });
     }
 
+    /**
+     * Update some information of a user, with a single {@code UPDATE} statement and without loading the user.
+     * <p>
+     * An email already used by another user is rejected by the unique index on the emails.
+     *
+     * @param login   login of the user.
+     * @param changes new values of the attributes of the user, by name, see {@link UserPatchRepository}.
+     * @param version version of the user the changes were based on, or {@code null} to update any version.
+     * @return true if the user was updated, false if it does not exist.
+     * @throws EmailAlreadyUsedException if the new email is used by another user.
+     * @throws UserVersionMismatchException if the user was updated since it was read.
+     */
+    @RetryOnConcurrencyFailure
+    public boolean patchUser(String login, Map<String, Object> changes, Long version) {
+        Map<String, Object> attributes = new HashMap<>(changes);
+        attributes.computeIfPresent(UserPatchRepository.EMAIL, (attribute, email) -> ((String) email).toLowerCase());
+        String modifiedBy = SecurityUtils.getCurrentUserLogin().orElse(Constants.SYSTEM);
+        int updated;
+        try {
+            updated = userRepository.patchByLogin(login, attributes, version, modifiedBy, Instant.now());
+        } catch (DataIntegrityViolationException e) {
+            if (attributes.get(UserPatchRepository.EMAIL) != null) {
+                throw new EmailAlreadyUsedException();
+            }
+            throw e;
+        }
+        if (updated == 0) {
+            if (version != null && userRepository.findOneByLogin(login).isPresent()) {
+                throw new UserVersionMismatchException();
+            }
+            return false;
+        }
+        userProfileVersionCache.evict(login);
+        publish(UserLifecycleEvent.Type.UPDATED, login);
+        log.debug("Patched Information for User {}: {}", login, attributes.keySet());
+        return true;
+    }
+
     @Transactional
+    @RetryOnConcurrencyFailure
     public void changePassword(String currentClearTextPassword, String newPassword) {
         SecurityUtils
             .getCurrentUserLogin()
             .flatMap(userRepository::findOneByLogin)
             .ifPresent(user -> {
                 String currentEncryptedPassword = user.getPassword();
-                if (!passwordEncoder.matches(currentClearTextPassword, currentEncryptedPassword)) {
+                boolean matches = RetryContext.once(
+                    "current-password:" + currentEncryptedPassword,
+                    () -> passwordEncoder.matches(currentClearTextPassword, currentEncryptedPassword)
+                );
+                if (!matches) {
                     throw new InvalidPasswordException();
                 }
-                String encryptedPassword = passwordEncoder.encode(newPassword);
+                String encryptedPassword = RetryContext.once("password", () -> passwordEncoder.encode(newPassword));
                 user.setPassword(encryptedPassword);
+                tokenRevocationService.revokeTokens(user.getLogin());
                 log.debug("Changed password for User: {}", user);
             });
     }
@@ -261,34 +429,189 @@ public class UserService {
         return userRepository.findAll(pageable).map(AdminUserDTO::new);
     }
 
+    /**
+     * Get a page of users with only some of their properties, reading only the matching columns: the authorities are
+     * only fetched when asked for, with a single query for the whole page.
+     *
+     * @param pageable the pagination information.
+     * @param fields the properties of {@link AdminUserDTO} to read.
+     * @return the users, with their id, their version and the given properties, the others being left unset.
+     */
+    @Transactional(readOnly = true)
+    public Page<AdminUserDTO> getAllManagedUsers(Pageable pageable, Set<String> fields) {
+        Set<String> attributes = new HashSet<>(fields);
+        boolean withAuthorities = attributes.remove(AUTHORITIES_FIELD);
+        Page<AdminUserDTO> page = userRepository
+            .findAllAttributes(attributes, pageable)
+            .map(values -> {
+                AdminUserDTO user = new AdminUserDTO();
+                PropertyAccessorFactory.forBeanPropertyAccess(user).setPropertyValues(values);
+                return user;
+            });
+        if (withAuthorities) {
+            Map<Long, Set<String>> authorities = userRepository.findAuthorityNamesByIdIn(
+                page.map(AdminUserDTO::getId).getContent()
+            );
+            page.forEach(user -> user.setAuthorities(authorities.getOrDefault(user.getId(), Collections.emptySet())));
+        }
+        return page;
+    }
+
     @Transactional(readOnly = true)
     public Page<UserDTO> getAllPublicUsers(Pageable pageable) {
         return userRepository.findAllByIdNotNullAndActivatedIsTrue(pageable).map(UserDTO::new);
     }
 
+    /**
+     * Get a page of users with their authorities, to be mapped to {@link AdminUserDTO} one at a time while the response
+     * is written, rather than as a whole page of DTOs.
+     *
+     * @param pageable the pagination information.
+     * @return the users, their authorities loaded.
+     */
     @Transactional(readOnly = true)
-    public Optional<User> getUserWithAuthoritiesByLogin(String login) {
-        return userRepository.findOneWithAuthoritiesByLogin(login);
+    public Page<User> getAllUsersWithAuthorities(Pageable pageable) {
+        Page<User> page = userRepository.findAll(pageable);
+        // mapped after the transaction, the authorities are fetched by batches now
+        page.forEach(user -> Hibernate.initialize(user.getAuthorities()));
+        return page;
+    }
+
+    /**
+     * Get a page of activated users, to be mapped to {@link UserDTO} one at a time while the response is written.
+     *
+     * @param pageable the pagination information.
+     * @return the users.
+     */
+    @Transactional(readOnly = true)
+    public Page<User> getAllActivatedUsers(Pageable pageable) {
+        return userRepository.findAllByIdNotNullAndActivatedIsTrue(pageable);
+    }
+
+    /**
+     * Resolve many users in a single query per kind of identifier: Hibernate pads the {@code IN} lists to the next power
+     * of two, so that the statements are shared across batch sizes.
+     *
+     * @param logins the logins of the users.
+     * @param ids the ids of the users.
+     * @return the users found, in the order of the logins then of the ids, each user once.
+     */
+    @Transactional(readOnly = true)
+    public List<AdminUserDTO> getManagedUsers(List<String> logins, List<Long> ids) {
+        return inRequestOrder(logins, ids, userRepository::findAllWithAuthoritiesByLoginIn, userRepository::findAllWithAuthoritiesByIdIn)
+            .stream()
+            .map(AdminUserDTO::new)
+            .collect(Collectors.toList());
     }
 
+    /**
+     * Same as {@link #getManagedUsers}, restricted to the activated users and their public information.
+     */
     @Transactional(readOnly = true)
+    public List<UserDTO> getPublicUsers(List<String> logins, List<Long> ids) {
+        return inRequestOrder(
+            logins,
+            ids,
+            userRepository::findAllByLoginInAndActivatedIsTrue,
+            userRepository::findAllByIdInAndActivatedIsTrue
+        )
+            .stream()
+            .map(UserDTO::new)
+            .collect(Collectors.toList());
+    }
+
+    private static Collection<User> inRequestOrder(
+        List<String> logins,
+        List<Long> ids,
+        Function<Collection<String>, List<User>> findByLogins,
+        Function<Collection<Long>, List<User>> findByIds
+    ) {
+        Map<Long, User> users = new LinkedHashMap<>();
+        if (!logins.isEmpty()) {
+            List<String> lowerCaseLogins = logins.stream().map(String::toLowerCase).distinct().collect(Collectors.toList());
+            addInOrder(users, lowerCaseLogins, findByLogins.apply(lowerCaseLogins), User::getLogin);
+        }
+        if (!ids.isEmpty()) {
+            List<Long> distinctIds = ids.stream().distinct().collect(Collectors.toList());
+            addInOrder(users, distinctIds, findByIds.apply(distinctIds), User::getId);
+        }
+        return users.values();
+    }
+
+    private static <K> void addInOrder(Map<Long, User> users, List<K> keys, List<User> found, Function<User, K> key) {
+        // the fetched authorities repeat the users
+        Map<K, User> byKey = found.stream().collect(Collectors.toMap(key, Function.identity(), (user, same) -> user));
+        keys.stream().map(byKey::get).filter(Objects::nonNull).forEach(user -> users.putIfAbsent(user.getId(), user));
+    }
+
+    /**
+     * Concurrent lookups of the same user outside of a transaction, such as the {@code GET /api/account} fired by each
+     * tab of the application on boot, run a single query and share the returned user, which must not be modified.
+     */
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public Optional<User> getUserWithAuthoritiesByLogin(String login) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            // the user must belong to the persistence context of the transaction
+            return userRepository.findOneWithAuthoritiesByLogin(login);
+        }
+        return userWithAuthoritiesLookups.execute(login, () -> userRepository.findOneWithAuthoritiesByLogin(login));
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public Optional<User> getUserWithAuthorities() {
-        return SecurityUtils.getCurrentUserLogin().flatMap(userRepository::findOneWithAuthoritiesByLogin);
+        return SecurityUtils.getCurrentUserLogin().flatMap(this::getUserWithAuthoritiesByLogin);
     }
 
     /**
      * Not activated users should be automatically deleted after 3 days.
      * <p>
+     * They are deleted by batches of {@value #PURGE_BATCH_SIZE}, each committed on its own within
+     * {@value #PURGE_BATCH_TIMEOUT_IN_SECONDS} seconds, so that a large backlog is caught up with over the nights instead of
+     * being rolled back at once.
+     * <p>
      * This is scheduled to get fired everyday, at 01:00 (am).
      */
     @Scheduled(cron = "0 0 1 * * ?")
+    @BackgroundJob
+    @Transactional(propagation = Propagation.SUPPORTS)
     public void removeNotActivatedUsers() {
-        userRepository
-            .findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(Instant.now().minus(3, ChronoUnit.DAYS))
-            .forEach(user -> {
-                log.debug("Deleting not activated user {}", user.getLogin());
-                userRepository.delete(user);
-            });
+        Instant createdBefore = Instant.now().minus(3, ChronoUnit.DAYS);
+        Pageable batch = PageRequest.of(0, PURGE_BATCH_SIZE);
+        int deleted;
+        do {
+            deleted =
+                purgeBatchTransaction.execute(status -> {
+                    List<User> users = userRepository.findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(
+                        createdBefore,
+                        batch
+                    );
+                    users.forEach(user -> {
+                        log.debug("Deleting not activated user {}", user.getLogin());
+                        userRepository.delete(user);
+                        recordDeletion(user);
+                        publish(UserLifecycleEvent.Type.PURGED, user.getLogin());
+                    });
+                    return users.size();
+                });
+        } while (deleted == PURGE_BATCH_SIZE);
+    }
+
+    /**
+     * Keep a tombstone of a deleted user, for the clients syncing the changes of the users.
+     */
+    private void recordDeletion(User user) {
+        UserTombstone tombstone = new UserTombstone();
+        tombstone.setUserId(user.getId());
+        tombstone.setLogin(user.getLogin());
+        tombstone.setDeletedDate(Instant.now());
+        userTombstoneRepository.save(tombstone);
+    }
+
+    /**
+     * Publish a change of a user, sent to the subscribers of the user events if the current transaction commits.
+     */
+    private void publish(UserLifecycleEvent.Type type, String login) {
+        eventPublisher.publishEvent(new UserLifecycleEvent(type, login));
     }
 
     /**
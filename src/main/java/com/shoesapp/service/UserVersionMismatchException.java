@@ -0,0 +1,10 @@
+package com.shoesapp.service;
+
+public class UserVersionMismatchException extends RuntimeException {
+
+    private static final long serialVersionUID = 1L;
+
+    public UserVersionMismatchException() {
+        super("The user was modified since it was read!");
+    }
+}
@@ -1,5 +1,6 @@
 package com.shoesapp.service.dto;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.shoesapp.config.Constants;
 import com.shoesapp.domain.Authority;
 import com.shoesapp.domain.User;
@@ -54,6 +55,12 @@ public class AdminUserDTO {
 
     private Set<String> authorities;
 
+    /**
+     * Exposed as the ETag of the user, not in the body.
+     */
+    @JsonIgnore
+    private Long version;
+
     public AdminUserDTO() {
         // Empty constructor needed for Jackson.
     }
@@ -74,6 +81,7 @@ public class AdminUserDTO {
         this.authorities = user.getAuthorities().stream().map(Authority::getName).collect(Collectors.toSet());
         this.phoneNumber = user.getPhoneNumber();
         this.gender = user.getGender();
+        this.version = user.getVersion();
     }
 
     public Long getId() {
@@ -196,6 +204,14 @@ public class AdminUserDTO {
         this.gender = gender;
     }
 
+    public Long getVersion() {
+        return version;
+    }
+
+    public void setVersion(Long version) {
+        this.version = version;
+    }
+
     // prettier-ignore
     @Override
     public String toString() {
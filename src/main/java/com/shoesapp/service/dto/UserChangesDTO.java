@@ -0,0 +1,65 @@
+package com.shoesapp.service.dto;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A DTO representing the changes of the users since a cursor: the users created or modified, the ids of the deleted
+ * ones, and the cursor to read the next changes from.
+ */
+public class UserChangesDTO {
+
+    private List<AdminUserDTO> updated = new ArrayList<>();
+
+    private List<UserTombstoneDTO> deleted = new ArrayList<>();
+
+    private String cursor;
+
+    private boolean hasMore;
+
+    public List<AdminUserDTO> getUpdated() {
+        return updated;
+    }
+
+    public void setUpdated(List<AdminUserDTO> updated) {
+        this.updated = updated;
+    }
+
+    public List<UserTombstoneDTO> getDeleted() {
+        return deleted;
+    }
+
+    public void setDeleted(List<UserTombstoneDTO> deleted) {
+        this.deleted = deleted;
+    }
+
+    public String getCursor() {
+        return cursor;
+    }
+
+    public void setCursor(String cursor) {
+        this.cursor = cursor;
+    }
+
+    /**
+     * Whether more changes can be read right away from the cursor, rather than at the next sync.
+     */
+    public boolean isHasMore() {
+        return hasMore;
+    }
+
+    public void setHasMore(boolean hasMore) {
+        this.hasMore = hasMore;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "UserChangesDTO{" +
+            "updated=" + updated.size() +
+            ", deleted=" + deleted.size() +
+            ", cursor='" + cursor + '\'' +
+            ", hasMore=" + hasMore +
+            "}";
+    }
+}
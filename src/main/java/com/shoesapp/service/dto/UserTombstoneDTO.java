@@ -0,0 +1,60 @@
+package com.shoesapp.service.dto;
+
+import com.shoesapp.domain.UserTombstone;
+import java.time.Instant;
+
+/**
+ * A DTO representing a deleted user.
+ */
+public class UserTombstoneDTO {
+
+    private Long id;
+
+    private String login;
+
+    private Instant deletedDate;
+
+    public UserTombstoneDTO() {
+        // Empty constructor needed for Jackson.
+    }
+
+    public UserTombstoneDTO(UserTombstone tombstone) {
+        this.id = tombstone.getUserId();
+        this.login = tombstone.getLogin();
+        this.deletedDate = tombstone.getDeletedDate();
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public String getLogin() {
+        return login;
+    }
+
+    public void setLogin(String login) {
+        this.login = login;
+    }
+
+    public Instant getDeletedDate() {
+        return deletedDate;
+    }
+
+    public void setDeletedDate(Instant deletedDate) {
+        this.deletedDate = deletedDate;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "UserTombstoneDTO{" +
+            "id=" + id +
+            ", login='" + login + '\'' +
+            ", deletedDate=" + deletedDate +
+            "}";
+    }
+}
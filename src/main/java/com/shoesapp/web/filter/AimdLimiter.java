@@ -0,0 +1,63 @@
+package com.shoesapp.web.filter;
+
+/**
+ * Concurrency limit adjusted by additive increase and multiplicative decrease (AIMD) on the observed latency.
+ * <p>
+ * Each request completed within the latency threshold while the limit was at least half used raises the limit by
+ * one; each request completed above the threshold, or dropped, multiplies it by the backoff ratio.
+ */
+class AimdLimiter {
+
+    private final int minLimit;
+
+    private final int maxLimit;
+
+    private final double backoffRatio;
+
+    private final long latencyThresholdNanos;
+
+    private int limit;
+
+    private int inFlight;
+
+    AimdLimiter(int initialLimit, int minLimit, int maxLimit, double backoffRatio, long latencyThresholdNanos) {
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.backoffRatio = backoffRatio;
+        this.latencyThresholdNanos = latencyThresholdNanos;
+        this.limit = Math.min(this.maxLimit, Math.max(this.minLimit, initialLimit));
+    }
+
+    /**
+     * @return true if the request may proceed, in which case {@link #release} must be called once it completes.
+     */
+    synchronized boolean tryAcquire() {
+        if (inFlight >= limit) {
+            return false;
+        }
+        inFlight++;
+        return true;
+    }
+
+    /**
+     * @param latencyNanos the time taken by the request.
+     * @param dropped true if the request failed because the server was overloaded.
+     */
+    synchronized void release(long latencyNanos, boolean dropped) {
+        int used = inFlight;
+        inFlight--;
+        if (dropped || latencyNanos > latencyThresholdNanos) {
+            limit = Math.max(minLimit, (int) (limit * backoffRatio));
+        } else if (used * 2 >= limit && limit < maxLimit) {
+            limit++;
+        }
+    }
+
+    synchronized int getLimit() {
+        return limit;
+    }
+
+    synchronized int getInFlight() {
+        return inFlight;
+    }
+}
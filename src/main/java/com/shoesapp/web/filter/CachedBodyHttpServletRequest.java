@@ -0,0 +1,105 @@
+package com.shoesapp.web.filter;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.SequenceInputStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import javax.servlet.ReadListener;
+import javax.servlet.ServletInputStream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletRequestWrapper;
+
+/**
+ * Request reading the start of its body ahead, so that filters can inspect it before the controller reads it.
+ * <p>
+ * At most {@code maxCachedBytes} are held in memory, the rest of the body is streamed from the original request.
+ */
+class CachedBodyHttpServletRequest extends HttpServletRequestWrapper {
+
+    private final byte[] cachedBody;
+
+    private final boolean complete;
+
+    private final ServletInputStream inputStream;
+
+    private BufferedReader reader;
+
+    CachedBodyHttpServletRequest(HttpServletRequest request, int maxCachedBytes) throws IOException {
+        super(request);
+        InputStream original = request.getInputStream();
+        byte[] body = original.readNBytes(maxCachedBytes + 1);
+        this.complete = body.length <= maxCachedBytes;
+        this.cachedBody = complete ? body : new byte[0];
+        InputStream stream = complete
+            ? new ByteArrayInputStream(body)
+            : new SequenceInputStream(new ByteArrayInputStream(body), original);
+        this.inputStream = new DelegatingServletInputStream(stream);
+    }
+
+    /**
+     * @return the whole body, or {@code null} if it is larger than the cached bytes.
+     */
+    byte[] getCachedBody() {
+        return complete ? cachedBody : null;
+    }
+
+    @Override
+    public ServletInputStream getInputStream() {
+        return inputStream;
+    }
+
+    @Override
+    public BufferedReader getReader() {
+        if (reader == null) {
+            String encoding = getCharacterEncoding();
+            Charset charset = encoding != null ? Charset.forName(encoding) : StandardCharsets.UTF_8;
+            reader = new BufferedReader(new InputStreamReader(inputStream, charset));
+        }
+        return reader;
+    }
+
+    private static final class DelegatingServletInputStream extends ServletInputStream {
+
+        private final InputStream delegate;
+
+        private boolean finished;
+
+        DelegatingServletInputStream(InputStream delegate) {
+            this.delegate = delegate;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int read = delegate.read();
+            finished = read == -1;
+            return read;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            int read = delegate.read(b, off, len);
+            finished = read == -1;
+            return read;
+        }
+
+        @Override
+        public boolean isFinished() {
+            return finished;
+        }
+
+        @Override
+        public boolean isReady() {
+            // reads block on the original stream
+            return true;
+        }
+
+        @Override
+        public void setReadListener(ReadListener readListener) {
+            throw new UnsupportedOperationException("Asynchronous reads are not supported");
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.shoesapp.web.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shoesapp.config.ApplicationProperties;
+import com.shoesapp.web.rest.errors.ErrorConstants;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.security.web.util.matcher.OrRequestMatcher;
+import org.springframework.security.web.util.matcher.RequestMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.zalando.problem.Problem;
+import org.zalando.problem.Status;
+
+/**
+ * Sheds load before it reaches the database, with an adaptive concurrency limit per partition of the endpoints
+ * configured in {@code application.concurrency-limit}, see {@link AimdLimiter}.
+ * <p>
+ * When the database slows down, the latency rises and the limits shrink, so that the excess requests are rejected
+ * right away with a {@code 503 Service Unavailable} problem and a {@code Retry-After} header, instead of holding
+ * threads while waiting for a connection. The partitions keep the traffic of each part of the API from starving the
+ * others, for instance the health checks from the admin screens.
+ */
+public class ConcurrencyLimitFilter extends OncePerRequestFilter {
+
+    private final Logger log = LoggerFactory.getLogger(ConcurrencyLimitFilter.class);
+
+    private final List<Partition> partitions = new ArrayList<>();
+
+    private final long retryAfterSeconds;
+
+    private final ObjectMapper objectMapper;
+
+    private final LongSupplier ticker;
+
+    public ConcurrencyLimitFilter(ApplicationProperties.ConcurrencyLimit properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this(properties, objectMapper, meterRegistry, System::nanoTime);
+    }
+
+    ConcurrencyLimitFilter(
+        ApplicationProperties.ConcurrencyLimit properties,
+        ObjectMapper objectMapper,
+        MeterRegistry meterRegistry,
+        LongSupplier ticker
+    ) {
+        this.objectMapper = objectMapper;
+        this.retryAfterSeconds = properties.getRetryAfterInSeconds();
+        this.ticker = ticker;
+        if (properties.isEnabled()) {
+            for (Map.Entry<String, ApplicationProperties.ConcurrencyLimit.Partition> entry : properties.getPartitions().entrySet()) {
+                partitions.add(new Partition(entry.getKey(), entry.getValue(), properties, meterRegistry));
+            }
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return findPartition(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        Partition partition = findPartition(request);
+        if (!partition.limiter.tryAcquire()) {
+            partition.rejected.increment();
+            log.debug("Concurrency limit of {} reached, rejecting {}", partition.name, request.getRequestURI());
+            writeProblem(response);
+            return;
+        }
+        long start = ticker.getAsLong();
+        boolean dropped = true;
+        try {
+            filterChain.doFilter(request, response);
+            dropped = response.getStatus() == Status.SERVICE_UNAVAILABLE.getStatusCode();
+        } finally {
+            partition.limiter.release(ticker.getAsLong() - start, dropped);
+        }
+    }
+
+    private Partition findPartition(HttpServletRequest request) {
+        for (Partition partition : partitions) {
+            if (partition.matcher.matches(request)) {
+                return partition;
+            }
+        }
+        return null;
+    }
+
+    private void writeProblem(HttpServletResponse response) throws IOException {
+        Problem problem = Problem
+            .builder()
+            .withType(ErrorConstants.OVERLOADED_TYPE)
+            .withTitle(Status.SERVICE_UNAVAILABLE.getReasonPhrase())
+            .withStatus(Status.SERVICE_UNAVAILABLE)
+            .withDetail("The server is overloaded, retry in " + retryAfterSeconds + " seconds")
+            .with("message", ErrorConstants.ERR_OVERLOADED)
+            .build();
+        response.setStatus(Status.SERVICE_UNAVAILABLE.getStatusCode());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType("application/problem+json");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getOutputStream(), problem);
+    }
+
+    private static final class Partition {
+
+        private final String name;
+
+        private final RequestMatcher matcher;
+
+        private final AimdLimiter limiter;
+
+        private final Counter rejected;
+
+        Partition(
+            String name,
+            ApplicationProperties.ConcurrencyLimit.Partition properties,
+            ApplicationProperties.ConcurrencyLimit limitProperties,
+            MeterRegistry meterRegistry
+        ) {
+            this.name = name;
+            List<RequestMatcher> matchers = new ArrayList<>();
+            for (String path : properties.getPaths()) {
+                matchers.add(new AntPathRequestMatcher(path));
+            }
+            this.matcher = new OrRequestMatcher(matchers);
+            this.limiter =
+                new AimdLimiter(
+                    properties.getInitialLimit(),
+                    limitProperties.getMinLimit(),
+                    properties.getMaxLimit(),
+                    limitProperties.getBackoffRatio(),
+                    TimeUnit.MILLISECONDS.toNanos(properties.getLatencyThresholdInMillis())
+                );
+            Gauge
+                .builder("http.server.requests.concurrency.limit", limiter, AimdLimiter::getLimit)
+                .tag("partition", name)
+                .register(meterRegistry);
+            Gauge
+                .builder("http.server.requests.concurrency.in.flight", limiter, AimdLimiter::getInFlight)
+                .tag("partition", name)
+                .register(meterRegistry);
+            this.rejected = Counter.builder("http.server.requests.concurrency.rejected").tag("partition", name).register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,228 @@
+package com.shoesapp.web.filter;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shoesapp.config.ApplicationProperties;
+import com.shoesapp.security.SecurityUtils;
+import com.shoesapp.service.IdempotencyService;
+import com.shoesapp.web.rest.errors.ErrorConstants;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.zalando.problem.Problem;
+import org.zalando.problem.Status;
+
+/**
+ * Executes the requests sent with an {@code Idempotency-Key} header to the endpoints configured in
+ * {@code application.idempotency} at most once per key and caller, see {@link IdempotencyService}.
+ * <p>
+ * The retries get the first response again, with an {@code Idempotent-Replayed} header. A key reused for another
+ * request is rejected with a {@code 422 Unprocessable Entity} problem, and a duplicate of a request executing for too
+ * long with a {@code 409 Conflict} problem. Server errors are not stored, the request can then be retried, and neither
+ * are the {@code 401}, {@code 403} and {@code 429} responses, so that a caller cannot store responses it is not allowed
+ * to get.
+ * <p>
+ * Runs after the authorization of the caller: the requests denied by the security rules claim no key.
+ */
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final String ANONYMOUS_CALLER = "anonymous";
+
+    /**
+     * Larger bodies are streamed to the controller, and not compared with the body of the first request.
+     */
+    private static final int MAX_INSPECTED_BODY_BYTES = 16 * 1024;
+
+    private static final Set<String> UNSTORED_HEADERS = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+
+    private static final Set<Integer> UNSTORED_STATUSES = Set.of(
+        HttpServletResponse.SC_UNAUTHORIZED,
+        HttpServletResponse.SC_FORBIDDEN,
+        HttpStatus.TOO_MANY_REQUESTS.value()
+    );
+
+    static {
+        UNSTORED_HEADERS.addAll(List.of(HttpHeaders.CONTENT_LENGTH, HttpHeaders.TRANSFER_ENCODING, HttpHeaders.DATE));
+    }
+
+    private final Logger log = LoggerFactory.getLogger(IdempotencyFilter.class);
+
+    private final List<AntPathRequestMatcher> matchers = new ArrayList<>();
+
+    private final String header;
+
+    private final IdempotencyService idempotencyService;
+
+    private final ObjectMapper objectMapper;
+
+    public IdempotencyFilter(ApplicationProperties.Idempotency properties, IdempotencyService idempotencyService, ObjectMapper objectMapper) {
+        this.header = properties.getHeader();
+        this.idempotencyService = idempotencyService;
+        this.objectMapper = objectMapper;
+        if (properties.isEnabled()) {
+            for (ApplicationProperties.Idempotency.Endpoint endpoint : properties.getEndpoints().values()) {
+                matchers.add(new AntPathRequestMatcher(endpoint.getPath(), endpoint.getMethod()));
+            }
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !StringUtils.hasText(request.getHeader(header)) || matchers.stream().noneMatch(matcher -> matcher.matches(request));
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        String caller = SecurityUtils.getCurrentUserLogin().orElse(ANONYMOUS_CALLER);
+        CachedBodyHttpServletRequest cachedBodyRequest = new CachedBodyHttpServletRequest(request, MAX_INSPECTED_BODY_BYTES);
+        IdempotencyService.Claim claim = idempotencyService.claim(request.getHeader(header), caller, describe(cachedBodyRequest));
+        switch (claim.getOutcome()) {
+            case REPLAY:
+                replay(claim.getResponse(), response);
+                break;
+            case MISMATCH:
+                writeProblem(
+                    response,
+                    Status.UNPROCESSABLE_ENTITY,
+                    ErrorConstants.IDEMPOTENCY_KEY_REUSED_TYPE,
+                    "The idempotency key was already used for another request",
+                    ErrorConstants.ERR_IDEMPOTENCY_KEY_REUSED
+                );
+                break;
+            case IN_PROGRESS:
+                writeProblem(
+                    response,
+                    Status.CONFLICT,
+                    ErrorConstants.IDEMPOTENCY_KEY_IN_PROGRESS_TYPE,
+                    "A request with the same idempotency key is in progress",
+                    ErrorConstants.ERR_IDEMPOTENCY_KEY_IN_PROGRESS
+                );
+                break;
+            default:
+                execute(claim, cachedBodyRequest, response, filterChain);
+        }
+    }
+
+    private void execute(
+        IdempotencyService.Claim claim,
+        HttpServletRequest request,
+        HttpServletResponse response,
+        FilterChain filterChain
+    ) throws ServletException, IOException {
+        ContentCachingResponseWrapper responseWrapper = new ContentCachingResponseWrapper(response);
+        boolean completed = false;
+        try {
+            filterChain.doFilter(request, responseWrapper);
+            int status = responseWrapper.getStatus();
+            if (status < HttpServletResponse.SC_INTERNAL_SERVER_ERROR && !UNSTORED_STATUSES.contains(status)) {
+                completed = complete(claim, responseWrapper);
+            }
+        } finally {
+            if (!completed) {
+                abandon(claim);
+            }
+            responseWrapper.copyBodyToResponse();
+        }
+    }
+
+    /**
+     * The response is sent whether it could be stored or not.
+     */
+    private boolean complete(IdempotencyService.Claim claim, ContentCachingResponseWrapper response) {
+        try {
+            idempotencyService.complete(claim, capture(response));
+            return true;
+        } catch (RuntimeException e) {
+            log.warn("Could not store the response to a request with an idempotency key: {}", e.toString());
+            return false;
+        }
+    }
+
+    private void abandon(IdempotencyService.Claim claim) {
+        try {
+            idempotencyService.abandon(claim);
+        } catch (RuntimeException e) {
+            log.warn("Could not abandon a request with an idempotency key: {}", e.toString());
+        }
+    }
+
+    private static IdempotencyService.StoredResponse capture(ContentCachingResponseWrapper response) {
+        Map<String, List<String>> headers = new LinkedHashMap<>();
+        if (response.getContentType() != null) {
+            headers.put(HttpHeaders.CONTENT_TYPE, List.of(response.getContentType()));
+        }
+        for (String name : response.getHeaderNames()) {
+            if (!UNSTORED_HEADERS.contains(name) && !headers.containsKey(name)) {
+                headers.put(name, new ArrayList<>(response.getHeaders(name)));
+            }
+        }
+        return new IdempotencyService.StoredResponse(response.getStatus(), headers, response.getContentAsByteArray());
+    }
+
+    private static void replay(IdempotencyService.StoredResponse stored, HttpServletResponse response) throws IOException {
+        response.setStatus(stored.getStatus());
+        stored
+            .getHeaders()
+            .forEach((name, values) -> {
+                for (int i = 0; i < values.size(); i++) {
+                    if (i == 0) {
+                        response.setHeader(name, values.get(i));
+                    } else {
+                        response.addHeader(name, values.get(i));
+                    }
+                }
+            });
+        response.setHeader(REPLAYED_HEADER, "true");
+        byte[] body = stored.getBody();
+        if (body != null && body.length > 0) {
+            response.setContentLength(body.length);
+            response.getOutputStream().write(body);
+        }
+    }
+
+    private static byte[] describe(CachedBodyHttpServletRequest request) throws IOException {
+        ByteArrayOutputStream description = new ByteArrayOutputStream();
+        description.write((request.getMethod() + ' ' + request.getRequestURI() + '\n').getBytes(StandardCharsets.UTF_8));
+        byte[] body = request.getCachedBody();
+        if (body != null) {
+            description.write(body);
+        }
+        return description.toByteArray();
+    }
+
+    private void writeProblem(HttpServletResponse response, Status status, URI type, String detail, String message) throws IOException {
+        Problem problem = Problem
+            .builder()
+            .withType(type)
+            .withTitle(status.getReasonPhrase())
+            .withStatus(status)
+            .withDetail(detail)
+            .with("message", message)
+            .build();
+        response.setStatus(status.getStatusCode());
+        response.setContentType("application/problem+json");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getOutputStream(), problem);
+    }
+}
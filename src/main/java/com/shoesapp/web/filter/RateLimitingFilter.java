@@ -0,0 +1,172 @@
+package com.shoesapp.web.filter;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shoesapp.config.ApplicationProperties;
+import com.shoesapp.web.rest.errors.ErrorConstants;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.zalando.problem.Problem;
+import org.zalando.problem.Status;
+
+/**
+ * Throttles the unauthenticated endpoints which hash a password or send an email, per client IP and per targeted
+ * login or email, with the token buckets configured in {@code application.rate-limiting}.
+ * <p>
+ * Rejected requests get a {@code 429 Too Many Requests} problem with a {@code Retry-After} header.
+ */
+public class RateLimitingFilter extends OncePerRequestFilter {
+
+    /**
+     * Authentication, registration and password reset requests are tiny, larger bodies are only limited per IP.
+     */
+    private static final int MAX_INSPECTED_BODY_BYTES = 4096;
+
+    private final Logger log = LoggerFactory.getLogger(RateLimitingFilter.class);
+
+    private final List<LimitedEndpoint> endpoints = new ArrayList<>();
+
+    private final TokenBuckets tokenBuckets;
+
+    private final long maxRetryAfterSeconds;
+
+    private final ObjectMapper objectMapper;
+
+    public RateLimitingFilter(ApplicationProperties.RateLimiting properties, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this(properties, objectMapper, meterRegistry, System::nanoTime);
+    }
+
+    RateLimitingFilter(
+        ApplicationProperties.RateLimiting properties,
+        ObjectMapper objectMapper,
+        MeterRegistry meterRegistry,
+        LongSupplier ticker
+    ) {
+        this.objectMapper = objectMapper;
+        this.tokenBuckets = new TokenBuckets(properties.getMaxBuckets(), properties.getIdleTimeoutInSeconds(), ticker);
+        this.maxRetryAfterSeconds = properties.getIdleTimeoutInSeconds();
+        if (properties.isEnabled()) {
+            for (Map.Entry<String, ApplicationProperties.RateLimiting.Endpoint> entry : properties.getEndpoints().entrySet()) {
+                endpoints.add(new LimitedEndpoint(entry.getKey(), entry.getValue(), meterRegistry));
+            }
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return findEndpoint(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        LimitedEndpoint endpoint = findEndpoint(request);
+        long waitNanos = endpoint.tryConsume("ip:" + request.getRemoteAddr(), endpoint.properties.getPerIp());
+        HttpServletRequest filteredRequest = request;
+        if (waitNanos == 0 && endpoint.properties.getPerPrincipal().getCapacity() > 0) {
+            CachedBodyHttpServletRequest cachedBodyRequest = new CachedBodyHttpServletRequest(request, MAX_INSPECTED_BODY_BYTES);
+            filteredRequest = cachedBodyRequest;
+            String principal = extractPrincipal(cachedBodyRequest.getCachedBody(), endpoint.properties.getPrincipalField());
+            if (principal != null) {
+                waitNanos = endpoint.tryConsume("principal:" + principal, endpoint.properties.getPerPrincipal());
+            }
+        }
+        if (waitNanos == 0) {
+            filterChain.doFilter(filteredRequest, response);
+            return;
+        }
+        endpoint.rejected.increment();
+        log.debug("Rate limit of {} reached for {}", endpoint.name, request.getRemoteAddr());
+        long retryAfterSeconds = waitNanos >= TimeUnit.SECONDS.toNanos(maxRetryAfterSeconds)
+            ? maxRetryAfterSeconds
+            : Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        writeProblem(response, retryAfterSeconds);
+    }
+
+    private LimitedEndpoint findEndpoint(HttpServletRequest request) {
+        for (LimitedEndpoint endpoint : endpoints) {
+            if (endpoint.matcher.matches(request)) {
+                return endpoint;
+            }
+        }
+        return null;
+    }
+
+    private String extractPrincipal(byte[] body, String field) {
+        if (body == null || body.length == 0) {
+            return null;
+        }
+        String principal;
+        if (StringUtils.hasText(field)) {
+            try {
+                JsonNode value = objectMapper.readTree(body).get(field);
+                principal = value != null && value.isTextual() ? value.asText() : null;
+            } catch (IOException e) {
+                // malformed bodies are rejected by the controller
+                return null;
+            }
+        } else {
+            principal = new String(body, StandardCharsets.UTF_8);
+        }
+        return StringUtils.hasText(principal) ? principal.trim().toLowerCase(Locale.ENGLISH) : null;
+    }
+
+    private void writeProblem(HttpServletResponse response, long retryAfterSeconds) throws IOException {
+        Problem problem = Problem
+            .builder()
+            .withType(ErrorConstants.TOO_MANY_REQUESTS_TYPE)
+            .withTitle(Status.TOO_MANY_REQUESTS.getReasonPhrase())
+            .withStatus(Status.TOO_MANY_REQUESTS)
+            .withDetail("Too many requests, retry in " + retryAfterSeconds + " seconds")
+            .with("message", ErrorConstants.ERR_TOO_MANY_REQUESTS)
+            .build();
+        response.setStatus(Status.TOO_MANY_REQUESTS.getStatusCode());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.setContentType("application/problem+json");
+        response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+        objectMapper.writeValue(response.getOutputStream(), problem);
+    }
+
+    private final class LimitedEndpoint {
+
+        private final String name;
+
+        private final ApplicationProperties.RateLimiting.Endpoint properties;
+
+        private final AntPathRequestMatcher matcher;
+
+        private final Counter rejected;
+
+        LimitedEndpoint(String name, ApplicationProperties.RateLimiting.Endpoint properties, MeterRegistry meterRegistry) {
+            this.name = name;
+            this.properties = properties;
+            this.matcher = new AntPathRequestMatcher(properties.getPath(), properties.getMethod());
+            this.rejected = Counter.builder("security.rate.limit.rejected").tag("endpoint", name).register(meterRegistry);
+        }
+
+        long tryConsume(String key, ApplicationProperties.RateLimiting.Limit limit) {
+            if (limit.getCapacity() <= 0) {
+                return 0;
+            }
+            return tokenBuckets.tryConsume(name + ':' + key, limit.getCapacity(), limit.getRefillPerMinute());
+        }
+    }
+}
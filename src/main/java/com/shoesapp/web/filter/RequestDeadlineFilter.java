@@ -0,0 +1,134 @@
+package com.shoesapp.web.filter;
+
+import com.shoesapp.config.ApplicationProperties;
+import com.shoesapp.service.RequestDeadline;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.LongSupplier;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.util.StringUtils;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Gives every {@code /api} request a {@link RequestDeadline}, from the budget of its endpoint in
+ * {@code application.deadline}, or from the shorter budget the client asked for in the {@code X-Request-Timeout}
+ * header.
+ * <p>
+ * The requests failing with a {@code 503 Service Unavailable} past their deadline are counted in
+ * {@code http.server.requests.deadline.exceeded}, tagged with the endpoint.
+ */
+public class RequestDeadlineFilter extends OncePerRequestFilter {
+
+    private static final String DEFAULT_ENDPOINT = "default";
+
+    private final AntPathRequestMatcher apiMatcher = new AntPathRequestMatcher("/api/**");
+
+    private final List<BudgetedEndpoint> endpoints = new ArrayList<>();
+
+    private final BudgetedEndpoint defaultEndpoint;
+
+    private final String header;
+
+    private final boolean enabled;
+
+    private final LongSupplier ticker;
+
+    public RequestDeadlineFilter(ApplicationProperties.Deadline properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, System::nanoTime);
+    }
+
+    RequestDeadlineFilter(ApplicationProperties.Deadline properties, MeterRegistry meterRegistry, LongSupplier ticker) {
+        this.enabled = properties.isEnabled();
+        this.header = properties.getHeader();
+        this.ticker = ticker;
+        this.defaultEndpoint = new BudgetedEndpoint(DEFAULT_ENDPOINT, null, properties.getDefaultBudgetInMillis(), meterRegistry);
+        for (Map.Entry<String, ApplicationProperties.Deadline.Endpoint> entry : properties.getEndpoints().entrySet()) {
+            ApplicationProperties.Deadline.Endpoint endpoint = entry.getValue();
+            AntPathRequestMatcher matcher = new AntPathRequestMatcher(
+                endpoint.getPath(),
+                StringUtils.hasText(endpoint.getMethod()) ? endpoint.getMethod() : null
+            );
+            endpoints.add(new BudgetedEndpoint(entry.getKey(), matcher, endpoint.getBudgetInMillis(), meterRegistry));
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || !apiMatcher.matches(request);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+        throws ServletException, IOException {
+        BudgetedEndpoint endpoint = findEndpoint(request);
+        long budgetMillis = endpoint.budgetMillis;
+        Long requestedMillis = parseRequestedBudget(request.getHeader(header));
+        // the client can shorten the budget, not extend it
+        if (requestedMillis != null && (budgetMillis <= 0 || requestedMillis < budgetMillis)) {
+            budgetMillis = requestedMillis;
+        }
+        if (budgetMillis <= 0) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+        RequestDeadline deadline = new RequestDeadline(endpoint.name, budgetMillis, ticker);
+        RequestDeadline previous = RequestDeadline.current();
+        RequestDeadline.set(deadline);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            RequestDeadline.set(previous);
+            if (response.getStatus() == HttpStatus.SERVICE_UNAVAILABLE.value() && deadline.isExpired()) {
+                endpoint.exceeded.increment();
+            }
+        }
+    }
+
+    private BudgetedEndpoint findEndpoint(HttpServletRequest request) {
+        for (BudgetedEndpoint endpoint : endpoints) {
+            if (endpoint.matcher.matches(request)) {
+                return endpoint;
+            }
+        }
+        return defaultEndpoint;
+    }
+
+    private static Long parseRequestedBudget(String value) {
+        if (!StringUtils.hasText(value)) {
+            return null;
+        }
+        try {
+            long millis = Long.parseLong(value.trim());
+            return millis > 0 ? millis : null;
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static final class BudgetedEndpoint {
+
+        private final String name;
+
+        private final AntPathRequestMatcher matcher;
+
+        private final long budgetMillis;
+
+        private final Counter exceeded;
+
+        BudgetedEndpoint(String name, AntPathRequestMatcher matcher, long budgetMillis, MeterRegistry meterRegistry) {
+            this.name = name;
+            this.matcher = matcher;
+            this.budgetMillis = budgetMillis;
+            this.exceeded = Counter.builder("http.server.requests.deadline.exceeded").tag("endpoint", name).register(meterRegistry);
+        }
+    }
+}
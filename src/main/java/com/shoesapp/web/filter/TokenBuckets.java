@@ -0,0 +1,114 @@
+package com.shoesapp.web.filter;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory token buckets, by key.
+ * <p>
+ * The buckets are spread over lock-protected stripes, each an access-ordered map: the least recently used buckets
+ * come first, so that the idle ones can be expired and the total number of buckets bounded in constant time.
+ */
+class TokenBuckets {
+
+    private static final int STRIPES = 64;
+
+    private final Stripe[] stripes = new Stripe[STRIPES];
+
+    private final int maxBucketsPerStripe;
+
+    private final long idleTimeoutNanos;
+
+    private final LongSupplier ticker;
+
+    TokenBuckets(int maxBuckets, long idleTimeoutInSeconds, LongSupplier ticker) {
+        this.maxBucketsPerStripe = Math.max(maxBuckets / STRIPES, 1);
+        this.idleTimeoutNanos = TimeUnit.SECONDS.toNanos(idleTimeoutInSeconds);
+        this.ticker = ticker;
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe();
+        }
+    }
+
+    /**
+     * Take a token from the bucket of a key, creating a full bucket if there is none.
+     *
+     * @param key the key of the bucket.
+     * @param capacity the maximum number of tokens of the bucket.
+     * @param refillPerMinute the number of tokens added to the bucket per minute.
+     * @return 0 if a token was taken, otherwise the number of nanoseconds until the next token is available.
+     */
+    long tryConsume(String key, int capacity, double refillPerMinute) {
+        long now = ticker.getAsLong();
+        Stripe stripe = stripes[(key.hashCode() & 0x7fffffff) % STRIPES];
+        synchronized (stripe) {
+            stripe.expire(now);
+            Bucket bucket = stripe.buckets.get(key);
+            if (bucket == null) {
+                bucket = new Bucket(capacity, now);
+                stripe.buckets.put(key, bucket);
+            }
+            return bucket.tryConsume(now, capacity, refillPerMinute);
+        }
+    }
+
+    int size() {
+        int size = 0;
+        for (Stripe stripe : stripes) {
+            synchronized (stripe) {
+                size += stripe.buckets.size();
+            }
+        }
+        return size;
+    }
+
+    private final class Stripe {
+
+        private final LinkedHashMap<String, Bucket> buckets = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Bucket> eldest) {
+                return size() > maxBucketsPerStripe;
+            }
+        };
+
+        void expire(long now) {
+            Iterator<Bucket> iterator = buckets.values().iterator();
+            while (iterator.hasNext() && now - iterator.next().lastUsed > idleTimeoutNanos) {
+                iterator.remove();
+            }
+        }
+    }
+
+    private static final class Bucket {
+
+        private double tokens;
+
+        private long lastRefill;
+
+        private long lastUsed;
+
+        Bucket(int capacity, long now) {
+            this.tokens = capacity;
+            this.lastRefill = now;
+            this.lastUsed = now;
+        }
+
+        long tryConsume(long now, int capacity, double refillPerMinute) {
+            double nanosPerToken = TimeUnit.MINUTES.toNanos(1) / refillPerMinute;
+            tokens = Math.min(capacity, tokens + (now - lastRefill) / nanosPerToken);
+            lastRefill = now;
+            lastUsed = now;
+            if (tokens >= 1) {
+                tokens -= 1;
+                return 0;
+            }
+            if (refillPerMinute <= 0) {
+                return Long.MAX_VALUE;
+            }
+            return (long) Math.ceil((1 - tokens) * nanosPerToken);
+        }
+    }
+}
@@ -1,22 +1,32 @@
 package com.shoesapp.web.rest;
 
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.shoesapp.domain.User;
 import com.shoesapp.repository.UserRepository;
+import com.shoesapp.security.AuthenticatedUser;
 import com.shoesapp.security.SecurityUtils;
+import com.shoesapp.security.jwt.ProfileClaims;
 import com.shoesapp.service.MailService;
+import com.shoesapp.service.UserProfileVersionCache;
 import com.shoesapp.service.UserService;
 import com.shoesapp.service.dto.AdminUserDTO;
 import com.shoesapp.service.dto.PasswordChangeDTO;
 import com.shoesapp.web.rest.errors.*;
 import com.shoesapp.web.rest.vm.KeyAndPasswordVM;
 import com.shoesapp.web.rest.vm.ManagedUserVM;
+import com.shoesapp.web.util.ETagUtil;
 import java.util.*;
 import javax.servlet.http.HttpServletRequest;
 import javax.validation.Valid;
 import org.apache.commons.lang3.StringUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.web.bind.annotation.*;
 
 /**
@@ -41,10 +51,22 @@ public class AccountResource {
 
     private final MailService mailService;
 
-    public AccountResource(UserRepository userRepository, UserService userService, MailService mailService) {
+    private final UserProfileVersionCache userProfileVersionCache;
+
+    private final UserMergePatch userMergePatch;
+
+    public AccountResource(
+        UserRepository userRepository,
+        UserService userService,
+        MailService mailService,
+        UserProfileVersionCache userProfileVersionCache,
+        UserMergePatch userMergePatch
+    ) {
         this.userRepository = userRepository;
         this.userService = userService;
         this.mailService = mailService;
+        this.userProfileVersionCache = userProfileVersionCache;
+        this.userMergePatch = userMergePatch;
     }
 
     /**
@@ -93,27 +115,66 @@ public class AccountResource {
 
     /**
      * {@code GET  /account} : get the current user.
+     * <p>
+     * Answered from the profile embedded in the JWT token while it is unchanged, from the database otherwise. Either
+     * way the account has the fields embedded in the tokens only, its names, email, language, picture, authorities and
+     * version, so that a given ETag always stands for the same body.
      *
-     * @return the current user.
+     * @return the current user, with its ETag, or {@code 304 (Not Modified)} if it matches {@code If-None-Match}.
      * @throws RuntimeException {@code 500 (Internal Server Error)} if the user couldn't be returned.
      */
     @GetMapping("/account")
-    public AdminUserDTO getAccount() {
-        return userService
-            .getUserWithAuthorities()
-            .map(AdminUserDTO::new)
-            .orElseThrow(() -> new AccountResourceException("User could not be found"));
+    public ResponseEntity<AdminUserDTO> getAccount() {
+        AdminUserDTO account = getAccountFromToken();
+        if (account == null) {
+            account =
+                userService
+                    .getUserWithAuthorities()
+                    .map(user -> {
+                        userProfileVersionCache.put(user);
+                        return ProfileClaims.toAccount(new AdminUserDTO(user));
+                    })
+                    .orElseThrow(() -> new AccountResourceException("User could not be found"));
+        }
+        return ResponseEntity
+            .ok()
+            .eTag(ETagUtil.forEntity(account.getId(), account.getVersion()))
+            .cacheControl(ETagUtil.REVALIDATE)
+            .body(account);
+    }
+
+    /**
+     * Get the profile embedded in the JWT token of the current user, if it is still the one in the database.
+     *
+     * @return the profile, or {@code null} if it must be read from the database.
+     */
+    private AdminUserDTO getAccountFromToken() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof AuthenticatedUser)) {
+            return null;
+        }
+        AuthenticatedUser user = (AuthenticatedUser) authentication.getPrincipal();
+        Long profileVersion = ProfileClaims.getProfileVersion(user.getClaims());
+        if (profileVersion == null || !userProfileVersionCache.isCurrent(user.getUsername(), profileVersion)) {
+            return null;
+        }
+        return ProfileClaims.toProfile(user.getUsername(), user.getAuthorities(), user.getClaims());
     }
 
     /**
      * {@code POST  /account} : update the current user information.
      *
      * @param userDTO the current user information.
+     * @param ifMatch the optional ETag of the current user information was read with.
      * @throws EmailAlreadyUsedException {@code 400 (Bad Request)} if the email is already used.
+     * @throws PreconditionFailedException {@code 412 (Precondition Failed)} if the user was modified since.
      * @throws RuntimeException {@code 500 (Internal Server Error)} if the user login wasn't found.
      */
     @PostMapping("/account")
-    public void saveAccount(@Valid @RequestBody AdminUserDTO userDTO) {
+    public void saveAccount(
+        @Valid @RequestBody AdminUserDTO userDTO,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
         String userLogin = SecurityUtils
             .getCurrentUserLogin()
             .orElseThrow(() -> new AccountResourceException("Current user login not found"));
@@ -130,10 +191,35 @@ public class AccountResource {
             userDTO.getLastName(),
             userDTO.getEmail(),
             userDTO.getLangKey(),
-            userDTO.getImageUrl()
+            userDTO.getImageUrl(),
+            ETagUtil.parseVersion(ifMatch, user.get().getId())
         );
     }
 
+    /**
+     * {@code PATCH  /account} : update some information of the current user, given as a JSON Merge Patch.
+     * <p>
+     * Only the fields present in the patch are updated, with a single statement and without reading the user.
+     *
+     * @param patch the fields to update, among {@link UserMergePatch#ACCOUNT_FIELDS}.
+     * @param ifMatch the optional ETag of the current user information was read with.
+     * @throws BadRequestAlertException {@code 400 (Bad Request)} if a field cannot be patched.
+     * @throws EmailAlreadyUsedException {@code 400 (Bad Request)} if the email is already used.
+     * @throws PreconditionFailedException {@code 412 (Precondition Failed)} if the user was modified since.
+     * @throws RuntimeException {@code 500 (Internal Server Error)} if the user login wasn't found.
+     */
+    @PatchMapping(path = "/account", consumes = { UserMergePatch.MEDIA_TYPE, MediaType.APPLICATION_JSON_VALUE })
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void patchAccount(@RequestBody ObjectNode patch, @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        String userLogin = SecurityUtils
+            .getCurrentUserLogin()
+            .orElseThrow(() -> new AccountResourceException("Current user login not found"));
+        Map<String, Object> changes = userMergePatch.read(patch, UserMergePatch.ACCOUNT_FIELDS);
+        if (!userService.patchUser(userLogin, changes, ETagUtil.parseVersion(ifMatch, null))) {
+            throw new AccountResourceException("User could not be found");
+        }
+    }
+
     /**
      * {@code POST  /account/change-password} : changes the current user's password.
      *
@@ -1,9 +1,14 @@
 package com.shoesapp.web.rest;
 
+import com.shoesapp.domain.User;
 import com.shoesapp.service.UserService;
 import com.shoesapp.service.dto.UserDTO;
+import com.shoesapp.web.rest.vm.UserBatchVM;
+import com.shoesapp.web.util.ETagUtil;
 import java.util.*;
 import java.util.Collections;
+import java.util.stream.Stream;
+import javax.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
@@ -36,24 +41,41 @@ public class PublicUserResource {
      * {@code GET /users} : get all users with only the public informations - calling this are allowed for anyone.
      *
      * @param pageable the pagination information.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body all users.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body all users, or with status
+     * {@code 304 (Not Modified)} if none changed since the page was read with the ETag sent in {@code If-None-Match}.
      */
     @GetMapping("/users")
-    public ResponseEntity<List<UserDTO>> getAllPublicUsers(Pageable pageable) {
+    public ResponseEntity<Stream<UserDTO>> getAllPublicUsers(Pageable pageable) {
         log.debug("REST request to get all public User names");
         if (!onlyContainsAllowedProperties(pageable)) {
             return ResponseEntity.badRequest().build();
         }
 
-        final Page<UserDTO> page = userService.getAllPublicUsers(pageable);
+        final Page<User> page = userService.getAllActivatedUsers(pageable);
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
-        return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
+        headers.setETag(ETagUtil.forPage(page, user -> user.getId() + "-" + user.getLogin()));
+        headers.setCacheControl(ETagUtil.REVALIDATE);
+        // each DTO is created when written, instead of a whole page of them before writing
+        return new ResponseEntity<>(page.get().map(UserDTO::new), headers, HttpStatus.OK);
     }
 
     private boolean onlyContainsAllowedProperties(Pageable pageable) {
         return pageable.getSort().stream().map(Sort.Order::getProperty).allMatch(ALLOWED_ORDERED_PROPERTIES::contains);
     }
 
+    /**
+     * {@code POST /users/_batch} : get the activated users with the given logins and ids, with only the public informations.
+     *
+     * @param batch the logins and the ids of the users to find, at most {@value UserBatchVM#MAX_SIZE} of each.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the users found, in the order of the logins then of
+     * the ids, or with status {@code 400 (Bad Request)} if too many were asked.
+     */
+    @PostMapping("/users/_batch")
+    public ResponseEntity<List<UserDTO>> getPublicUsers(@Valid @RequestBody UserBatchVM batch) {
+        log.debug("REST request to get public Users : {}", batch);
+        return ResponseEntity.ok(userService.getPublicUsers(batch.getLogins(), batch.getIds()));
+    }
+
     /**
      * Gets a list of all roles.
      * @return a string list of all roles.
@@ -0,0 +1,82 @@
+package com.shoesapp.web.rest;
+
+import com.shoesapp.config.ApplicationProperties;
+import com.shoesapp.security.AuthoritiesConstants;
+import com.shoesapp.service.UserEventBroadcaster;
+import com.shoesapp.service.UserLifecycleEvent;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * REST controller pushing the changes of the users to the administrators, instead of them polling the users.
+ */
+@RestController
+@RequestMapping("/api/admin")
+public class UserEventResource {
+
+    /**
+     * Name of the event telling a subscriber to read the users again, as some changes since its last event are lost.
+     */
+    public static final String RESYNC_EVENT = "resync";
+
+    private final Logger log = LoggerFactory.getLogger(UserEventResource.class);
+
+    private final UserEventBroadcaster userEventBroadcaster;
+
+    private final long timeoutMillis;
+
+    public UserEventResource(UserEventBroadcaster userEventBroadcaster, ApplicationProperties applicationProperties) {
+        this.userEventBroadcaster = userEventBroadcaster;
+        this.timeoutMillis = TimeUnit.SECONDS.toMillis(applicationProperties.getUserEvents().getTimeoutInSeconds());
+    }
+
+    /**
+     * {@code GET /admin/user-events} : stream the registrations, activations, updates and deletions of users, as
+     * server-sent events, once committed.
+     * <p>
+     * Each event has an id: a client reconnecting with the {@code Last-Event-ID} header, as an {@code EventSource} does,
+     * first gets the events it missed, or a {@value #RESYNC_EVENT} event. A client which does not read its events fast
+     * enough is disconnected.
+     *
+     * @param lastEventId the id of the last event received by the client, if it reconnects.
+     * @return the stream of {@link UserLifecycleEvent}s.
+     */
+    @GetMapping(path = "/user-events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public SseEmitter streamUserEvents(@RequestHeader(name = "Last-Event-ID", required = false) String lastEventId) {
+        log.debug("REST request to stream the User events from : {}", lastEventId);
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        UserEventBroadcaster.Subscription subscription = userEventBroadcaster.subscribe(
+            lastEventId,
+            new UserEventBroadcaster.Listener() {
+                @Override
+                public void onEvent(String id, UserLifecycleEvent event) throws IOException {
+                    emitter.send(SseEmitter.event().id(id).data(event, MediaType.APPLICATION_JSON));
+                }
+
+                @Override
+                public void onResync() throws IOException {
+                    emitter.send(SseEmitter.event().name(RESYNC_EVENT).data("{}", MediaType.APPLICATION_JSON));
+                }
+
+                @Override
+                public void onDropped() {
+                    emitter.complete();
+                }
+            }
+        );
+        emitter.onCompletion(subscription::cancel);
+        emitter.onTimeout(subscription::cancel);
+        emitter.onError(e -> subscription.cancel());
+        return emitter;
+    }
+}
@@ -1,17 +1,23 @@
 package com.shoesapp.web.rest;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
+import com.shoesapp.domain.RefreshToken;
 import com.shoesapp.security.jwt.JWTFilter;
 import com.shoesapp.security.jwt.TokenProvider;
+import com.shoesapp.service.RefreshTokenService;
 import com.shoesapp.web.rest.vm.LoginVM;
+import com.shoesapp.web.rest.vm.RefreshTokenVM;
 import javax.validation.Valid;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.config.annotation.authentication.builders.AuthenticationManagerBuilder;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.web.bind.annotation.*;
 
 /**
@@ -25,9 +31,20 @@ public class UserJWTController {
 
     private final AuthenticationManagerBuilder authenticationManagerBuilder;
 
-    public UserJWTController(TokenProvider tokenProvider, AuthenticationManagerBuilder authenticationManagerBuilder) {
+    private final RefreshTokenService refreshTokenService;
+
+    private final UserDetailsService userDetailsService;
+
+    public UserJWTController(
+        TokenProvider tokenProvider,
+        AuthenticationManagerBuilder authenticationManagerBuilder,
+        RefreshTokenService refreshTokenService,
+        UserDetailsService userDetailsService
+    ) {
         this.tokenProvider = tokenProvider;
         this.authenticationManagerBuilder = authenticationManagerBuilder;
+        this.refreshTokenService = refreshTokenService;
+        this.userDetailsService = userDetailsService;
     }
 
     @PostMapping("/authenticate")
@@ -40,9 +57,34 @@ public class UserJWTController {
         Authentication authentication = authenticationManagerBuilder.getObject().authenticate(authenticationToken);
         SecurityContextHolder.getContext().setAuthentication(authentication);
         String jwt = tokenProvider.createToken(authentication, loginVM.isRememberMe());
+        String refreshToken = refreshTokenService.createRefreshToken(authentication.getName(), loginVM.isRememberMe());
+        HttpHeaders httpHeaders = new HttpHeaders();
+        httpHeaders.add(JWTFilter.AUTHORIZATION_HEADER, "Bearer " + jwt);
+        return new ResponseEntity<>(new JWTToken(jwt, refreshToken), httpHeaders, HttpStatus.OK);
+    }
+
+    /**
+     * {@code POST  /authenticate/refresh} : exchange a refresh token for a new access token and a new refresh token.
+     * <p>
+     * The password is not checked again, but the user is reloaded so that a deactivated user cannot refresh.
+     * Refresh tokens are single use, and are all revoked when the password is changed or reset.
+     *
+     * @param refreshTokenVM the refresh token.
+     * @return the new tokens.
+     */
+    @PostMapping("/authenticate/refresh")
+    public ResponseEntity<JWTToken> refresh(@Valid @RequestBody RefreshTokenVM refreshTokenVM) {
+        RefreshToken consumed = refreshTokenService
+            .consumeRefreshToken(refreshTokenVM.getRefreshToken())
+            .orElseThrow(() -> new BadCredentialsException("Invalid refresh token"));
+        UserDetails user = userDetailsService.loadUserByUsername(consumed.getLogin());
+        Authentication authentication = new UsernamePasswordAuthenticationToken(user, null, user.getAuthorities());
+
+        String jwt = tokenProvider.createToken(authentication, consumed.isRememberMe());
+        String refreshToken = refreshTokenService.rotateRefreshToken(consumed);
         HttpHeaders httpHeaders = new HttpHeaders();
         httpHeaders.add(JWTFilter.AUTHORIZATION_HEADER, "Bearer " + jwt);
-        return new ResponseEntity<>(new JWTToken(jwt), httpHeaders, HttpStatus.OK);
+        return new ResponseEntity<>(new JWTToken(jwt, refreshToken), httpHeaders, HttpStatus.OK);
     }
 
     /**
@@ -52,8 +94,11 @@ public class UserJWTController {
 
         private String idToken;
 
-        JWTToken(String idToken) {
+        private String refreshToken;
+
+        JWTToken(String idToken, String refreshToken) {
             this.idToken = idToken;
+            this.refreshToken = refreshToken;
         }
 
         @JsonProperty("id_token")
@@ -64,5 +109,14 @@ public class UserJWTController {
         void setIdToken(String idToken) {
             this.idToken = idToken;
         }
+
+        @JsonProperty("refresh_token")
+        String getRefreshToken() {
+            return refreshToken;
+        }
+
+        void setRefreshToken(String refreshToken) {
+            this.refreshToken = refreshToken;
+        }
     }
 }
@@ -0,0 +1,121 @@
+package com.shoesapp.web.rest;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.shoesapp.domain.User;
+import com.shoesapp.repository.UserPatchRepository;
+import com.shoesapp.web.rest.errors.BadRequestAlertException;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Set;
+import javax.validation.ConstraintViolation;
+import javax.validation.ConstraintViolationException;
+import javax.validation.Validator;
+import org.springframework.beans.BeanWrapper;
+import org.springframework.beans.PropertyAccessorFactory;
+import org.springframework.stereotype.Component;
+
+/**
+ * Reader of the JSON Merge Patch documents (RFC 7396) of the users, into the attributes updated by
+ * {@link UserPatchRepository#patchByLogin}.
+ * <p>
+ * The values are validated against the constraints of the {@link User} entity, as the bulk update bypasses them.
+ */
+@Component
+class UserMergePatch {
+
+    static final String MEDIA_TYPE = "application/merge-patch+json";
+
+    /**
+     * Fields a user can patch in its own account.
+     */
+    static final Set<String> ACCOUNT_FIELDS = Set.of(
+        UserPatchRepository.FIRST_NAME,
+        UserPatchRepository.LAST_NAME,
+        UserPatchRepository.EMAIL,
+        UserPatchRepository.IMAGE_URL,
+        UserPatchRepository.LANG_KEY,
+        UserPatchRepository.PHONE_NUMBER,
+        UserPatchRepository.GENDER
+    );
+
+    /**
+     * Fields an administrator can patch in any user.
+     */
+    static final Set<String> ADMIN_FIELDS = Set.of(
+        UserPatchRepository.FIRST_NAME,
+        UserPatchRepository.LAST_NAME,
+        UserPatchRepository.EMAIL,
+        UserPatchRepository.IMAGE_URL,
+        UserPatchRepository.LANG_KEY,
+        UserPatchRepository.PHONE_NUMBER,
+        UserPatchRepository.GENDER,
+        UserPatchRepository.ACTIVATED
+    );
+
+    /**
+     * Fields which cannot be removed with a {@code null}.
+     */
+    private static final Set<String> REQUIRED_FIELDS = Set.of(
+        UserPatchRepository.EMAIL,
+        UserPatchRepository.PHONE_NUMBER,
+        UserPatchRepository.ACTIVATED
+    );
+
+    private static final String ENTITY_NAME = "userManagement";
+
+    private final ObjectMapper objectMapper;
+
+    private final Validator validator;
+
+    UserMergePatch(ObjectMapper objectMapper, Validator validator) {
+        this.objectMapper = objectMapper;
+        this.validator = validator;
+    }
+
+    /**
+     * Read a patch of a user.
+     *
+     * @param patch the JSON Merge Patch document.
+     * @param allowedFields the fields which can be patched.
+     * @return the new values of the attributes of the user, by name.
+     * @throws BadRequestAlertException {@code 400 (Bad Request)} if a field cannot be patched, or has an invalid type.
+     * @throws ConstraintViolationException {@code 400 (Bad Request)} if a value is invalid.
+     */
+    Map<String, Object> read(ObjectNode patch, Set<String> allowedFields) {
+        if (patch.isEmpty()) {
+            throw new BadRequestAlertException("The patch does not change any field", ENTITY_NAME, "patchempty");
+        }
+        BeanWrapper user = PropertyAccessorFactory.forBeanPropertyAccess(new User());
+        Map<String, Object> attributes = new HashMap<>();
+        for (Iterator<Map.Entry<String, JsonNode>> fields = patch.fields(); fields.hasNext();) {
+            Map.Entry<String, JsonNode> field = fields.next();
+            String name = field.getKey();
+            if (!allowedFields.contains(name)) {
+                throw new BadRequestAlertException("The field " + name + " cannot be patched", ENTITY_NAME, "patchfieldnotallowed");
+            }
+            if (field.getValue().isNull()) {
+                if (REQUIRED_FIELDS.contains(name)) {
+                    throw new BadRequestAlertException("The field " + name + " cannot be removed", ENTITY_NAME, "patchfieldrequired");
+                }
+                attributes.put(name, null);
+                continue;
+            }
+            Object value;
+            try {
+                value = objectMapper.treeToValue(field.getValue(), user.getPropertyType(name));
+            } catch (JsonProcessingException e) {
+                throw new BadRequestAlertException("The field " + name + " has an invalid value", ENTITY_NAME, "patchfieldinvalid");
+            }
+            Set<ConstraintViolation<User>> violations = validator.validateValue(User.class, name, value);
+            if (!violations.isEmpty()) {
+                throw new ConstraintViolationException(violations);
+            }
+            attributes.put(name, value);
+        }
+        return attributes;
+    }
+}
@@ -1,19 +1,27 @@
 package com.shoesapp.web.rest;
 
+import com.fasterxml.jackson.databind.node.ObjectNode;
 import com.shoesapp.config.Constants;
 import com.shoesapp.domain.User;
 import com.shoesapp.repository.UserRepository;
 import com.shoesapp.security.AuthoritiesConstants;
 import com.shoesapp.service.MailService;
+import com.shoesapp.service.UserChangesService;
 import com.shoesapp.service.UserService;
 import com.shoesapp.service.dto.AdminUserDTO;
+import com.shoesapp.service.dto.UserChangesDTO;
 import com.shoesapp.web.rest.errors.BadRequestAlertException;
 import com.shoesapp.web.rest.errors.EmailAlreadyUsedException;
 import com.shoesapp.web.rest.errors.LoginAlreadyUsedException;
+import com.shoesapp.web.rest.errors.PreconditionFailedException;
+import com.shoesapp.web.rest.vm.UserBatchVM;
+import com.shoesapp.web.util.ETagUtil;
+import com.shoesapp.web.util.FieldsFilter;
 import java.net.URI;
 import java.net.URISyntaxException;
 import java.util.*;
 import java.util.Collections;
+import java.util.function.Function;
 import javax.validation.Valid;
 import javax.validation.constraints.Pattern;
 import org.slf4j.Logger;
@@ -24,6 +32,7 @@ import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
@@ -76,6 +85,24 @@ public class UserResource {
         )
     );
 
+    private static final Set<String> ALLOWED_FIELDS = Set.of(
+        "id",
+        "login",
+        "firstName",
+        "lastName",
+        "email",
+        "imageUrl",
+        "activated",
+        "langKey",
+        "createdBy",
+        "createdDate",
+        "lastModifiedBy",
+        "lastModifiedDate",
+        "phoneNumber",
+        "gender",
+        "authorities"
+    );
+
     private final Logger log = LoggerFactory.getLogger(UserResource.class);
 
     @Value("${jhipster.clientApp.name}")
@@ -87,10 +114,22 @@ public class UserResource {
 
     private final MailService mailService;
 
-    public UserResource(UserService userService, UserRepository userRepository, MailService mailService) {
+    private final UserMergePatch userMergePatch;
+
+    private final UserChangesService userChangesService;
+
+    public UserResource(
+        UserService userService,
+        UserRepository userRepository,
+        MailService mailService,
+        UserMergePatch userMergePatch,
+        UserChangesService userChangesService
+    ) {
         this.userService = userService;
         this.userRepository = userRepository;
         this.mailService = mailService;
+        this.userMergePatch = userMergePatch;
+        this.userChangesService = userChangesService;
     }
 
     /**
@@ -133,14 +172,20 @@ public class UserResource {
      * {@code PUT /admin/users} : Updates an existing User.
      *
      * @param userDTO the user to update.
+     * @param ifMatch the optional ETag of the user the update is based on.
      * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the updated user.
      * @throws EmailAlreadyUsedException {@code 400 (Bad Request)} if the email is already in use.
      * @throws LoginAlreadyUsedException {@code 400 (Bad Request)} if the login is already in use.
+     * @throws PreconditionFailedException {@code 412 (Precondition Failed)} if the user was modified since.
      */
     @PutMapping("/users")
     @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
-    public ResponseEntity<AdminUserDTO> updateUser(@Valid @RequestBody AdminUserDTO userDTO) {
+    public ResponseEntity<AdminUserDTO> updateUser(
+        @Valid @RequestBody AdminUserDTO userDTO,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
         log.debug("REST request to update User : {}", userDTO);
+        userDTO.setVersion(ETagUtil.parseVersion(ifMatch, userDTO.getId()));
         Optional<User> existingUser = userRepository.findOneByEmailIgnoreCase(userDTO.getEmail());
         if (existingUser.isPresent() && (!existingUser.get().getId().equals(userDTO.getId()))) {
             throw new EmailAlreadyUsedException();
@@ -151,29 +196,80 @@ public class UserResource {
         }
         Optional<AdminUserDTO> updatedUser = userService.updateUser(userDTO);
 
-        return ResponseUtil.wrapOrNotFound(
-            updatedUser,
-            HeaderUtil.createAlert(applicationName, "A user is updated with identifier " + userDTO.getLogin(), userDTO.getLogin())
+        HttpHeaders headers = HeaderUtil.createAlert(
+            applicationName,
+            "A user is updated with identifier " + userDTO.getLogin(),
+            userDTO.getLogin()
         );
+        updatedUser.ifPresent(user -> headers.setETag(ETagUtil.forEntity(user.getId(), user.getVersion())));
+        return ResponseUtil.wrapOrNotFound(updatedUser, headers);
+    }
+
+    /**
+     * {@code PATCH /admin/users/:login} : Updates some information of the "login" user, given as a JSON Merge Patch.
+     * <p>
+     * Only the fields present in the patch are updated, with a single statement and without reading the user.
+     *
+     * @param login the login of the user to update.
+     * @param patch the fields to update, among {@link UserMergePatch#ADMIN_FIELDS}.
+     * @param ifMatch the optional ETag of the user the patch is based on.
+     * @return the {@link ResponseEntity} with status {@code 204 (NO_CONTENT)}, or with status {@code 404 (Not Found)}.
+     * @throws BadRequestAlertException {@code 400 (Bad Request)} if a field cannot be patched.
+     * @throws EmailAlreadyUsedException {@code 400 (Bad Request)} if the email is already in use.
+     * @throws PreconditionFailedException {@code 412 (Precondition Failed)} if the user was modified since.
+     */
+    @PatchMapping(path = "/users/{login}", consumes = { UserMergePatch.MEDIA_TYPE, MediaType.APPLICATION_JSON_VALUE })
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<Void> patchUser(
+        @PathVariable @Pattern(regexp = Constants.LOGIN_REGEX) String login,
+        @RequestBody ObjectNode patch,
+        @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
+    ) {
+        log.debug("REST request to patch User {} : {}", login, patch);
+        Map<String, Object> changes = userMergePatch.read(patch, UserMergePatch.ADMIN_FIELDS);
+        if (!userService.patchUser(login, changes, ETagUtil.parseVersion(ifMatch, null))) {
+            return ResponseEntity.notFound().build();
+        }
+        return ResponseEntity
+            .noContent()
+            .headers(HeaderUtil.createAlert(applicationName, "A user is updated with identifier " + login, login))
+            .build();
     }
 
     /**
      * {@code GET /admin/users} : get all users with all the details - calling this are only allowed for the administrators.
      *
      * @param pageable the pagination information.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body all users.
+     * @param fields the properties of the users to read and return, all of them if not set.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body all users, or with status
+     * {@code 304 (Not Modified)} if none changed since the page was read with the ETag sent in {@code If-None-Match}, or with
+     * status {@code 400 (Bad Request)} if a sort property or a field is not allowed.
      */
     @GetMapping("/users")
     @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
-    public ResponseEntity<List<AdminUserDTO>> getAllUsers(Pageable pageable) {
+    public ResponseEntity<Object> getAllUsers(Pageable pageable, @RequestParam(required = false) Set<String> fields) {
         log.debug("REST request to get all User for an admin");
-        if (!onlyContainsAllowedProperties(pageable)) {
+        boolean sparse = fields != null && !fields.isEmpty();
+        if (!onlyContainsAllowedProperties(pageable) || (sparse && !ALLOWED_FIELDS.containsAll(fields))) {
             return ResponseEntity.badRequest().build();
         }
 
-        final Page<AdminUserDTO> page = userService.getAllManagedUsers(pageable);
+        if (sparse) {
+            final Page<AdminUserDTO> page = userService.getAllManagedUsers(pageable, fields);
+            HttpHeaders headers = pageHeaders(page, user -> user.getId() + "-" + user.getVersion());
+            return new ResponseEntity<>(FieldsFilter.only(page.getContent(), fields), headers, HttpStatus.OK);
+        }
+        final Page<User> page = userService.getAllUsersWithAuthorities(pageable);
+        HttpHeaders headers = pageHeaders(page, user -> user.getId() + "-" + user.getVersion());
+        // each DTO is created when written, instead of a whole page of them before writing
+        return new ResponseEntity<>(page.get().map(AdminUserDTO::new), headers, HttpStatus.OK);
+    }
+
+    private static <T> HttpHeaders pageHeaders(Page<T> page, Function<? super T, String> identity) {
         HttpHeaders headers = PaginationUtil.generatePaginationHttpHeaders(ServletUriComponentsBuilder.fromCurrentRequest(), page);
-        return new ResponseEntity<>(page.getContent(), headers, HttpStatus.OK);
+        headers.setETag(ETagUtil.forPage(page, identity));
+        headers.setCacheControl(ETagUtil.REVALIDATE);
+        return headers;
     }
 
     private boolean onlyContainsAllowedProperties(Pageable pageable) {
@@ -184,13 +280,57 @@ public class UserResource {
      * {@code GET /admin/users/:login} : get the "login" user.
      *
      * @param login the login of the user to find.
-     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the "login" user, or with status {@code 404 (Not Found)}.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the "login" user, or with status {@code 404 (Not Found)},
+     * or with status {@code 304 (Not Modified)} if its ETag matches {@code If-None-Match}.
      */
     @GetMapping("/users/{login}")
     @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
     public ResponseEntity<AdminUserDTO> getUser(@PathVariable @Pattern(regexp = Constants.LOGIN_REGEX) String login) {
         log.debug("REST request to get User : {}", login);
-        return ResponseUtil.wrapOrNotFound(userService.getUserWithAuthoritiesByLogin(login).map(AdminUserDTO::new));
+        return userService
+            .getUserWithAuthoritiesByLogin(login)
+            .map(AdminUserDTO::new)
+            .map(user ->
+                ResponseEntity.ok().eTag(ETagUtil.forEntity(user.getId(), user.getVersion())).cacheControl(ETagUtil.REVALIDATE).body(user)
+            )
+            .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    /**
+     * {@code POST /admin/users/_batch} : get the users with the given logins and ids, in a single round trip.
+     *
+     * @param batch the logins and the ids of the users to find, at most {@value UserBatchVM#MAX_SIZE} of each.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the users found, in the order of the logins then of
+     * the ids, without the unknown ones, or with status {@code 400 (Bad Request)} if too many were asked.
+     */
+    @PostMapping("/users/_batch")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<List<AdminUserDTO>> getUsers(@Valid @RequestBody UserBatchVM batch) {
+        log.debug("REST request to get Users : {}", batch);
+        return ResponseEntity.ok(userService.getManagedUsers(batch.getLogins(), batch.getIds()));
+    }
+
+    /**
+     * {@code GET /admin/user-changes} : get the users created, modified and deleted since a cursor.
+     * <p>
+     * Without a cursor, all the users are returned, page after page. Each response has the cursor to send next: while
+     * {@code hasMore} is {@code true}, the next changes can be read right away, otherwise at the next sync. The users
+     * are updated before the deleted ones are removed, by id.
+     *
+     * @param since the cursor returned by the previous call, if any.
+     * @param size the maximum number of users, and of deleted users, to return.
+     * @return the {@link ResponseEntity} with status {@code 200 (OK)} and with body the changes, with status
+     * {@code 400 (Bad Request)} if the cursor is invalid, or with status {@code 410 (Gone)} if it is too old: all the users
+     * have to be read again.
+     */
+    @GetMapping("/user-changes")
+    @PreAuthorize("hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")")
+    public ResponseEntity<UserChangesDTO> getUserChanges(
+        @RequestParam(required = false) String since,
+        @RequestParam(defaultValue = "100") int size
+    ) {
+        log.debug("REST request to get the changes of the Users since : {}", since);
+        return ResponseEntity.ok(userChangesService.getChanges(since, size));
     }
 
     /**
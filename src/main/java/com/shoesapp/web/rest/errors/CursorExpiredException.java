@@ -0,0 +1,13 @@
+package com.shoesapp.web.rest.errors;
+
+import org.zalando.problem.AbstractThrowableProblem;
+import org.zalando.problem.Status;
+
+public class CursorExpiredException extends AbstractThrowableProblem {
+
+    private static final long serialVersionUID = 1L;
+
+    public CursorExpiredException() {
+        super(ErrorConstants.CURSOR_EXPIRED_TYPE, "The changes since the cursor are not all known anymore", Status.GONE);
+    }
+}
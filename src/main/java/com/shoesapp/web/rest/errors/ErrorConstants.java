@@ -6,12 +6,24 @@ public final class ErrorConstants {
 
     public static final String ERR_CONCURRENCY_FAILURE = "error.concurrencyFailure";
     public static final String ERR_VALIDATION = "error.validation";
+    public static final String ERR_TOO_MANY_REQUESTS = "error.tooManyRequests";
+    public static final String ERR_DEADLINE_EXCEEDED = "error.deadlineExceeded";
+    public static final String ERR_OVERLOADED = "error.overloaded";
+    public static final String ERR_IDEMPOTENCY_KEY_REUSED = "error.idempotencyKeyReused";
+    public static final String ERR_IDEMPOTENCY_KEY_IN_PROGRESS = "error.idempotencyKeyInProgress";
     public static final String PROBLEM_BASE_URL = "https://www.jhipster.tech/problem";
     public static final URI DEFAULT_TYPE = URI.create(PROBLEM_BASE_URL + "/problem-with-message");
     public static final URI CONSTRAINT_VIOLATION_TYPE = URI.create(PROBLEM_BASE_URL + "/constraint-violation");
     public static final URI INVALID_PASSWORD_TYPE = URI.create(PROBLEM_BASE_URL + "/invalid-password");
     public static final URI EMAIL_ALREADY_USED_TYPE = URI.create(PROBLEM_BASE_URL + "/email-already-used");
     public static final URI LOGIN_ALREADY_USED_TYPE = URI.create(PROBLEM_BASE_URL + "/login-already-used");
+    public static final URI TOO_MANY_REQUESTS_TYPE = URI.create(PROBLEM_BASE_URL + "/too-many-requests");
+    public static final URI PRECONDITION_FAILED_TYPE = URI.create(PROBLEM_BASE_URL + "/precondition-failed");
+    public static final URI DEADLINE_EXCEEDED_TYPE = URI.create(PROBLEM_BASE_URL + "/deadline-exceeded");
+    public static final URI OVERLOADED_TYPE = URI.create(PROBLEM_BASE_URL + "/overloaded");
+    public static final URI IDEMPOTENCY_KEY_REUSED_TYPE = URI.create(PROBLEM_BASE_URL + "/idempotency-key-reused");
+    public static final URI IDEMPOTENCY_KEY_IN_PROGRESS_TYPE = URI.create(PROBLEM_BASE_URL + "/idempotency-key-in-progress");
+    public static final URI CURSOR_EXPIRED_TYPE = URI.create(PROBLEM_BASE_URL + "/cursor-expired");
 
     private ErrorConstants() {}
 }
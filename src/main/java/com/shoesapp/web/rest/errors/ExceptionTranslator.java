@@ -1,5 +1,7 @@
 package com.shoesapp.web.rest.errors;
 
+import com.shoesapp.service.DeadlineExceededException;
+import com.shoesapp.service.RequestDeadline;
 import java.net.URI;
 import java.util.Arrays;
 import java.util.Collection;
@@ -14,8 +16,10 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.core.env.Environment;
 import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.dao.DataAccessException;
+import org.springframework.dao.QueryTimeoutException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.http.converter.HttpMessageConversionException;
+import org.springframework.transaction.TransactionTimedOutException;
 import org.springframework.validation.BindingResult;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ControllerAdvice;
@@ -149,6 +153,24 @@ public class ExceptionTranslator implements ProblemHandling, SecurityAdviceTrait
         return create(new InvalidPasswordException(), request);
     }
 
+    @ExceptionHandler
+    public ResponseEntity<Problem> handleUserVersionMismatchException(
+        com.shoesapp.service.UserVersionMismatchException ex,
+        NativeWebRequest request
+    ) {
+        return create(new PreconditionFailedException(), request);
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<Problem> handleInvalidCursorException(com.shoesapp.service.InvalidCursorException ex, NativeWebRequest request) {
+        return handleBadRequestAlertException(new BadRequestAlertException(ex.getMessage(), "userManagement", "invalidcursor"), request);
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<Problem> handleCursorExpiredException(com.shoesapp.service.CursorExpiredException ex, NativeWebRequest request) {
+        return create(new CursorExpiredException(), request);
+    }
+
     @ExceptionHandler
     public ResponseEntity<Problem> handleBadRequestAlertException(BadRequestAlertException ex, NativeWebRequest request) {
         return create(
@@ -164,6 +186,38 @@ public class ExceptionTranslator implements ProblemHandling, SecurityAdviceTrait
         return create(ex, problem, request);
     }
 
+    @ExceptionHandler
+    public ResponseEntity<Problem> handleDeadlineExceeded(DeadlineExceededException ex, NativeWebRequest request) {
+        return create(ex, deadlineExceededProblem(), request);
+    }
+
+    @ExceptionHandler
+    public ResponseEntity<Problem> handleTransactionTimedOut(TransactionTimedOutException ex, NativeWebRequest request) {
+        return create(ex, deadlineExceededProblem(), request);
+    }
+
+    /**
+     * Past the deadline of the request, Hibernate fails the statements of its transaction with various exceptions.
+     */
+    @ExceptionHandler
+    public ResponseEntity<Problem> handleDataAccess(DataAccessException ex, NativeWebRequest request) {
+        if (ex instanceof QueryTimeoutException || RequestDeadline.isCurrentExpired()) {
+            return create(ex, deadlineExceededProblem(), request);
+        }
+        return create(ex, request);
+    }
+
+    private static Problem deadlineExceededProblem() {
+        return Problem
+            .builder()
+            .withType(ErrorConstants.DEADLINE_EXCEEDED_TYPE)
+            .withTitle("Deadline exceeded")
+            .withStatus(Status.SERVICE_UNAVAILABLE)
+            .withDetail("The request could not be completed in time")
+            .with(MESSAGE_KEY, ErrorConstants.ERR_DEADLINE_EXCEEDED)
+            .build();
+    }
+
     @Override
     public ProblemBuilder prepare(final Throwable throwable, final StatusType status, final URI type) {
         Collection<String> activeProfiles = Arrays.asList(env.getActiveProfiles());
@@ -0,0 +1,13 @@
+package com.shoesapp.web.rest.errors;
+
+import org.zalando.problem.AbstractThrowableProblem;
+import org.zalando.problem.Status;
+
+public class PreconditionFailedException extends AbstractThrowableProblem {
+
+    private static final long serialVersionUID = 1L;
+
+    public PreconditionFailedException() {
+        super(ErrorConstants.PRECONDITION_FAILED_TYPE, "The resource was modified since it was read", Status.PRECONDITION_FAILED);
+    }
+}
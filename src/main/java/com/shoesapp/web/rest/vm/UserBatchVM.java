@@ -0,0 +1,49 @@
+package com.shoesapp.web.rest.vm;
+
+import com.shoesapp.config.Constants;
+import java.util.ArrayList;
+import java.util.List;
+import javax.validation.constraints.NotNull;
+import javax.validation.constraints.Pattern;
+import javax.validation.constraints.Size;
+
+/**
+ * View Model object for resolving many users in one request, by login and by id.
+ */
+public class UserBatchVM {
+
+    public static final int MAX_SIZE = 100;
+
+    @NotNull
+    @Size(max = MAX_SIZE)
+    private List<@NotNull @Pattern(regexp = Constants.LOGIN_REGEX) @Size(min = 1, max = 50) String> logins = new ArrayList<>();
+
+    @NotNull
+    @Size(max = MAX_SIZE)
+    private List<@NotNull Long> ids = new ArrayList<>();
+
+    public List<String> getLogins() {
+        return logins;
+    }
+
+    public void setLogins(List<String> logins) {
+        this.logins = logins;
+    }
+
+    public List<Long> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<Long> ids) {
+        this.ids = ids;
+    }
+
+    // prettier-ignore
+    @Override
+    public String toString() {
+        return "UserBatchVM{" +
+            "logins=" + logins +
+            ", ids=" + ids +
+            "}";
+    }
+}
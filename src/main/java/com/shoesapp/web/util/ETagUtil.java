@@ -0,0 +1,85 @@
+package com.shoesapp.web.util;
+
+import com.shoesapp.web.rest.errors.PreconditionFailedException;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Function;
+import org.springframework.data.domain.Page;
+import org.springframework.http.CacheControl;
+import org.springframework.util.DigestUtils;
+
+/**
+ * Utility class for the ETags of the versioned resources.
+ * <p>
+ * The ETag of a user is its id and optimistic locking version, so that it changes with any update and differs between
+ * users sharing the same URL, like {@code /api/account}. The ETag of a page is a weak digest of its elements.
+ */
+public final class ETagUtil {
+
+    /**
+     * Lets clients keep the responses, as long as they revalidate them with {@code If-None-Match}.
+     */
+    public static final CacheControl REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private ETagUtil() {}
+
+    /**
+     * Get the ETag of a versioned entity.
+     *
+     * @param id the id of the entity.
+     * @param version the version of the entity.
+     * @return the strong ETag.
+     */
+    public static String forEntity(Long id, Long version) {
+        return "\"" + id + "-" + (version == null ? 0 : version) + "\"";
+    }
+
+    /**
+     * Get the ETag of a page.
+     *
+     * @param page the page.
+     * @param identity a string changing whenever an element is updated, such as its id and version.
+     * @param <T> the type of the elements.
+     * @return the weak ETag.
+     */
+    public static <T> String forPage(Page<T> page, Function<? super T, String> identity) {
+        StringBuilder content = new StringBuilder()
+            .append(page.getNumber())
+            .append('/')
+            .append(page.getSize())
+            .append('/')
+            .append(page.getTotalElements());
+        for (T element : page.getContent()) {
+            content.append(',').append(identity.apply(element));
+        }
+        return "W/\"" + DigestUtils.md5DigestAsHex(content.toString().getBytes(StandardCharsets.UTF_8)) + "\"";
+    }
+
+    /**
+     * Get the version required by an {@code If-Match} header.
+     *
+     * @param ifMatch the {@code If-Match} header, or {@code null}.
+     * @param id the id of the target entity, or {@code null} if unknown.
+     * @return the version, or {@code null} if any version matches.
+     * @throws PreconditionFailedException {@code 412 (Precondition Failed)} if the header cannot match the entity.
+     */
+    public static Long parseVersion(String ifMatch, Long id) {
+        if (ifMatch == null || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String etag = ifMatch.trim();
+        if (etag.length() < 2 || etag.charAt(0) != '"' || etag.charAt(etag.length() - 1) != '"') {
+            // weak ETags never match a strong comparison, lists of ETags are not supported
+            throw new PreconditionFailedException();
+        }
+        String value = etag.substring(1, etag.length() - 1);
+        int separator = value.lastIndexOf('-');
+        try {
+            if (separator < 0 || (id != null && Long.parseLong(value.substring(0, separator)) != id)) {
+                throw new PreconditionFailedException();
+            }
+            return Long.parseLong(value.substring(separator + 1));
+        } catch (NumberFormatException e) {
+            throw new PreconditionFailedException();
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.shoesapp.web.util;
+
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import java.util.Set;
+import org.springframework.http.converter.json.MappingJacksonValue;
+
+/**
+ * Utility class for the sparse fieldsets, the {@code fields} request parameter listing the properties to serialize.
+ * <p>
+ * The filtered DTOs get the {@link MixIn} annotation through the {@code ObjectMapper}, which serializes all their
+ * properties unless a response sets its own filter.
+ */
+public final class FieldsFilter {
+
+    public static final String ID = "fields";
+
+    /**
+     * Serializes all the properties, whenever the response does not filter them.
+     */
+    public static final FilterProvider SERIALIZE_ALL = new SimpleFilterProvider().setDefaultFilter(SimpleBeanPropertyFilter.serializeAll());
+
+    @JsonFilter(ID)
+    public interface MixIn {}
+
+    private FieldsFilter() {}
+
+    /**
+     * Wrap a response body so that only some properties of the filtered DTOs are serialized.
+     *
+     * @param body the response body.
+     * @param fields the names of the properties to serialize.
+     * @return the body to return.
+     */
+    public static MappingJacksonValue only(Object body, Set<String> fields) {
+        MappingJacksonValue value = new MappingJacksonValue(body);
+        value.setFilters(new SimpleFilterProvider().addFilter(ID, SimpleBeanPropertyFilter.filterOutAllExcept(fields)));
+        return value;
+    }
+}
@@ -0,0 +1,112 @@
+package com.shoesapp.aop.retry;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import com.shoesapp.config.ApplicationProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.dao.CannotAcquireLockException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+class RetryAspectTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final List<Long> sleeps = new ArrayList<>();
+
+    private final Writer target = new Writer();
+
+    /**
+     * The proxy of {@link #target}, which holds the state: a CGLIB proxy has fields of its own.
+     */
+    private Writer writer;
+
+    @BeforeEach
+    public void setup() {
+        ApplicationProperties.Retry properties = new ApplicationProperties.Retry();
+        properties.setMaxAttempts(3);
+        properties.setInitialBackoffInMillis(10);
+        properties.setMaxBackoffInMillis(15);
+        AspectJProxyFactory proxyFactory = new AspectJProxyFactory(target);
+        proxyFactory.addAspect(new RetryAspect(properties, meterRegistry, sleeps::add));
+        writer = proxyFactory.getProxy();
+    }
+
+    @Test
+    void testConcurrencyFailuresAreRetried() {
+        target.failures = 2;
+
+        assertThat(writer.write("secret")).isEqualTo("hash1");
+
+        assertThat(target.attempts).isEqualTo(3);
+        assertThat(sleeps).hasSize(2);
+        assertThat(sleeps.get(0)).isBetween(0L, TimeUnit.MILLISECONDS.toNanos(10));
+        assertThat(sleeps.get(1)).isBetween(0L, TimeUnit.MILLISECONDS.toNanos(15));
+        assertThat(count("retried")).isEqualTo(2);
+        assertThat(count("recovered")).isEqualTo(1);
+    }
+
+    @Test
+    void testAttemptsAreBounded() {
+        target.failures = 5;
+
+        assertThatThrownBy(() -> writer.write("secret")).isInstanceOf(CannotAcquireLockException.class);
+
+        assertThat(target.attempts).isEqualTo(3);
+        assertThat(count("exhausted")).isEqualTo(1);
+    }
+
+    @Test
+    void testOtherFailuresAreNotRetried() {
+        assertThatThrownBy(() -> writer.insert()).isInstanceOf(DataIntegrityViolationException.class);
+
+        assertThat(target.attempts).isEqualTo(1);
+        assertThat(sleeps).isEmpty();
+    }
+
+    @Test
+    void testValuesAreComputedOnce() {
+        target.failures = 2;
+
+        writer.write("secret");
+
+        assertThat(target.hashes).isEqualTo(1);
+        assertThat(RetryContext.once("password", () -> "outside")).isEqualTo("outside");
+    }
+
+    private double count(String outcome) {
+        return meterRegistry.get("service.retries").tag("outcome", outcome).counter().count();
+    }
+
+    static class Writer {
+
+        int failures;
+
+        int attempts;
+
+        int hashes;
+
+        @RetryOnConcurrencyFailure
+        public String write(String password) {
+            attempts++;
+            String hash = RetryContext.once("password", () -> "hash" + ++hashes);
+            if (attempts <= failures) {
+                throw attempts % 2 == 0 ? new OptimisticLockingFailureException("stale") : new CannotAcquireLockException("deadlock");
+            }
+            return hash;
+        }
+
+        @RetryOnConcurrencyFailure
+        public void insert() {
+            attempts++;
+            throw new DataIntegrityViolationException("duplicate");
+        }
+    }
+}
@@ -0,0 +1,316 @@
+package com.shoesapp.benchmark;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.shoesapp.ShoesAppBeApp;
+import com.shoesapp.config.dev.UserDatasetGenerator;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import javax.sql.DataSource;
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * End-to-end load test of the REST API: the embedded servlet container, the security filter chain, Jackson and JPA.
+ * <p>
+ * Workers drive a weighted mix of {@code /api/authenticate}, {@code /api/account}, {@code /api/users} and
+ * {@code /api/register} requests in a closed loop. Latencies are recorded in HdrHistograms, reported per operation with
+ * the throughput, and each p99 is compared with the baseline stored in {@code perf/load-test-baseline.properties}.
+ * <p>
+ * Only run by the "perf" Maven profile. It can be tuned with the {@code load.concurrency}, {@code load.warmup},
+ * {@code load.duration}, {@code load.users} and {@code load.mix} system properties.
+ */
+@SpringBootTest(classes = ShoesAppBeApp.class, webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles(BenchmarkApplication.PROFILE)
+class ApiLoadPerfTest {
+
+    private static final String BASELINE = "perf/load-test-baseline.properties";
+
+    private static final Path REPORT_DIRECTORY = Paths.get("target", "load-test");
+
+    private static final Pattern ID_TOKEN = Pattern.compile("\"id_token\"\\s*:\\s*\"([^\"]+)\"");
+
+    private static final long HIGHEST_TRACKABLE_MICROS = Duration.ofMinutes(1).toNanos() / 1000;
+
+    enum Operation {
+        AUTHENTICATE,
+        ACCOUNT,
+        USERS,
+        REGISTER,
+    }
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private DataSource dataSource;
+
+    private final int concurrency = Integer.getInteger("load.concurrency", 16);
+
+    private final Duration warmup = Duration.parse(System.getProperty("load.warmup", "PT10S"));
+
+    private final Duration duration = Duration.parse(System.getProperty("load.duration", "PT30S"));
+
+    private final int userCount = Integer.getInteger("load.users", 10_000);
+
+    private final Map<Operation, Integer> mix = parseMix(System.getProperty("load.mix", "authenticate:5,account:60,users:25,register:10"));
+
+    private final Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+
+    private final Map<Operation, AtomicLong> errors = new EnumMap<>(Operation.class);
+
+    private final AtomicLong registrations = new AtomicLong();
+
+    private HttpClient client;
+
+    @BeforeEach
+    void setup() throws Exception {
+        new UserDatasetGenerator(dataSource, 42).notActivatedRatio(0).generate(0, userCount);
+        client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).connectTimeout(Duration.ofSeconds(10)).build();
+        for (Operation operation : Operation.values()) {
+            recorders.put(operation, new Recorder(HIGHEST_TRACKABLE_MICROS, 3));
+            errors.put(operation, new AtomicLong());
+        }
+    }
+
+    @Test
+    void apiLatencyDoesNotRegressPastBaseline() throws Exception {
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency);
+        long end = System.nanoTime() + warmup.toNanos() + duration.toNanos();
+        List<Future<?>> futures = new ArrayList<>();
+        for (int worker = 0; worker < concurrency; worker++) {
+            int workerId = worker;
+            futures.add(workers.submit(() -> runWorker(workerId, end)));
+        }
+        Thread.sleep(warmup.toMillis());
+        recorders.values().forEach(Recorder::reset);
+        errors.values().forEach(counter -> counter.set(0));
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        workers.shutdown();
+
+        Map<Operation, Histogram> histograms = new EnumMap<>(Operation.class);
+        recorders.forEach((operation, recorder) -> histograms.put(operation, recorder.getIntervalHistogram()));
+        writeReport(histograms);
+
+        assertThat(checkAgainstBaseline(histograms)).isEmpty();
+    }
+
+    private Void runWorker(int workerId, long end) throws Exception {
+        SplittableRandom random = new SplittableRandom(workerId);
+        String token = authenticate(workerId % userCount);
+        int totalWeight = mix.values().stream().mapToInt(Integer::intValue).sum();
+        while (System.nanoTime() < end) {
+            Operation operation = pick(random.nextInt(totalWeight));
+            HttpRequest request = request(operation, token, random);
+            long start = System.nanoTime();
+            HttpResponse<Void> response = client.send(request, HttpResponse.BodyHandlers.discarding());
+            long latencyMicros = (System.nanoTime() - start) / 1000;
+            recorders.get(operation).recordValue(Math.min(latencyMicros, HIGHEST_TRACKABLE_MICROS));
+            if (response.statusCode() >= 400) {
+                errors.get(operation).incrementAndGet();
+            }
+        }
+        return null;
+    }
+
+    private Operation pick(int weight) {
+        int cumulated = 0;
+        for (Map.Entry<Operation, Integer> entry : mix.entrySet()) {
+            cumulated += entry.getValue();
+            if (weight < cumulated) {
+                return entry.getKey();
+            }
+        }
+        throw new IllegalStateException("Weight " + weight + " is out of the traffic mix");
+    }
+
+    private HttpRequest request(Operation operation, String token, SplittableRandom random) {
+        switch (operation) {
+            case AUTHENTICATE:
+                return post("/api/authenticate", loginBody(random.nextInt(userCount))).build();
+            case ACCOUNT:
+                return get("/api/account").header("Authorization", "Bearer " + token).build();
+            case USERS:
+                return get("/api/users?size=20&page=" + random.nextInt(Math.max(userCount / 20, 1)))
+                    .header("Authorization", "Bearer " + token)
+                    .build();
+            case REGISTER:
+                long n = registrations.incrementAndGet();
+                String body = String.format(
+                    "{\"login\":\"load%d\",\"email\":\"load%d@example.com\",\"password\":\"password\",\"langKey\":\"en\",\"phoneNumber\":\"0900000000\"}",
+                    n,
+                    n
+                );
+                return post("/api/register", body).build();
+            default:
+                throw new IllegalArgumentException("Unknown operation " + operation);
+        }
+    }
+
+    private String authenticate(int n) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(
+            post("/api/authenticate", loginBody(n)).build(),
+            HttpResponse.BodyHandlers.ofString()
+        );
+        Matcher matcher = ID_TOKEN.matcher(response.body());
+        if (response.statusCode() != 200 || !matcher.find()) {
+            throw new IllegalStateException("Could not authenticate " + UserDatasetGenerator.login(n) + ": " + response.statusCode());
+        }
+        return matcher.group(1);
+    }
+
+    private static String loginBody(long n) {
+        return "{\"username\":\"" + UserDatasetGenerator.login(n) + "\",\"password\":\"user\"}";
+    }
+
+    private HttpRequest.Builder get(String path) {
+        return HttpRequest.newBuilder(URI.create("http://localhost:" + port + path)).timeout(Duration.ofSeconds(30)).GET();
+    }
+
+    private HttpRequest.Builder post(String path, String body) {
+        return HttpRequest
+            .newBuilder(URI.create("http://localhost:" + port + path))
+            .timeout(Duration.ofSeconds(30))
+            .header("Content-Type", "application/json")
+            .POST(HttpRequest.BodyPublishers.ofString(body, StandardCharsets.UTF_8));
+    }
+
+    private void writeReport(Map<Operation, Histogram> histograms) throws IOException {
+        Files.createDirectories(REPORT_DIRECTORY);
+        double seconds = duration.toMillis() / 1000.0;
+        StringBuilder report = new StringBuilder();
+        report.append(
+            String.format(
+                "Load test: %d workers, %s measured after %s of warmup, %d users%n",
+                concurrency,
+                duration,
+                warmup,
+                userCount
+            )
+        );
+        report.append(
+            String.format(
+                "%-14s %10s %10s %10s %10s %10s %10s %10s %8s%n",
+                "operation",
+                "count",
+                "req/s",
+                "p50 ms",
+                "p90 ms",
+                "p99 ms",
+                "p99.9 ms",
+                "max ms",
+                "errors"
+            )
+        );
+        Histogram total = new Histogram(HIGHEST_TRACKABLE_MICROS, 3);
+        for (Map.Entry<Operation, Histogram> entry : histograms.entrySet()) {
+            Histogram histogram = entry.getValue();
+            total.add(histogram);
+            appendLine(report, entry.getKey().name().toLowerCase(), histogram, seconds, errors.get(entry.getKey()).get());
+            try (OutputStream out = Files.newOutputStream(REPORT_DIRECTORY.resolve(entry.getKey().name().toLowerCase() + ".hgrm"))) {
+                histogram.outputPercentileDistribution(new PrintStream(out, true, StandardCharsets.UTF_8), 1000.0);
+            }
+        }
+        long totalErrors = errors.values().stream().mapToLong(AtomicLong::get).sum();
+        appendLine(report, "total", total, seconds, totalErrors);
+        System.out.print(report);
+        Files.writeString(REPORT_DIRECTORY.resolve("report.txt"), report);
+
+        Properties measured = new Properties();
+        histograms.forEach((operation, histogram) ->
+            measured.setProperty(operation.name().toLowerCase() + ".p99-millis", millis(histogram.getValueAtPercentile(99)))
+        );
+        try (OutputStream out = Files.newOutputStream(REPORT_DIRECTORY.resolve("measured-baseline.properties"))) {
+            measured.store(out, "Copy to src/test/resources/" + BASELINE + " to accept these results as the new baseline");
+        }
+    }
+
+    private static void appendLine(StringBuilder report, String name, Histogram histogram, double seconds, long errorCount) {
+        report.append(
+            String.format(
+                "%-14s %10d %10.1f %10s %10s %10s %10s %10s %8d%n",
+                name,
+                histogram.getTotalCount(),
+                histogram.getTotalCount() / seconds,
+                millis(histogram.getValueAtPercentile(50)),
+                millis(histogram.getValueAtPercentile(90)),
+                millis(histogram.getValueAtPercentile(99)),
+                millis(histogram.getValueAtPercentile(99.9)),
+                millis(histogram.getMaxValue()),
+                errorCount
+            )
+        );
+    }
+
+    private List<String> checkAgainstBaseline(Map<Operation, Histogram> histograms) throws IOException {
+        Properties baseline = new Properties();
+        try (InputStream in = getClass().getClassLoader().getResourceAsStream(BASELINE)) {
+            assertThat(in).as("baseline %s", BASELINE).isNotNull();
+            baseline.load(in);
+        }
+        double tolerance = Double.parseDouble(baseline.getProperty("tolerance", "0.25"));
+        double maxErrorRate = Double.parseDouble(baseline.getProperty("max-error-rate", "0.01"));
+        List<String> regressions = new ArrayList<>();
+        for (Map.Entry<Operation, Histogram> entry : histograms.entrySet()) {
+            String name = entry.getKey().name().toLowerCase();
+            Histogram histogram = entry.getValue();
+            if (histogram.getTotalCount() == 0) {
+                continue;
+            }
+            String expected = baseline.getProperty(name + ".p99-millis");
+            double p99 = histogram.getValueAtPercentile(99) / 1000.0;
+            if (expected != null && p99 > Double.parseDouble(expected) * (1 + tolerance)) {
+                regressions.add(String.format("%s p99 is %.2f ms, baseline is %s ms (+%.0f%% allowed)", name, p99, expected, tolerance * 100));
+            }
+            double errorRate = (double) errors.get(entry.getKey()).get() / histogram.getTotalCount();
+            if (errorRate > maxErrorRate) {
+                regressions.add(String.format("%s error rate is %.2f%%", name, errorRate * 100));
+            }
+        }
+        return regressions;
+    }
+
+    private static String millis(long micros) {
+        return String.format("%.2f", micros / 1000.0);
+    }
+
+    private static Map<Operation, Integer> parseMix(String mix) {
+        Map<Operation, Integer> weights = new EnumMap<>(Operation.class);
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.trim().split(":");
+            weights.put(Operation.valueOf(parts[0].trim().toUpperCase()), Integer.parseInt(parts[1].trim()));
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,145 @@
+package com.shoesapp.benchmark;
+
+import com.shoesapp.security.AuthoritiesConstants;
+import com.shoesapp.security.CompiledPreInvocationAuthorizationAdvice;
+import com.shoesapp.security.CompilingPrePostInvocationAttributeFactory;
+import com.shoesapp.security.SecurityUtils;
+import com.shoesapp.security.jwt.TokenProvider;
+import io.jsonwebtoken.Claims;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.aopalliance.intercept.MethodInvocation;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
+import org.springframework.security.access.expression.method.ExpressionBasedAnnotationAttributeFactory;
+import org.springframework.security.access.expression.method.ExpressionBasedPreInvocationAdvice;
+import org.springframework.security.access.prepost.PreInvocationAttribute;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+import org.springframework.security.util.SimpleMethodInvocation;
+import tech.jhipster.config.JHipsterProperties;
+
+/**
+ * Cost of building the authentication of an already parsed JWT token and checking two authorities against it, as done
+ * for every authenticated request.
+ * <p>
+ * {@code legacy} rebuilds the authorities from the {@code auth} claim and streams them for each check, {@code interned}
+ * shares the canonical authorities of the {@code AuthorityRegistry} and tests their bits. Run with the perf profile,
+ * {@code gc.alloc.rate.norm} gives the bytes allocated per request.
+ * <p>
+ * {@code preAuthorizeSpel} and {@code preAuthorizeCompiled} measure the {@code @PreAuthorize} check of the admin
+ * endpoints of {@code UserResource}, evaluated with SpEL or compiled into an authority check.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AuthorizationBenchmark {
+
+    private static final String TOKEN = "token";
+
+    private TokenProvider tokenProvider;
+
+    private static final String PRE_AUTHORIZE = "hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")";
+
+    private Claims claims;
+
+    private MethodInvocation invocation;
+
+    private Authentication legacyAuthentication;
+
+    private Authentication internedAuthentication;
+
+    private ExpressionBasedPreInvocationAdvice expressionAdvice;
+
+    private PreInvocationAttribute expressionAttribute;
+
+    private CompiledPreInvocationAuthorizationAdvice compiledAdvice;
+
+    private PreInvocationAttribute compiledAttribute;
+
+    @Setup
+    public void setup() throws NoSuchMethodException {
+        JHipsterProperties jHipsterProperties = new JHipsterProperties();
+        jHipsterProperties
+            .getSecurity()
+            .getAuthentication()
+            .getJwt()
+            .setBase64Secret("fd54a45s65fds737b9aafcb3412e07ed99b267f33413274720ddbb7f6c5e64e9f14075f2d7ed041592f0b7657baf8");
+        tokenProvider = new TokenProvider(jHipsterProperties);
+        List<GrantedAuthority> authorities = Arrays.asList(
+            new SimpleGrantedAuthority(AuthoritiesConstants.ADMIN),
+            new SimpleGrantedAuthority(AuthoritiesConstants.USER)
+        );
+        String token = tokenProvider.createToken(new UsernamePasswordAuthenticationToken("admin", "admin", authorities), false);
+        claims = tokenProvider.parseClaims(token);
+        legacyAuthentication = new UsernamePasswordAuthenticationToken(new User("admin", "", authorities), TOKEN, authorities);
+        internedAuthentication = tokenProvider.getAuthentication(claims, TOKEN);
+
+        invocation = new SimpleMethodInvocation(this, AuthorizationBenchmark.class.getMethod("legacy"));
+        DefaultMethodSecurityExpressionHandler expressionHandler = new DefaultMethodSecurityExpressionHandler();
+        expressionAdvice = new ExpressionBasedPreInvocationAdvice();
+        expressionAdvice.setExpressionHandler(expressionHandler);
+        expressionAttribute =
+            new ExpressionBasedAnnotationAttributeFactory(expressionHandler).createPreInvocationAttribute(null, null, PRE_AUTHORIZE);
+        compiledAdvice = new CompiledPreInvocationAuthorizationAdvice(expressionHandler);
+        compiledAttribute =
+            new CompilingPrePostInvocationAttributeFactory(expressionHandler).createPreInvocationAttribute(null, null, PRE_AUTHORIZE);
+    }
+
+    @TearDown
+    public void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Benchmark
+    public boolean legacy() {
+        Collection<? extends GrantedAuthority> authorities = Arrays
+            .stream(claims.get("auth").toString().split(","))
+            .filter(auth -> !auth.trim().isEmpty())
+            .map(SimpleGrantedAuthority::new)
+            .collect(Collectors.toList());
+        User principal = new User(claims.getSubject(), "", authorities);
+        Authentication authentication = new UsernamePasswordAuthenticationToken(principal, TOKEN, authorities);
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+        return legacyHasAnyOfAuthorities(authentication, AuthoritiesConstants.ADMIN) && !legacyIsAnonymous(authentication);
+    }
+
+    @Benchmark
+    public boolean interned() {
+        Authentication authentication = tokenProvider.getAuthentication(claims, TOKEN);
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+        return SecurityUtils.hasCurrentUserAnyOfAuthorities(AuthoritiesConstants.ADMIN) && SecurityUtils.isAuthenticated();
+    }
+
+    @Benchmark
+    public boolean preAuthorizeSpel() {
+        return expressionAdvice.before(legacyAuthentication, invocation, expressionAttribute);
+    }
+
+    @Benchmark
+    public boolean preAuthorizeCompiled() {
+        return compiledAdvice.before(internedAuthentication, invocation, compiledAttribute);
+    }
+
+    private static boolean legacyHasAnyOfAuthorities(Authentication authentication, String... authorities) {
+        return authentication
+            .getAuthorities()
+            .stream()
+            .map(GrantedAuthority::getAuthority)
+            .anyMatch(authority -> Arrays.asList(authorities).contains(authority));
+    }
+
+    private static boolean legacyIsAnonymous(Authentication authentication) {
+        return authentication.getAuthorities().stream().map(GrantedAuthority::getAuthority).anyMatch(AuthoritiesConstants.ANONYMOUS::equals);
+    }
+}
@@ -0,0 +1,23 @@
+package com.shoesapp.benchmark;
+
+import com.shoesapp.ShoesAppBeApp;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Boots the application for the JMH benchmarks, with the "perf" Spring profile (embedded H2 in MySQL mode).
+ */
+final class BenchmarkApplication {
+
+    static final String PROFILE = "perf";
+
+    private BenchmarkApplication() {}
+
+    static ConfigurableApplicationContext start(String... properties) {
+        return new SpringApplicationBuilder(ShoesAppBeApp.class)
+            .profiles(PROFILE)
+            .properties("server.port=0")
+            .properties(properties)
+            .run();
+    }
+}
@@ -0,0 +1,135 @@
+package com.shoesapp.benchmark;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.shoesapp.config.JacksonConfiguration;
+import com.shoesapp.domain.enums.Gender;
+import com.shoesapp.security.AuthoritiesConstants;
+import com.shoesapp.service.dto.AdminUserDTO;
+import com.shoesapp.web.util.FieldsFilter;
+import java.io.IOException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Cost of encoding and decoding a page of {@code pageSize} users of {@code GET /api/admin/users} in JSON, CBOR and
+ * Smile, with an {@code ObjectMapper} configured like the ones of the HTTP message converters.
+ * <p>
+ * The size of the encoded page is printed for each format when the trial starts; {@code gc.alloc.rate.norm} gives the
+ * bytes allocated per page.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ContentNegotiationBenchmark {
+
+    @Param({ "json", "cbor", "smile" })
+    public String format;
+
+    @Param("1000")
+    public int pageSize;
+
+    private List<AdminUserDTO> page;
+
+    private ObjectWriter writer;
+
+    private ObjectReader reader;
+
+    private byte[] encoded;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        ObjectMapper mapper = mapper(factory(format));
+        writer = mapper.writerFor(new TypeReference<List<AdminUserDTO>>() {});
+        reader = mapper.readerFor(new TypeReference<List<AdminUserDTO>>() {});
+
+        page = users(pageSize, new SplittableRandom(42));
+        encoded = writer.writeValueAsBytes(page);
+        System.out.printf("%n%s page of %d users: %d bytes%n", format, pageSize, encoded.length);
+    }
+
+    @Benchmark
+    public byte[] serialize() throws IOException {
+        return writer.writeValueAsBytes(page);
+    }
+
+    @Benchmark
+    public List<AdminUserDTO> deserialize() throws IOException {
+        return reader.readValue(encoded);
+    }
+
+    private static JsonFactory factory(String format) {
+        switch (format) {
+            case "json":
+                return new JsonFactory();
+            case "cbor":
+                return new CBORFactory();
+            case "smile":
+                return new SmileFactory();
+            default:
+                throw new IllegalArgumentException("Unknown format " + format);
+        }
+    }
+
+    /**
+     * Same modules, filters and date format as the {@code ObjectMapper} built by Spring Boot.
+     */
+    private static ObjectMapper mapper(JsonFactory factory) {
+        JacksonConfiguration configuration = new JacksonConfiguration();
+        return Jackson2ObjectMapperBuilder
+            .json()
+            .factory(factory)
+            .modules(
+                configuration.javaTimeModule(),
+                configuration.jdk8TimeModule(),
+                configuration.fieldsFilterModule(),
+                configuration.blackbirdModule()
+            )
+            .filters(FieldsFilter.SERIALIZE_ALL)
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+    }
+
+    private static List<AdminUserDTO> users(int count, SplittableRandom random) {
+        Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        List<AdminUserDTO> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            AdminUserDTO user = new AdminUserDTO();
+            user.setId((long) i + 1);
+            user.setLogin("user-" + i);
+            user.setFirstName("First" + random.nextInt(10_000));
+            user.setLastName("Last" + random.nextInt(10_000));
+            user.setEmail("user-" + i + "@example.com");
+            user.setImageUrl("https://cdn.example.com/avatars/" + i + ".png");
+            user.setActivated(random.nextInt(10) > 0);
+            user.setLangKey(random.nextBoolean() ? "en" : "fr");
+            user.setCreatedBy("system");
+            user.setCreatedDate(now.minus(random.nextInt(1825), ChronoUnit.DAYS));
+            user.setLastModifiedBy("admin");
+            user.setLastModifiedDate(now.minus(random.nextInt(30), ChronoUnit.DAYS));
+            user.setPhoneNumber("+33" + (600_000_000 + random.nextInt(100_000_000)));
+            user.setGender(random.nextBoolean() ? Gender.MALE : Gender.FEMALE);
+            user.setAuthorities(
+                i % 100 == 0 ? Set.of(AuthoritiesConstants.USER, AuthoritiesConstants.ADMIN) : Set.of(AuthoritiesConstants.USER)
+            );
+            users.add(user);
+        }
+        return users;
+    }
+}
@@ -0,0 +1,111 @@
+package com.shoesapp.benchmark;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.shoesapp.config.JacksonConfiguration;
+import com.shoesapp.domain.Authority;
+import com.shoesapp.domain.User;
+import com.shoesapp.domain.enums.Gender;
+import com.shoesapp.security.AuthoritiesConstants;
+import com.shoesapp.service.dto.AdminUserDTO;
+import com.shoesapp.web.util.FieldsFilter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+/**
+ * Cost of writing a page of {@code pageSize} users of {@code GET /api/admin/users} as JSON, from the loaded entities.
+ * <p>
+ * {@code list} maps the whole page to {@link AdminUserDTO} before writing it, as a list; {@code stream} creates each
+ * DTO when it is written, as the resource does. {@code blackbird} adds the {@code BlackbirdModule}, which accesses the
+ * properties with generated lambdas instead of reflection. Run with the perf profile, {@code gc.alloc.rate.norm} gives
+ * the bytes allocated per page.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 10, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PageSerializationBenchmark {
+
+    @Param({ "false", "true" })
+    public boolean blackbird;
+
+    @Param("1000")
+    public int pageSize;
+
+    private List<User> page;
+
+    private ObjectMapper mapper;
+
+    private final OutputStream out = OutputStream.nullOutputStream();
+
+    @Setup(Level.Trial)
+    public void setup() {
+        JacksonConfiguration configuration = new JacksonConfiguration();
+        Jackson2ObjectMapperBuilder builder = Jackson2ObjectMapperBuilder
+            .json()
+            .modules(configuration.javaTimeModule(), configuration.jdk8TimeModule(), configuration.fieldsFilterModule())
+            .filters(FieldsFilter.SERIALIZE_ALL)
+            // written again and again to the same stream
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        if (blackbird) {
+            builder.modulesToInstall(configuration.blackbirdModule());
+        }
+        mapper = builder.build();
+        page = users(pageSize, new SplittableRandom(42));
+    }
+
+    @Benchmark
+    public void list() throws IOException {
+        List<AdminUserDTO> content = page.stream().map(AdminUserDTO::new).collect(Collectors.toList());
+        mapper.writeValue(out, content);
+    }
+
+    @Benchmark
+    public void stream() throws IOException {
+        mapper.writeValue(out, page.stream().map(AdminUserDTO::new));
+    }
+
+    private static List<User> users(int count, SplittableRandom random) {
+        Authority userAuthority = new Authority();
+        userAuthority.setName(AuthoritiesConstants.USER);
+        Authority adminAuthority = new Authority();
+        adminAuthority.setName(AuthoritiesConstants.ADMIN);
+
+        Instant now = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        List<User> users = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            User user = new User();
+            user.setId((long) i + 1);
+            user.setVersion((long) random.nextInt(5));
+            user.setLogin("user-" + i);
+            user.setFirstName("First" + random.nextInt(10_000));
+            user.setLastName("Last" + random.nextInt(10_000));
+            user.setEmail("user-" + i + "@example.com");
+            user.setImageUrl("https://cdn.example.com/avatars/" + i + ".png");
+            user.setActivated(random.nextInt(10) > 0);
+            user.setLangKey(random.nextBoolean() ? "en" : "fr");
+            user.setCreatedBy("system");
+            user.setCreatedDate(now.minus(random.nextInt(1825), ChronoUnit.DAYS));
+            user.setLastModifiedBy("admin");
+            user.setLastModifiedDate(now.minus(random.nextInt(30), ChronoUnit.DAYS));
+            user.setPhoneNumber("+33" + (600_000_000 + random.nextInt(100_000_000)));
+            user.setGender(random.nextBoolean() ? Gender.MALE : Gender.FEMALE);
+            user.setAuthorities(i % 100 == 0 ? Set.of(userAuthority, adminAuthority) : Set.of(userAuthority));
+            users.add(user);
+        }
+        return users;
+    }
+}
@@ -0,0 +1,113 @@
+package com.shoesapp.benchmark;
+
+import com.shoesapp.config.dev.UserDatasetGenerator;
+import com.shoesapp.domain.User;
+import com.shoesapp.repository.UserRepository;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Cost of the dirty checking of the {@link User} entities at flush.
+ * <p>
+ * Both benchmarks load {@code loadedUsers} users in a read-write transaction; {@code loadAndFlushOneChange} then changes
+ * the first name of one of them and flushes, so the difference between the two is the cost of the flush. Their
+ * {@code gc.alloc.rate.norm} divided by {@code loadedUsers} approximates the memory held per managed entity.
+ * <p>
+ * Compare a build with the Hibernate bytecode enhancement with one without it, see the "Benchmarks" section of the README.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserFlushBenchmark {
+
+    @Param("100000")
+    public int userCount;
+
+    @Param("50")
+    public int loadedUsers;
+
+    private ConfigurableApplicationContext context;
+
+    private UserRepository userRepository;
+
+    private TransactionTemplate transaction;
+
+    private List<Long> ids;
+
+    @Setup(Level.Trial)
+    public void setup() throws SQLException {
+        context = BenchmarkApplication.start();
+        userRepository = context.getBean(UserRepository.class);
+        transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+
+        DataSource dataSource = context.getBean(DataSource.class);
+        new UserDatasetGenerator(dataSource, 42).generate(0, userCount);
+
+        ids = new ArrayList<>(userCount);
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            try (ResultSet resultSet = statement.executeQuery("select id from jhi_user order by id")) {
+                while (resultSet.next()) {
+                    ids.add(resultSet.getLong(1));
+                }
+            }
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+
+        private final SplittableRandom random = new SplittableRandom();
+
+        List<Long> nextIds(List<Long> ids, int size) {
+            int from = random.nextInt(Math.max(ids.size() - size, 1));
+            return ids.subList(from, Math.min(from + size, ids.size()));
+        }
+
+        int nextIndex(int size) {
+            return random.nextInt(size);
+        }
+    }
+
+    @Benchmark
+    public int load(Cursor cursor) {
+        List<Long> page = cursor.nextIds(ids, loadedUsers);
+        return transaction.execute(status -> {
+            List<User> users = userRepository.findAllById(page);
+            status.setRollbackOnly();
+            return users.size();
+        });
+    }
+
+    @Benchmark
+    public int loadAndFlushOneChange(Cursor cursor) {
+        List<Long> page = cursor.nextIds(ids, loadedUsers);
+        return transaction.execute(status -> {
+            List<User> users = userRepository.findAllById(page);
+            User user = users.get(cursor.nextIndex(users.size()));
+            user.setFirstName(user.getFirstName() == null ? "flushed" : null);
+            userRepository.flush();
+            // the update is measured, not kept
+            status.setRollbackOnly();
+            return users.size();
+        });
+    }
+}
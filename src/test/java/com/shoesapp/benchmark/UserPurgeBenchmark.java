@@ -0,0 +1,63 @@
+package com.shoesapp.benchmark;
+
+import com.shoesapp.config.dev.UserDatasetGenerator;
+import com.shoesapp.service.UserService;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+
+/**
+ * Cost of {@link UserService#removeNotActivatedUsers()} purging {@code expiredCount} stale registrations
+ * out of a table holding {@code userCount} users.
+ * <p>
+ * Every invocation starts from freshly inserted stale registrations, hence the single shot mode.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 20)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserPurgeBenchmark {
+
+    @Param("100000")
+    public int userCount;
+
+    @Param("1000")
+    public int expiredCount;
+
+    private ConfigurableApplicationContext context;
+
+    private UserService userService;
+
+    private UserDatasetGenerator generator;
+
+    private long nextIndex;
+
+    @Setup(Level.Trial)
+    public void setup() throws SQLException {
+        context = BenchmarkApplication.start();
+        userService = context.getBean(UserService.class);
+        generator = new UserDatasetGenerator(context.getBean(DataSource.class), 42).notActivatedRatio(0);
+        generator.generate(0, userCount);
+        nextIndex = userCount;
+    }
+
+    @Setup(Level.Invocation)
+    public void insertExpiredRegistrations() throws SQLException {
+        generator.generateExpiredRegistrations(nextIndex, expiredCount);
+        nextIndex += expiredCount;
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public void removeNotActivatedUsers() {
+        userService.removeNotActivatedUsers();
+    }
+}
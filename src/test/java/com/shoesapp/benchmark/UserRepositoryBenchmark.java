@@ -0,0 +1,116 @@
+package com.shoesapp.benchmark;
+
+import com.shoesapp.config.dev.UserDatasetGenerator;
+import com.shoesapp.domain.User;
+import com.shoesapp.repository.UserRepository;
+import com.shoesapp.service.UserService;
+import com.shoesapp.service.dto.AdminUserDTO;
+import com.shoesapp.service.dto.UserDTO;
+import java.sql.SQLException;
+import java.util.Optional;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+import javax.sql.DataSource;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Latency and allocation of the {@link UserRepository} lookups and paged listings against a generated dataset.
+ * <p>
+ * Runs in {@link Mode#SampleTime} so that JMH reports latency percentiles; the "perf" Maven profile adds the
+ * GC profiler, which reports the allocation per operation as {@code gc.alloc.rate.norm}.
+ * The dataset size can be changed with {@code -Djmh.args="-p userCount=1000000"}.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 10)
+@Fork(1)
+@State(Scope.Benchmark)
+public class UserRepositoryBenchmark {
+
+    private static final int SAMPLE_SIZE = 10_000;
+
+    private static final int PAGE_SIZE = 20;
+
+    @Param("100000")
+    public int userCount;
+
+    private ConfigurableApplicationContext context;
+
+    private UserRepository userRepository;
+
+    private UserService userService;
+
+    private TransactionTemplate readOnlyTransaction;
+
+    private String[] logins;
+
+    private String[] emails;
+
+    @Setup(Level.Trial)
+    public void setup() throws SQLException {
+        context = BenchmarkApplication.start();
+        userRepository = context.getBean(UserRepository.class);
+        userService = context.getBean(UserService.class);
+        readOnlyTransaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+        readOnlyTransaction.setReadOnly(true);
+
+        new UserDatasetGenerator(context.getBean(DataSource.class), 42).generate(0, userCount);
+
+        SplittableRandom random = new SplittableRandom(7);
+        logins = new String[SAMPLE_SIZE];
+        emails = new String[SAMPLE_SIZE];
+        for (int i = 0; i < SAMPLE_SIZE; i++) {
+            int n = random.nextInt(userCount);
+            logins[i] = UserDatasetGenerator.login(n);
+            emails[i] = UserDatasetGenerator.email(n).toUpperCase();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @State(Scope.Thread)
+    public static class Cursor {
+
+        private final SplittableRandom random = new SplittableRandom();
+
+        int nextSample() {
+            return random.nextInt(SAMPLE_SIZE);
+        }
+
+        int nextPage(int userCount) {
+            return random.nextInt(Math.max(userCount / PAGE_SIZE, 1));
+        }
+    }
+
+    @Benchmark
+    public Optional<User> findOneWithAuthoritiesByLogin(Cursor cursor) {
+        String login = logins[cursor.nextSample()];
+        return readOnlyTransaction.execute(status -> userRepository.findOneWithAuthoritiesByLogin(login));
+    }
+
+    @Benchmark
+    public Optional<User> findOneByEmailIgnoreCase(Cursor cursor) {
+        String email = emails[cursor.nextSample()];
+        return readOnlyTransaction.execute(status -> userRepository.findOneByEmailIgnoreCase(email));
+    }
+
+    @Benchmark
+    public Page<AdminUserDTO> getAllManagedUsers(Cursor cursor) {
+        return userService.getAllManagedUsers(PageRequest.of(cursor.nextPage(userCount), PAGE_SIZE, Sort.by("id")));
+    }
+
+    @Benchmark
+    public Page<UserDTO> getAllPublicUsers(Cursor cursor) {
+        return userService.getAllPublicUsers(PageRequest.of(cursor.nextPage(userCount), PAGE_SIZE, Sort.by("id")));
+    }
+}
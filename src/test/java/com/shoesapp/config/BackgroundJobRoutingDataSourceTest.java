@@ -0,0 +1,29 @@
+package com.shoesapp.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import com.shoesapp.aop.background.BackgroundJobContext;
+import com.shoesapp.config.BackgroundJobRoutingDataSource.Route;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.Test;
+
+class BackgroundJobRoutingDataSourceTest {
+
+    private final BackgroundJobRoutingDataSource dataSource = new BackgroundJobRoutingDataSource(
+        mock(DataSource.class),
+        mock(DataSource.class)
+    );
+
+    @Test
+    void testRequestsUseInteractivePool() {
+        assertThat(dataSource.determineCurrentLookupKey()).isEqualTo(Route.INTERACTIVE);
+    }
+
+    @Test
+    void testBackgroundJobsUseBackgroundPool() throws Exception {
+        Route route = BackgroundJobContext.run(() -> BackgroundJobContext.run(dataSource::determineCurrentLookupKey));
+        assertThat(route).isEqualTo(Route.BACKGROUND);
+        assertThat(dataSource.determineCurrentLookupKey()).isEqualTo(Route.INTERACTIVE);
+    }
+}
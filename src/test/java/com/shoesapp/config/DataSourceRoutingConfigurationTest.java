@@ -0,0 +1,74 @@
+package com.shoesapp.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.sql.Connection;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.actuate.autoconfigure.metrics.MetricsAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.export.simple.SimpleMetricsExportAutoConfiguration;
+import org.springframework.boot.actuate.autoconfigure.metrics.jdbc.DataSourcePoolMetricsAutoConfiguration;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceAutoConfiguration;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.context.annotation.Configuration;
+
+class DataSourceRoutingConfigurationTest {
+
+    private final ApplicationContextRunner contextRunner = new ApplicationContextRunner()
+        .withConfiguration(
+            AutoConfigurations.of(
+                DataSourceAutoConfiguration.class,
+                MetricsAutoConfiguration.class,
+                SimpleMetricsExportAutoConfiguration.class,
+                DataSourcePoolMetricsAutoConfiguration.class
+            )
+        )
+        .withUserConfiguration(ApplicationPropertiesConfiguration.class, DataSourceRoutingConfiguration.class)
+        .withPropertyValues(
+            "spring.datasource.url=jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1",
+            "spring.datasource.hikari.maximum-pool-size=5",
+            "application.replica.url=jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1",
+            "application.replica.maximum-pool-size=3",
+            "application.background-pool.enabled=true",
+            "application.background-pool.maximum-pool-size=2"
+        );
+
+    @Test
+    void testEachPoolHasItsOwnMetrics() {
+        contextRunner.run(context -> {
+            MeterRegistry meterRegistry = context.getBean(MeterRegistry.class);
+            for (String pool : new String[] { "primary", "replica", "background" }) {
+                HikariDataSource dataSource = context.getBean(pool + "DataSource", HikariDataSource.class);
+                try (Connection connection = dataSource.getConnection()) {
+                    assertThat(connection.isValid(1)).isTrue();
+                }
+                assertThat(meterRegistry.get("hikaricp.connections.pending").tag("pool", "Hikari-" + pool).gauge()).isNotNull();
+                assertThat(meterRegistry.get("hikaricp.connections.acquire").tag("pool", "Hikari-" + pool).timer().count()).isPositive();
+            }
+        });
+    }
+
+    @Test
+    void testPoolsShareThePrimarySettings() {
+        contextRunner.run(context -> {
+            HikariDataSource primary = context.getBean("primaryDataSource", HikariDataSource.class);
+            HikariDataSource replica = context.getBean("replicaDataSource", HikariDataSource.class);
+            HikariDataSource background = context.getBean("backgroundDataSource", HikariDataSource.class);
+
+            assertThat(primary.getMaximumPoolSize()).isEqualTo(5);
+            assertThat(replica.getJdbcUrl()).isEqualTo("jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1");
+            assertThat(replica.getMaximumPoolSize()).isEqualTo(3);
+            assertThat(replica.isReadOnly()).isTrue();
+            assertThat(background.getJdbcUrl()).isEqualTo(primary.getJdbcUrl());
+            assertThat(background.getMaximumPoolSize()).isEqualTo(2);
+            assertThat(background.getConnectionTimeout()).isEqualTo(primary.getConnectionTimeout());
+        });
+    }
+
+    @Configuration
+    @EnableConfigurationProperties(ApplicationProperties.class)
+    static class ApplicationPropertiesConfiguration {}
+}
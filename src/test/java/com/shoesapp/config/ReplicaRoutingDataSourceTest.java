@@ -0,0 +1,141 @@
+package com.shoesapp.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import com.shoesapp.config.ReplicaRoutingDataSource.Route;
+import com.shoesapp.security.AuthoritiesConstants;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class ReplicaRoutingDataSourceTest {
+
+    private final AtomicLong ticker = new AtomicLong();
+
+    private ReplicaRoutingDataSource dataSource;
+
+    @BeforeEach
+    void setup() {
+        ApplicationProperties.Replica properties = new ApplicationProperties.Replica();
+        properties.setReadYourWritesWindowInSeconds(5);
+        properties.setMaxRecentWriters(2);
+        dataSource = new ReplicaRoutingDataSource(mock(DataSource.class), mock(DataSource.class), properties, ticker::get);
+    }
+
+    @AfterEach
+    void cleanup() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void testReadOnlyTransactionUsesReplica() {
+        login("user");
+        beginTransaction(true);
+        assertThat(dataSource.determineCurrentLookupKey()).isEqualTo(Route.REPLICA);
+    }
+
+    @Test
+    void testReadWriteTransactionUsesPrimary() {
+        login("user");
+        beginTransaction(false);
+        assertThat(dataSource.determineCurrentLookupKey()).isEqualTo(Route.PRIMARY);
+    }
+
+    @Test
+    void testNoTransactionUsesPrimary() {
+        assertThat(dataSource.determineCurrentLookupKey()).isEqualTo(Route.PRIMARY);
+    }
+
+    @Test
+    void testWriterReadsFromPrimaryDuringWindow() {
+        login("user");
+        beginTransaction(false);
+        dataSource.determineCurrentLookupKey();
+        commit();
+
+        ticker.addAndGet(TimeUnit.SECONDS.toNanos(4));
+        beginTransaction(true);
+        assertThat(dataSource.determineCurrentLookupKey()).isEqualTo(Route.PRIMARY);
+        commit();
+
+        login("other");
+        beginTransaction(true);
+        assertThat(dataSource.determineCurrentLookupKey()).isEqualTo(Route.REPLICA);
+        commit();
+
+        login("user");
+        ticker.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        beginTransaction(true);
+        assertThat(dataSource.determineCurrentLookupKey()).isEqualTo(Route.REPLICA);
+    }
+
+    @Test
+    void testWindowStartsAtTheEndOfTheTransaction() {
+        login("user");
+        beginTransaction(false);
+        dataSource.determineCurrentLookupKey();
+        ticker.addAndGet(TimeUnit.SECONDS.toNanos(10));
+        commit();
+
+        ticker.addAndGet(TimeUnit.SECONDS.toNanos(4));
+        beginTransaction(true);
+        assertThat(dataSource.determineCurrentLookupKey()).isEqualTo(Route.PRIMARY);
+    }
+
+    @Test
+    void testTooManyWritersUsePrimaryForEveryone() {
+        for (String writer : new String[] { "writer1", "writer2", "writer3" }) {
+            login(writer);
+            beginTransaction(false);
+            dataSource.determineCurrentLookupKey();
+            commit();
+        }
+
+        login("reader");
+        beginTransaction(true);
+        assertThat(dataSource.determineCurrentLookupKey()).isEqualTo(Route.PRIMARY);
+        commit();
+
+        ticker.addAndGet(TimeUnit.SECONDS.toNanos(6));
+        beginTransaction(true);
+        assertThat(dataSource.determineCurrentLookupKey()).isEqualTo(Route.REPLICA);
+    }
+
+    private static void login(String login) {
+        SecurityContextHolder
+            .getContext()
+            .setAuthentication(
+                new UsernamePasswordAuthenticationToken(login, login, List.of(new SimpleGrantedAuthority(AuthoritiesConstants.USER)))
+            );
+    }
+
+    private static void beginTransaction(boolean readOnly) {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(readOnly);
+    }
+
+    private static void commit() {
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+        TransactionSynchronizationManager.setCurrentTransactionReadOnly(false);
+    }
+}
@@ -0,0 +1,90 @@
+package com.shoesapp.config.dev;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.shoesapp.IntegrationTest;
+import com.shoesapp.domain.User;
+import com.shoesapp.repository.UserRepository;
+import com.shoesapp.security.AuthoritiesConstants;
+import java.sql.SQLException;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import javax.sql.DataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Integration tests for {@link UserDatasetGenerator}.
+ * <p>
+ * The generator commits on its own connection, so the generated users are deleted after each test.
+ */
+@IntegrationTest
+class UserDatasetGeneratorIT {
+
+    private static final String SYNTHETIC_LOGINS = "synth%";
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    public void cleanup() {
+        new TransactionTemplate(transactionManager)
+            .executeWithoutResult(status -> {
+                jdbcTemplate.update(
+                    "DELETE FROM jhi_user_authority WHERE user_id IN (SELECT id FROM jhi_user WHERE login LIKE ?)",
+                    SYNTHETIC_LOGINS
+                );
+                jdbcTemplate.update("DELETE FROM jhi_user WHERE login LIKE ?", SYNTHETIC_LOGINS);
+            });
+    }
+
+    @Test
+    void assertThatGeneratedUsersCanBeLoaded() throws SQLException {
+        long generated = new UserDatasetGenerator(dataSource, 1).adminRatio(1).notActivatedRatio(0).generate(0, 50);
+
+        assertThat(generated).isEqualTo(50);
+        User user = userRepository.findOneWithAuthoritiesByLogin(UserDatasetGenerator.login(49)).orElseThrow();
+        assertThat(user.getEmail()).isEqualTo(UserDatasetGenerator.email(49));
+        assertThat(user.isActivated()).isTrue();
+        assertThat(user.getPhoneNumber()).hasSize(11);
+        assertThat(user.getAuthorities()).extracting("name").containsOnly(AuthoritiesConstants.USER, AuthoritiesConstants.ADMIN);
+    }
+
+    @Test
+    void assertThatRepeatedGenerationsDoNotReuseLogins() throws SQLException {
+        UserDatasetGenerator generator = new UserDatasetGenerator(dataSource, 1);
+        generator.generate(100);
+        generator.generate(100);
+
+        Long count = jdbcTemplate.queryForObject(
+            "SELECT COUNT(DISTINCT login) FROM jhi_user WHERE login LIKE ?",
+            Long.class,
+            SYNTHETIC_LOGINS
+        );
+        assertThat(count).isEqualTo(200);
+    }
+
+    @Test
+    void assertThatExpiredRegistrationsAreEligibleForPurge() throws SQLException {
+        new UserDatasetGenerator(dataSource, 1).generateExpiredRegistrations(0, 10);
+
+        List<User> expired = userRepository.findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(
+            Instant.now().minus(3, ChronoUnit.DAYS)
+        );
+        assertThat(expired).hasSize(10);
+    }
+}
@@ -0,0 +1,104 @@
+package com.shoesapp.security;
+
+import static com.shoesapp.security.CompilingPrePostInvocationAttributeFactory.parseAuthorities;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collections;
+import java.util.List;
+import org.aopalliance.intercept.MethodInvocation;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
+import org.springframework.security.access.prepost.PreInvocationAttribute;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.util.SimpleMethodInvocation;
+
+/**
+ * Test class for the {@link CompilingPrePostInvocationAttributeFactory} and the
+ * {@link CompiledPreInvocationAuthorizationAdvice}.
+ */
+class CompilingPrePostInvocationAttributeFactoryTest {
+
+    private CompilingPrePostInvocationAttributeFactory attributeFactory;
+
+    private CompiledPreInvocationAuthorizationAdvice advice;
+
+    private MethodInvocation invocation;
+
+    @BeforeEach
+    public void setup() throws NoSuchMethodException {
+        DefaultMethodSecurityExpressionHandler expressionHandler = new DefaultMethodSecurityExpressionHandler();
+        attributeFactory = new CompilingPrePostInvocationAttributeFactory(expressionHandler);
+        advice = new CompiledPreInvocationAuthorizationAdvice(expressionHandler);
+        invocation = new SimpleMethodInvocation(this, Object.class.getMethod("toString"));
+    }
+
+    @Test
+    void testParseAuthorities() {
+        assertThat(parseAuthorities("hasAuthority(\"ROLE_ADMIN\")")).containsExactly("ROLE_ADMIN");
+        assertThat(parseAuthorities(" hasAuthority( 'ROLE_ADMIN' ) ")).containsExactly("ROLE_ADMIN");
+        assertThat(parseAuthorities("hasAnyAuthority('ROLE_ADMIN', \"ROLE_USER\")")).containsExactly("ROLE_ADMIN", "ROLE_USER");
+        assertThat(parseAuthorities("hasAuthority('ROLE_ADMIN', 'ROLE_USER')")).isNull();
+        assertThat(parseAuthorities("hasAuthority('ROLE_ADMIN') or isAnonymous()")).isNull();
+        assertThat(parseAuthorities("hasAuthority(#authority)")).isNull();
+        assertThat(parseAuthorities("hasAuthority('')")).isNull();
+        assertThat(parseAuthorities("hasRole('ADMIN')")).isNull();
+        assertThat(parseAuthorities(null)).isNull();
+    }
+
+    @Test
+    void testCompiledAuthorityCheck() {
+        PreInvocationAttribute attribute = attributeFactory.createPreInvocationAttribute(
+            null,
+            null,
+            "hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")"
+        );
+
+        assertThat(attribute).isInstanceOf(AuthorityPreInvocationAttribute.class);
+        assertThat(advice.before(authenticatedUser(AuthoritiesConstants.ADMIN), invocation, attribute)).isTrue();
+        assertThat(advice.before(authenticatedUser(AuthoritiesConstants.USER), invocation, attribute)).isFalse();
+        assertThat(advice.before(authentication(AuthoritiesConstants.ADMIN), invocation, attribute)).isTrue();
+        assertThat(advice.before(authentication(AuthoritiesConstants.USER), invocation, attribute)).isFalse();
+    }
+
+    @Test
+    void testComplexExpressionIsEvaluatedWithSpel() {
+        PreInvocationAttribute attribute = attributeFactory.createPreInvocationAttribute(
+            null,
+            null,
+            "hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\") and isAuthenticated()"
+        );
+
+        assertThat(attribute).isNotInstanceOf(AuthorityPreInvocationAttribute.class);
+        assertThat(advice.before(authenticatedUser(AuthoritiesConstants.ADMIN), invocation, attribute)).isTrue();
+        assertThat(advice.before(authentication(AuthoritiesConstants.USER), invocation, attribute)).isFalse();
+    }
+
+    @Test
+    void testPreFilterIsNotCompiled() {
+        PreInvocationAttribute attribute = attributeFactory.createPreInvocationAttribute(
+            "filterObject != null",
+            null,
+            "hasAuthority(\"" + AuthoritiesConstants.ADMIN + "\")"
+        );
+
+        assertThat(attribute).isNotInstanceOf(AuthorityPreInvocationAttribute.class);
+    }
+
+    private Authentication authenticatedUser(String authority) {
+        List<GrantedAuthority> authorities = Collections.singletonList(AuthorityRegistry.authority(authority));
+        AuthenticatedUser user = new AuthenticatedUser("user", authorities, AuthorityRegistry.bits(authorities));
+        return new UsernamePasswordAuthenticationToken(user, "token", authorities);
+    }
+
+    private Authentication authentication(String authority) {
+        return new UsernamePasswordAuthenticationToken(
+            "user",
+            "user",
+            Collections.singletonList(new SimpleGrantedAuthority(authority))
+        );
+    }
+}
@@ -42,6 +42,7 @@ class DomainUserDetailsServiceIT {
         userOne.setPassword(RandomStringUtils.random(60));
         userOne.setActivated(true);
         userOne.setEmail(USER_ONE_EMAIL);
+        userOne.setPhoneNumber("0600000000");
         userOne.setFirstName("userOne");
         userOne.setLastName("doe");
         userOne.setLangKey("en");
@@ -52,6 +53,7 @@ class DomainUserDetailsServiceIT {
         userTwo.setPassword(RandomStringUtils.random(60));
         userTwo.setActivated(true);
         userTwo.setEmail(USER_TWO_EMAIL);
+        userTwo.setPhoneNumber("0600000000");
         userTwo.setFirstName("userTwo");
         userTwo.setLastName("doe");
         userTwo.setLangKey("en");
@@ -62,6 +64,7 @@ class DomainUserDetailsServiceIT {
         userThree.setPassword(RandomStringUtils.random(60));
         userThree.setActivated(false);
         userThree.setEmail(USER_THREE_EMAIL);
+        userThree.setPhoneNumber("0600000000");
         userThree.setFirstName("userThree");
         userThree.setLastName("doe");
         userThree.setLangKey("en");
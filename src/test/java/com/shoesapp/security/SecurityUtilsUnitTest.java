@@ -4,6 +4,8 @@ import static org.assertj.core.api.Assertions.assertThat;
 
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
 import java.util.Optional;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -98,4 +100,38 @@ class SecurityUtilsUnitTest {
         assertThat(SecurityUtils.hasCurrentUserNoneOfAuthorities(AuthoritiesConstants.USER, AuthoritiesConstants.ADMIN)).isFalse();
         assertThat(SecurityUtils.hasCurrentUserNoneOfAuthorities(AuthoritiesConstants.ANONYMOUS, AuthoritiesConstants.ADMIN)).isTrue();
     }
+
+    @Test
+    void testHasAuthenticatedUserAnyOfAuthorities() {
+        SecurityContext securityContext = SecurityContextHolder.createEmptyContext();
+        List<GrantedAuthority> authorities = Collections.singletonList(AuthorityRegistry.authority(AuthoritiesConstants.USER));
+        AuthenticatedUser user = new AuthenticatedUser("user", authorities, AuthorityRegistry.bits(authorities));
+        securityContext.setAuthentication(new UsernamePasswordAuthenticationToken(user, "token", authorities));
+        SecurityContextHolder.setContext(securityContext);
+
+        assertThat(SecurityUtils.getCurrentUserLogin()).contains("user");
+        assertThat(SecurityUtils.isAuthenticated()).isTrue();
+        assertThat(SecurityUtils.hasCurrentUserAnyOfAuthorities(AuthoritiesConstants.USER, AuthoritiesConstants.ADMIN)).isTrue();
+        assertThat(SecurityUtils.hasCurrentUserAnyOfAuthorities(AuthoritiesConstants.ANONYMOUS, AuthoritiesConstants.ADMIN)).isFalse();
+        assertThat(SecurityUtils.hasCurrentUserAnyOfAuthorities("ROLE_UNKNOWN")).isFalse();
+    }
+
+    @Test
+    void testAnonymousAuthenticatedUserIsNotAuthenticated() {
+        SecurityContext securityContext = SecurityContextHolder.createEmptyContext();
+        List<GrantedAuthority> authorities = Collections.singletonList(AuthorityRegistry.authority(AuthoritiesConstants.ANONYMOUS));
+        AuthenticatedUser user = new AuthenticatedUser("anonymous", authorities, AuthorityRegistry.bits(authorities));
+        securityContext.setAuthentication(new UsernamePasswordAuthenticationToken(user, "token", authorities));
+        SecurityContextHolder.setContext(securityContext);
+
+        assertThat(SecurityUtils.isAuthenticated()).isFalse();
+    }
+
+    @Test
+    void testAuthorityRegistryReturnsCanonicalAuthorities() {
+        assertThat(AuthorityRegistry.authority(AuthoritiesConstants.ADMIN)).isSameAs(AuthorityRegistry.authority("ROLE_ADMIN"));
+        assertThat(AuthorityRegistry.bit(AuthoritiesConstants.ADMIN)).isNotEqualTo(AuthorityRegistry.bit(AuthoritiesConstants.USER));
+        assertThat(AuthorityRegistry.bits(AuthoritiesConstants.ADMIN, AuthoritiesConstants.USER))
+            .isEqualTo(AuthorityRegistry.bit(AuthoritiesConstants.ADMIN) | AuthorityRegistry.bit(AuthoritiesConstants.USER));
+    }
 }
@@ -2,13 +2,18 @@ package com.shoesapp.security.jwt;
 
 import static org.assertj.core.api.Assertions.assertThat;
 
+import com.shoesapp.domain.enums.Gender;
+import com.shoesapp.security.AuthenticatedUser;
 import com.shoesapp.security.AuthoritiesConstants;
+import com.shoesapp.security.ProfileUserDetails;
+import com.shoesapp.service.dto.AdminUserDTO;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.SignatureAlgorithm;
 import io.jsonwebtoken.io.Decoders;
 import io.jsonwebtoken.security.Keys;
 import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.time.Instant;
 import java.util.*;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -107,6 +112,48 @@ class TokenProviderTest {
         assertThat(key).isNotNull().isEqualTo(Keys.hmacShaKeyFor(Decoders.BASE64.decode(base64Secret)));
     }
 
+    @Test
+    void testProfileClaimsRoundTrip() {
+        AdminUserDTO profile = new AdminUserDTO();
+        profile.setId(42L);
+        profile.setLogin("john");
+        profile.setFirstName("John");
+        profile.setLastName("Doe");
+        profile.setEmail("john@localhost");
+        profile.setLangKey("en");
+        profile.setPhoneNumber("0600000000");
+        profile.setGender(Gender.MALE);
+        profile.setCreatedBy("system");
+        profile.setCreatedDate(Instant.ofEpochMilli(1_600_000_000_000L));
+        profile.setLastModifiedDate(Instant.ofEpochMilli(1_600_000_001_000L));
+        profile.setActivated(true);
+        profile.setAuthorities(Collections.singleton(AuthoritiesConstants.USER));
+        profile.setVersion(3L);
+        List<GrantedAuthority> authorities = Collections.singletonList(new SimpleGrantedAuthority(AuthoritiesConstants.USER));
+        ProfileUserDetails user = new ProfileUserDetails("john", "", authorities, profile, 3L);
+        String token = tokenProvider.createToken(new UsernamePasswordAuthenticationToken(user, null, authorities), false);
+
+        Authentication authentication = tokenProvider.getAuthentication(token);
+        AuthenticatedUser principal = (AuthenticatedUser) authentication.getPrincipal();
+
+        assertThat(ProfileClaims.getProfileVersion(principal.getClaims())).isEqualTo(3L);
+        AdminUserDTO fromToken = ProfileClaims.toProfile(principal.getUsername(), principal.getAuthorities(), principal.getClaims());
+        assertThat(fromToken).usingRecursiveComparison().isEqualTo(ProfileClaims.toAccount(profile));
+        assertThat(principal.getClaims()).doesNotContainKeys("phone_number", "gender", "created_at", "updated_at");
+        assertThat(fromToken.getPhoneNumber()).isNull();
+        assertThat(fromToken.getGender()).isNull();
+        assertThat(fromToken.getCreatedDate()).isNull();
+    }
+
+    @Test
+    void testNoProfileClaimsWithoutProfile() {
+        String token = tokenProvider.createToken(createAuthentication(), false);
+
+        AuthenticatedUser principal = (AuthenticatedUser) tokenProvider.getAuthentication(token).getPrincipal();
+
+        assertThat(ProfileClaims.getProfileVersion(principal.getClaims())).isNull();
+    }
+
     private Authentication createAuthentication() {
         Collection<GrantedAuthority> authorities = new ArrayList<>();
         authorities.add(new SimpleGrantedAuthority(AuthoritiesConstants.ANONYMOUS));
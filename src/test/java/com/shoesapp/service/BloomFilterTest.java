@@ -0,0 +1,52 @@
+package com.shoesapp.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the {@link BloomFilter} utility class.
+ */
+class BloomFilterTest {
+
+    @Test
+    void testNoFalseNegatives() {
+        BloomFilter bloomFilter = new BloomFilter(16 * 1024, 10_000);
+        for (int i = 0; i < 10_000; i++) {
+            bloomFilter.put("user" + i);
+        }
+
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(bloomFilter.mightContain("user" + i)).isTrue();
+        }
+        assertThat(bloomFilter.insertions()).isEqualTo(10_000);
+    }
+
+    @Test
+    void testFalsePositiveProbability() {
+        BloomFilter bloomFilter = new BloomFilter(16 * 1024, 10_000);
+        for (int i = 0; i < 10_000; i++) {
+            bloomFilter.put("user" + i);
+        }
+
+        int falsePositives = 0;
+        for (int i = 0; i < 100_000; i++) {
+            if (bloomFilter.mightContain("other" + i)) {
+                falsePositives++;
+            }
+        }
+        double expected = bloomFilter.expectedFalsePositiveProbability();
+        // 13 bits per entry give about 0.2% of false positives
+        assertThat(expected).isBetween(0.0005, 0.005);
+        assertThat(falsePositives / 100_000.0).isBetween(expected / 2, expected * 2);
+    }
+
+    @Test
+    void testEmptyFilter() {
+        BloomFilter bloomFilter = new BloomFilter(1024, 100);
+
+        assertThat(bloomFilter.mightContain("user")).isFalse();
+        assertThat(bloomFilter.expectedFalsePositiveProbability()).isZero();
+        assertThat(bloomFilter.sizeInBytes()).isEqualTo(1024);
+    }
+}
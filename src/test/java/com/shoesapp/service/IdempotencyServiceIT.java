@@ -0,0 +1,98 @@
+package com.shoesapp.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.shoesapp.IntegrationTest;
+import com.shoesapp.repository.IdempotencyRecordRepository;
+import com.shoesapp.service.IdempotencyService.Claim;
+import com.shoesapp.service.IdempotencyService.Outcome;
+import com.shoesapp.service.IdempotencyService.StoredResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Integration tests for {@link IdempotencyService}.
+ * <p>
+ * The claims are committed as soon as they are made, so the tests are not transactional.
+ */
+@IntegrationTest
+class IdempotencyServiceIT {
+
+    private static final byte[] REQUEST = "POST /api/register\n{\"login\":\"idempotent\"}".getBytes(StandardCharsets.UTF_8);
+
+    private static final StoredResponse RESPONSE = new StoredResponse(
+        201,
+        Map.of("Location", List.of("/api/admin/users/idempotent")),
+        "{}".getBytes(StandardCharsets.UTF_8)
+    );
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    private final String key = UUID.randomUUID().toString();
+
+    @AfterEach
+    public void cleanup() {
+        idempotencyRecordRepository.deleteAll();
+    }
+
+    @Test
+    void assertThatRetriesGetTheFirstResponse() {
+        Claim claim = idempotencyService.claim(key, "user", REQUEST);
+        assertThat(claim.getOutcome()).isEqualTo(Outcome.EXECUTE);
+        idempotencyService.complete(claim, RESPONSE);
+
+        Claim retry = idempotencyService.claim(key, "user", REQUEST);
+
+        assertThat(retry.getOutcome()).isEqualTo(Outcome.REPLAY);
+        assertThat(retry.getResponse().getStatus()).isEqualTo(201);
+        assertThat(retry.getResponse().getHeaders()).containsEntry("Location", List.of("/api/admin/users/idempotent"));
+        assertThat(retry.getResponse().getBody()).isEqualTo(RESPONSE.getBody());
+        assertThat(idempotencyRecordRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void assertThatKeysAreScopedByCaller() {
+        idempotencyService.complete(idempotencyService.claim(key, "user", REQUEST), RESPONSE);
+
+        assertThat(idempotencyService.claim(key, "other", REQUEST).getOutcome()).isEqualTo(Outcome.EXECUTE);
+    }
+
+    @Test
+    void assertThatKeyReusedForAnotherRequestIsRejected() {
+        idempotencyService.complete(idempotencyService.claim(key, "user", REQUEST), RESPONSE);
+
+        byte[] other = "POST /api/register\n{\"login\":\"other\"}".getBytes(StandardCharsets.UTF_8);
+        assertThat(idempotencyService.claim(key, "user", other).getOutcome()).isEqualTo(Outcome.MISMATCH);
+    }
+
+    @Test
+    void assertThatAbandonedRequestsCanBeExecutedAgain() {
+        idempotencyService.abandon(idempotencyService.claim(key, "user", REQUEST));
+
+        assertThat(idempotencyService.claim(key, "user", REQUEST).getOutcome()).isEqualTo(Outcome.EXECUTE);
+        assertThat(idempotencyRecordRepository.count()).isEqualTo(1);
+    }
+
+    @Test
+    void assertThatDuplicatesWaitForTheFirstExecution() throws Exception {
+        Claim claim = idempotencyService.claim(key, "user", REQUEST);
+
+        CompletableFuture<Claim> duplicate = CompletableFuture.supplyAsync(() -> idempotencyService.claim(key, "user", REQUEST));
+        Thread.sleep(100);
+        assertThat(duplicate).isNotDone();
+        idempotencyService.complete(claim, RESPONSE);
+
+        assertThat(duplicate.get(5, TimeUnit.SECONDS).getOutcome()).isEqualTo(Outcome.REPLAY);
+    }
+}
@@ -0,0 +1,106 @@
+package com.shoesapp.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the {@link SingleFlight}.
+ */
+class SingleFlightTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final SingleFlight<String, String> singleFlight = new SingleFlight<>("test", meterRegistry);
+
+    private final AtomicInteger lookups = new AtomicInteger();
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(2);
+
+    @AfterEach
+    public void cleanup() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void testConcurrentLookupsShareOneCall() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() ->
+            singleFlight.execute(
+                "user",
+                () -> {
+                    started.countDown();
+                    await(release);
+                    return "result" + lookups.incrementAndGet();
+                }
+            ),
+            executor
+        );
+        started.await(5, TimeUnit.SECONDS);
+
+        CompletableFuture<String> second = CompletableFuture.supplyAsync(() ->
+            singleFlight.execute("user", () -> "result" + lookups.incrementAndGet()),
+            executor
+        );
+        while (meterRegistry.get("service.single.flight.saved").counter().count() < 1) {
+            Thread.sleep(10);
+        }
+        release.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS)).isEqualTo("result1");
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("result1");
+        assertThat(lookups).hasValue(1);
+    }
+
+    @Test
+    void testSequentialLookupsAreNotShared() {
+        assertThat(singleFlight.execute("user", () -> "result" + lookups.incrementAndGet())).isEqualTo("result1");
+        assertThat(singleFlight.execute("user", () -> "result" + lookups.incrementAndGet())).isEqualTo("result2");
+        assertThat(meterRegistry.get("service.single.flight.saved").counter().count()).isZero();
+    }
+
+    @Test
+    void testFailuresAreSharedAndForgotten() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        CompletableFuture<String> first = CompletableFuture.supplyAsync(() ->
+            singleFlight.execute(
+                "user",
+                () -> {
+                    started.countDown();
+                    await(release);
+                    throw new IllegalStateException("database down");
+                }
+            ),
+            executor
+        );
+        started.await(5, TimeUnit.SECONDS);
+        CompletableFuture<String> second = CompletableFuture.supplyAsync(() -> singleFlight.execute("user", () -> "unexpected"), executor);
+        while (meterRegistry.get("service.single.flight.saved").counter().count() < 1) {
+            Thread.sleep(10);
+        }
+        release.countDown();
+
+        assertThatThrownBy(() -> second.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> first.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+        assertThat(singleFlight.execute("user", () -> "recovered")).isEqualTo("recovered");
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
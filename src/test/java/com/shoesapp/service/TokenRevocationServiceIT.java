@@ -0,0 +1,96 @@
+package com.shoesapp.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.shoesapp.IntegrationTest;
+import com.shoesapp.domain.TokenRevocation;
+import com.shoesapp.repository.TokenRevocationRepository;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Integration tests for {@link TokenRevocationService}.
+ * <p>
+ * The revocations are only mirrored in memory once committed, so the tests are not transactional.
+ */
+@IntegrationTest
+class TokenRevocationServiceIT {
+
+    private static final String LOGIN = "revoked-user";
+
+    @Autowired
+    private TokenRevocationRepository tokenRevocationRepository;
+
+    @Autowired
+    private TokenRevocationService tokenRevocationService;
+
+    @BeforeEach
+    public void init() {
+        tokenRevocationRepository.deleteAll();
+        tokenRevocationService.rebuild();
+    }
+
+    @AfterEach
+    public void cleanup() {
+        tokenRevocationRepository.deleteAll();
+        tokenRevocationService.rebuild();
+    }
+
+    @Test
+    void assertThatTokensIssuedBeforeRevocationAreRevoked() {
+        Instant issuedAt = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+
+        tokenRevocationService.revokeTokens(LOGIN);
+
+        assertThat(tokenRevocationService.isRevoked(LOGIN, issuedAt)).isTrue();
+        assertThat(tokenRevocationService.isRevoked(LOGIN, issuedAt.minus(1, ChronoUnit.HOURS))).isTrue();
+        assertThat(tokenRevocationService.isRevoked(LOGIN, null)).isTrue();
+        assertThat(tokenRevocationRepository.findById(LOGIN)).isPresent();
+    }
+
+    @Test
+    void assertThatTokensIssuedAfterRevocationAreAccepted() {
+        tokenRevocationService.revokeTokens(LOGIN);
+
+        assertThat(tokenRevocationService.isRevoked(LOGIN, Instant.now().plusSeconds(2))).isFalse();
+    }
+
+    @Test
+    void assertThatTokensIssuedInTheSecondOfTheRevocationAreAcceptedOnceItIsDone() {
+        tokenRevocationService.revokeTokens(LOGIN);
+        Instant issuedAt = Instant.now().truncatedTo(ChronoUnit.MILLIS).plusMillis(1);
+
+        assertThat(tokenRevocationService.isRevoked(LOGIN, issuedAt)).isFalse();
+        assertThat(tokenRevocationService.isRevoked(LOGIN, issuedAt.minusSeconds(1))).isTrue();
+    }
+
+    @Test
+    void assertThatOtherUsersAreNotRevoked() {
+        tokenRevocationService.revokeTokens(LOGIN);
+
+        assertThat(tokenRevocationService.isRevoked("other-user", Instant.now().minus(1, ChronoUnit.HOURS))).isFalse();
+    }
+
+    @Test
+    void assertThatRevocationsOfOtherInstancesAreLoaded() {
+        Instant revokedBefore = Instant.now().truncatedTo(ChronoUnit.SECONDS);
+        tokenRevocationRepository.saveAndFlush(new TokenRevocation(LOGIN, revokedBefore));
+
+        tokenRevocationService.refresh();
+
+        assertThat(tokenRevocationService.isRevoked(LOGIN, revokedBefore.minusSeconds(1))).isTrue();
+    }
+
+    @Test
+    void assertThatExpiredRevocationsArePurged() {
+        tokenRevocationRepository.saveAndFlush(new TokenRevocation(LOGIN, Instant.now().minus(60, ChronoUnit.DAYS)));
+
+        tokenRevocationService.rebuild();
+
+        assertThat(tokenRevocationRepository.findById(LOGIN)).isEmpty();
+    }
+}
@@ -0,0 +1,152 @@
+package com.shoesapp.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.shoesapp.config.ApplicationProperties;
+import com.shoesapp.service.UserLifecycleEvent.Type;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class UserEventBroadcasterTest {
+
+    private final Queue<Runnable> tasks = new ArrayDeque<>();
+
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private UserEventBroadcaster broadcaster;
+
+    @BeforeEach
+    void setup() {
+        ApplicationProperties applicationProperties = new ApplicationProperties();
+        applicationProperties.getUserEvents().setBufferSize(2);
+        applicationProperties.getUserEvents().setHistorySize(3);
+        broadcaster = new UserEventBroadcaster(applicationProperties, tasks::add, meterRegistry);
+    }
+
+    @Test
+    void testEventsAreSentInOrder() {
+        RecordingListener listener = new RecordingListener();
+        broadcaster.subscribe(null, listener);
+
+        publish(Type.REGISTERED, "john");
+        publish(Type.ACTIVATED, "john");
+        runTasks();
+
+        assertThat(listener.events).containsExactly("REGISTERED john", "ACTIVATED john");
+        assertThat(listener.ids).hasSize(2).doesNotHaveDuplicates();
+        assertThat(meterRegistry.get("service.user.events.subscribers").gauge().value()).isEqualTo(1);
+    }
+
+    @Test
+    void testResumeFromLastEventId() {
+        RecordingListener first = new RecordingListener();
+        broadcaster.subscribe(null, first);
+        for (Type type : new Type[] { Type.CREATED, Type.UPDATED, Type.DELETED }) {
+            publish(type, "john");
+            runTasks();
+        }
+
+        RecordingListener resumed = new RecordingListener();
+        broadcaster.subscribe(first.ids.get(0), resumed);
+        runTasks();
+
+        assertThat(resumed.events).containsExactly("UPDATED john", "DELETED john");
+        assertThat(resumed.ids).isEqualTo(first.ids.subList(1, 3));
+    }
+
+    @Test
+    void testResyncWhenEventsAreLost() {
+        RecordingListener first = new RecordingListener();
+        broadcaster.subscribe(null, first);
+        // the first two are not kept
+        for (int i = 0; i < 5; i++) {
+            publish(Type.REGISTERED, "user" + i);
+            runTasks();
+        }
+
+        RecordingListener tooLate = new RecordingListener();
+        broadcaster.subscribe(first.ids.get(0), tooLate);
+        RecordingListener otherRun = new RecordingListener();
+        broadcaster.subscribe("previous-1", otherRun);
+        runTasks();
+
+        assertThat(tooLate.events).containsExactly("resync");
+        assertThat(otherRun.events).containsExactly("resync");
+    }
+
+    @Test
+    void testSlowSubscriberIsDropped() {
+        RecordingListener slow = new RecordingListener();
+        broadcaster.subscribe(null, slow);
+
+        // the buffer holds 2 events, the task executor does not run
+        publish(Type.REGISTERED, "user1");
+        publish(Type.REGISTERED, "user2");
+        publish(Type.REGISTERED, "user3");
+        runTasks();
+
+        assertThat(slow.dropped).isTrue();
+        assertThat(slow.events).isEmpty();
+        assertThat(meterRegistry.get("service.user.events.dropped").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("service.user.events.subscribers").gauge().value()).isZero();
+
+        publish(Type.REGISTERED, "user4");
+        runTasks();
+        assertThat(slow.events).isEmpty();
+    }
+
+    @Test
+    void testCancelledSubscriptionGetsNothing() {
+        RecordingListener listener = new RecordingListener();
+        UserEventBroadcaster.Subscription subscription = broadcaster.subscribe(null, listener);
+        subscription.cancel();
+
+        publish(Type.REGISTERED, "john");
+        runTasks();
+
+        assertThat(listener.events).isEmpty();
+        assertThat(listener.dropped).isFalse();
+    }
+
+    private void publish(Type type, String login) {
+        broadcaster.onUserLifecycleEvent(new UserLifecycleEvent(type, login));
+    }
+
+    private void runTasks() {
+        Runnable task;
+        while ((task = tasks.poll()) != null) {
+            task.run();
+        }
+    }
+
+    private static class RecordingListener implements UserEventBroadcaster.Listener {
+
+        private final List<String> ids = new ArrayList<>();
+
+        private final List<String> events = new ArrayList<>();
+
+        private boolean dropped;
+
+        @Override
+        public void onEvent(String id, UserLifecycleEvent event) {
+            ids.add(id);
+            events.add(event.getType() + " " + event.getLogin());
+        }
+
+        @Override
+        public void onResync() {
+            events.add("resync");
+        }
+
+        @Override
+        public void onDropped() {
+            dropped = true;
+        }
+    }
+}
@@ -0,0 +1,75 @@
+package com.shoesapp.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.shoesapp.config.ApplicationProperties;
+import com.shoesapp.domain.User;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Test class for the {@link UserProfileVersionCache}.
+ */
+class UserProfileVersionCacheTest {
+
+    private long now;
+
+    private UserProfileVersionCache cache;
+
+    @BeforeEach
+    public void setup() {
+        ApplicationProperties.Authentication properties = new ApplicationProperties.Authentication();
+        properties.setProfileVersionTimeToLiveInSeconds(60);
+        properties.setProfileVersionMaxEntries(2);
+        cache = new UserProfileVersionCache(properties, () -> now);
+    }
+
+    @Test
+    void testVersionIsCurrentUntilExpired() {
+        User user = createUser("john", 3);
+        cache.put(user);
+
+        assertThat(cache.isCurrent("john", UserProfileVersionCache.versionOf(user))).isTrue();
+        assertThat(cache.isCurrent("john", 2)).isFalse();
+        assertThat(cache.isCurrent("jane", UserProfileVersionCache.versionOf(user))).isFalse();
+
+        now += TimeUnit.SECONDS.toNanos(60);
+        assertThat(cache.isCurrent("john", UserProfileVersionCache.versionOf(user))).isFalse();
+    }
+
+    @Test
+    void testEvict() {
+        User user = createUser("john", 3);
+        cache.put(user);
+
+        cache.evict("john");
+
+        assertThat(cache.isCurrent("john", UserProfileVersionCache.versionOf(user))).isFalse();
+    }
+
+    @Test
+    void testMaxEntries() {
+        User john = createUser("john", 3);
+        User jane = createUser("jane", 3);
+        User jim = createUser("jim", 3);
+        cache.put(john);
+        cache.put(jane);
+        cache.put(jim);
+
+        assertThat(cache.isCurrent("jim", UserProfileVersionCache.versionOf(jim))).isFalse();
+
+        now += TimeUnit.SECONDS.toNanos(60);
+        cache.removeExpiredVersions();
+        cache.put(jim);
+
+        assertThat(cache.isCurrent("jim", UserProfileVersionCache.versionOf(jim))).isTrue();
+    }
+
+    private User createUser(String login, long version) {
+        User user = new User();
+        user.setLogin(login);
+        user.setVersion(version);
+        return user;
+    }
+}
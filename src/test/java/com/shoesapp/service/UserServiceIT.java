@@ -1,6 +1,7 @@
 package com.shoesapp.service;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.Mockito.when;
 
 import com.shoesapp.IntegrationTest;
@@ -36,6 +37,8 @@ class UserServiceIT {
 
     private static final String DEFAULT_EMAIL = "johndoe@localhost";
 
+    private static final String DEFAULT_PHONE_NUMBER = "0600000000";
+
     private static final String DEFAULT_FIRSTNAME = "john";
 
     private static final String DEFAULT_LASTNAME = "doe";
@@ -65,6 +68,7 @@ class UserServiceIT {
         user.setPassword(RandomStringUtils.random(60));
         user.setActivated(true);
         user.setEmail(DEFAULT_EMAIL);
+        user.setPhoneNumber(DEFAULT_PHONE_NUMBER);
         user.setFirstName(DEFAULT_FIRSTNAME);
         user.setLastName(DEFAULT_LASTNAME);
         user.setImageUrl(DEFAULT_IMAGEURL);
@@ -166,6 +170,31 @@ class UserServiceIT {
         assertThat(users).isEmpty();
     }
 
+    @Test
+    @Transactional
+    void assertThatNotActivatedUsersAreDeletedBeyondOneBatch() {
+        Instant now = Instant.now();
+        when(dateTimeProvider.getNow()).thenReturn(Optional.of(now.minus(4, ChronoUnit.DAYS)));
+        for (int i = 0; i <= UserService.PURGE_BATCH_SIZE; i++) {
+            User notActivated = new User();
+            notActivated.setLogin("not-activated-" + i);
+            notActivated.setPassword(RandomStringUtils.random(60));
+            notActivated.setEmail("not-activated-" + i + "@localhost");
+            notActivated.setPhoneNumber(DEFAULT_PHONE_NUMBER);
+            notActivated.setLangKey(DEFAULT_LANGKEY);
+            notActivated.setActivationKey(RandomUtil.generateActivationKey());
+            userRepository.save(notActivated);
+        }
+        userRepository.flush();
+        Instant threeDaysAgo = now.minus(3, ChronoUnit.DAYS);
+        assertThat(userRepository.findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(threeDaysAgo))
+            .hasSize(UserService.PURGE_BATCH_SIZE + 1);
+
+        userService.removeNotActivatedUsers();
+
+        assertThat(userRepository.findAllByActivatedIsFalseAndActivationKeyIsNotNullAndCreatedDateBefore(threeDaysAgo)).isEmpty();
+    }
+
     @Test
     @Transactional
     void assertThatNotActivatedUsersWithNullActivationKeyCreatedBefore3DaysAreNotDeleted() {
@@ -182,4 +211,34 @@ class UserServiceIT {
         Optional<User> maybeDbUser = userRepository.findById(dbUser.getId());
         assertThat(maybeDbUser).contains(dbUser);
     }
+
+    @Test
+    @Transactional
+    void assertThatCreatingUserWithConcurrentlyTakenLoginFailsWithUsernameAlreadyUsed() {
+        userRepository.saveAndFlush(user);
+        AdminUserDTO userDTO = newUserDTO(DEFAULT_LOGIN, "another@localhost");
+
+        assertThatThrownBy(() -> userService.createUser(userDTO)).isInstanceOf(UsernameAlreadyUsedException.class);
+    }
+
+    @Test
+    @Transactional
+    void assertThatCreatingUserWithConcurrentlyTakenEmailFailsWithEmailAlreadyUsed() {
+        userRepository.saveAndFlush(user);
+        AdminUserDTO userDTO = newUserDTO("another", DEFAULT_EMAIL);
+
+        assertThatThrownBy(() -> userService.createUser(userDTO)).isInstanceOf(EmailAlreadyUsedException.class);
+    }
+
+    /**
+     * createUser does not look for the login and the email first, as if the user with them was inserted since.
+     */
+    private static AdminUserDTO newUserDTO(String login, String email) {
+        AdminUserDTO userDTO = new AdminUserDTO();
+        userDTO.setLogin(login);
+        userDTO.setEmail(email);
+        userDTO.setPhoneNumber(DEFAULT_PHONE_NUMBER);
+        userDTO.setLangKey(DEFAULT_LANGKEY);
+        return userDTO;
+    }
 }
@@ -0,0 +1,123 @@
+package com.shoesapp.web.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shoesapp.config.ApplicationProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.servlet.FilterChain;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.zalando.problem.ProblemModule;
+
+class ConcurrencyLimitFilterTest {
+
+    private final AtomicLong ticker = new AtomicLong();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ConcurrencyLimitFilter concurrencyLimitFilter;
+
+    @BeforeEach
+    public void setup() {
+        ApplicationProperties.ConcurrencyLimit properties = new ApplicationProperties.ConcurrencyLimit();
+        properties.setMinLimit(1);
+        properties.setBackoffRatio(0.5);
+        properties.setRetryAfterInSeconds(2);
+        ApplicationProperties.ConcurrencyLimit.Partition admin = new ApplicationProperties.ConcurrencyLimit.Partition();
+        admin.setPaths(List.of("/api/admin/**"));
+        admin.setInitialLimit(1);
+        admin.setMaxLimit(4);
+        admin.setLatencyThresholdInMillis(100);
+        properties.getPartitions().put("admin", admin);
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new ProblemModule());
+        concurrencyLimitFilter = new ConcurrencyLimitFilter(properties, objectMapper, meterRegistry, ticker::get);
+    }
+
+    @Test
+    void testRequestsOverTheLimitAreRejected() throws Exception {
+        AtomicReference<MockHttpServletResponse> nested = new AtomicReference<>();
+        FilterChain filterChain = (request, response) -> nested.set(filter(get("/api/admin/users"), new MockFilterChain()));
+
+        MockHttpServletResponse response = filter(get("/api/admin/users"), filterChain);
+
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(nested.get().getStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE.value());
+        assertThat(nested.get().getHeader("Retry-After")).isEqualTo("2");
+        assertThat(nested.get().getContentType()).startsWith("application/problem+json");
+        assertThat(nested.get().getContentAsString()).contains("error.overloaded");
+        assertThat(meterRegistry.get("http.server.requests.concurrency.rejected").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("http.server.requests.concurrency.in.flight").gauge().value()).isZero();
+    }
+
+    @Test
+    void testOtherPartitionsAreNotLimited() {
+        FilterChain filterChain = (request, response) ->
+            assertThat(filter(get("/api/account"), new MockFilterChain()).getStatus()).isEqualTo(HttpStatus.OK.value());
+
+        assertThat(filter(get("/api/admin/users"), filterChain).getStatus()).isEqualTo(HttpStatus.OK.value());
+    }
+
+    @Test
+    void testFastRequestsRaiseTheLimitUpToTwiceTheirConcurrency() {
+        for (int i = 0; i < 10; i++) {
+            filter(get("/api/admin/users"), new MockFilterChain());
+        }
+
+        assertThat(meterRegistry.get("http.server.requests.concurrency.limit").gauge().value()).isEqualTo(3);
+    }
+
+    @Test
+    void testSlowRequestsLowerTheLimit() {
+        AimdLimiter limiter = new AimdLimiter(8, 1, 8, 0.5, TimeUnit.MILLISECONDS.toNanos(100));
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        limiter.release(TimeUnit.MILLISECONDS.toNanos(150), false);
+        assertThat(limiter.getLimit()).isEqualTo(4);
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        limiter.release(TimeUnit.MILLISECONDS.toNanos(10), true);
+        assertThat(limiter.getLimit()).isEqualTo(2);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(limiter.tryAcquire()).isTrue();
+            limiter.release(TimeUnit.SECONDS.toNanos(1), false);
+        }
+        assertThat(limiter.getLimit()).isEqualTo(1);
+        assertThat(limiter.getInFlight()).isZero();
+    }
+
+    @Test
+    void testIdleLimitIsNotRaised() {
+        AimdLimiter limiter = new AimdLimiter(8, 1, 16, 0.5, TimeUnit.MILLISECONDS.toNanos(100));
+
+        assertThat(limiter.tryAcquire()).isTrue();
+        limiter.release(TimeUnit.MILLISECONDS.toNanos(10), false);
+
+        assertThat(limiter.getLimit()).isEqualTo(8);
+    }
+
+    private MockHttpServletResponse filter(MockHttpServletRequest request, FilterChain filterChain) {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            concurrencyLimitFilter.doFilter(request, response, filterChain);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return response;
+    }
+
+    private static MockHttpServletRequest get(String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setServletPath(path);
+        return request;
+    }
+}
@@ -0,0 +1,80 @@
+package com.shoesapp.web.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+import com.shoesapp.IntegrationTest;
+import com.shoesapp.repository.IdempotencyRecordRepository;
+import com.shoesapp.repository.UserRepository;
+import com.shoesapp.security.AuthoritiesConstants;
+import java.util.UUID;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+/**
+ * Integration tests for the {@link IdempotencyFilter}, in the security filter chain.
+ */
+@AutoConfigureMockMvc
+@IntegrationTest
+@TestPropertySource(properties = "application.idempotency.endpoints.create-user.path=/api/admin/users")
+class IdempotencyFilterIT {
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MockMvc restMockMvc;
+
+    private final String key = UUID.randomUUID().toString();
+
+    @AfterEach
+    public void cleanup() {
+        idempotencyRecordRepository.deleteAll();
+        userRepository.findOneByLogin("idempotent").ifPresent(userRepository::delete);
+    }
+
+    @Test
+    @WithMockUser(authorities = AuthoritiesConstants.ADMIN)
+    void testAuthorizedRequestIsReplayed() throws Exception {
+        createUser().andExpect(status().isCreated());
+
+        createUser().andExpect(status().isCreated()).andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"));
+        assertThat(idempotencyRecordRepository.count()).isOne();
+    }
+
+    @Test
+    void testAnonymousRequestClaimsNoKey() throws Exception {
+        createUser().andExpect(status().isUnauthorized());
+
+        assertThat(idempotencyRecordRepository.count()).isZero();
+    }
+
+    @Test
+    @WithMockUser(authorities = AuthoritiesConstants.USER)
+    void testForbiddenRequestClaimsNoKey() throws Exception {
+        createUser().andExpect(status().isForbidden());
+
+        assertThat(idempotencyRecordRepository.count()).isZero();
+    }
+
+    private ResultActions createUser() throws Exception {
+        return restMockMvc.perform(
+            post("/api/admin/users")
+                .header("Idempotency-Key", key)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"login\":\"idempotent\",\"email\":\"idempotent@localhost\",\"phoneNumber\":\"0600000000\"}")
+        );
+    }
+}
@@ -0,0 +1,132 @@
+package com.shoesapp.web.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.shoesapp.config.ApplicationProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.zalando.problem.ProblemModule;
+
+class RateLimitingFilterTest {
+
+    private final AtomicLong ticker = new AtomicLong();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private RateLimitingFilter rateLimitingFilter;
+
+    @BeforeEach
+    public void setup() {
+        ApplicationProperties.RateLimiting properties = new ApplicationProperties.RateLimiting();
+        ApplicationProperties.RateLimiting.Endpoint authenticate = new ApplicationProperties.RateLimiting.Endpoint();
+        authenticate.setPath("/api/authenticate");
+        authenticate.setPrincipalField("username");
+        authenticate.getPerIp().setCapacity(5);
+        authenticate.getPerIp().setRefillPerMinute(60);
+        authenticate.getPerPrincipal().setCapacity(2);
+        authenticate.getPerPrincipal().setRefillPerMinute(1);
+        properties.getEndpoints().put("authenticate", authenticate);
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new ProblemModule());
+        rateLimitingFilter = new RateLimitingFilter(properties, objectMapper, meterRegistry, ticker::get);
+    }
+
+    @Test
+    void testRequestsWithinLimitsArePassedOn() throws Exception {
+        MockFilterChain filterChain = new MockFilterChain();
+        MockHttpServletRequest request = authenticate("10.0.0.1", "user");
+
+        MockHttpServletResponse response = filter(request, filterChain);
+
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.OK.value());
+        // the controller can still read the body inspected by the filter
+        assertThat(filterChain.getRequest().getInputStream().readAllBytes()).isEqualTo(request.getContentAsByteArray());
+    }
+
+    @Test
+    void testPrincipalLimitIsSharedAcrossIps() throws Exception {
+        assertThat(filter(authenticate("10.0.0.1", "User")).getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(filter(authenticate("10.0.0.2", "user")).getStatus()).isEqualTo(HttpStatus.OK.value());
+
+        MockHttpServletResponse response = filter(authenticate("10.0.0.3", "user"));
+
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+        assertThat(response.getHeader("Retry-After")).isEqualTo("60");
+        assertThat(response.getContentType()).startsWith("application/problem+json");
+        assertThat(response.getContentAsString()).contains("error.tooManyRequests");
+        assertThat(filter(authenticate("10.0.0.3", "other")).getStatus()).isEqualTo(HttpStatus.OK.value());
+        assertThat(meterRegistry.get("security.rate.limit.rejected").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    void testIpLimitIsRefilled() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            assertThat(filter(authenticate("10.0.0.1", "user" + i)).getStatus()).isEqualTo(HttpStatus.OK.value());
+        }
+        MockHttpServletResponse response = filter(authenticate("10.0.0.1", "user5"));
+        assertThat(response.getStatus()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS.value());
+        assertThat(response.getHeader("Retry-After")).isEqualTo("1");
+
+        ticker.addAndGet(TimeUnit.SECONDS.toNanos(1));
+
+        assertThat(filter(authenticate("10.0.0.1", "user6")).getStatus()).isEqualTo(HttpStatus.OK.value());
+    }
+
+    @Test
+    void testOtherEndpointsAreNotLimited() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/account");
+            request.setServletPath("/api/account");
+            assertThat(filter(request).getStatus()).isEqualTo(HttpStatus.OK.value());
+        }
+    }
+
+    @Test
+    void testIdleBucketsExpire() {
+        TokenBuckets tokenBuckets = new TokenBuckets(1000, 60, ticker::get);
+        tokenBuckets.tryConsume("a", 1, 1);
+        assertThat(tokenBuckets.tryConsume("a", 1, 1)).isPositive();
+
+        ticker.addAndGet(TimeUnit.SECONDS.toNanos(61));
+
+        assertThat(tokenBuckets.tryConsume("a", 1, 0)).isZero();
+        assertThat(tokenBuckets.size()).isEqualTo(1);
+    }
+
+    @Test
+    void testBucketsAreBounded() {
+        TokenBuckets tokenBuckets = new TokenBuckets(640, 3600, ticker::get);
+        for (int i = 0; i < 10_000; i++) {
+            tokenBuckets.tryConsume("key" + i, 1, 1);
+        }
+
+        assertThat(tokenBuckets.size()).isLessThanOrEqualTo(640);
+    }
+
+    private MockHttpServletResponse filter(MockHttpServletRequest request) throws Exception {
+        return filter(request, new MockFilterChain());
+    }
+
+    private MockHttpServletResponse filter(MockHttpServletRequest request, MockFilterChain filterChain) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        rateLimitingFilter.doFilter(request, response, filterChain);
+        return response;
+    }
+
+    private static MockHttpServletRequest authenticate(String ip, String username) {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/authenticate");
+        request.setServletPath("/api/authenticate");
+        request.setRemoteAddr(ip);
+        request.setContentType("application/json");
+        request.setContent(("{\"username\":\"" + username + "\",\"password\":\"secret\"}").getBytes(StandardCharsets.UTF_8));
+        return request;
+    }
+}
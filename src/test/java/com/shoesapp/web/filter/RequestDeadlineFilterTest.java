@@ -0,0 +1,112 @@
+package com.shoesapp.web.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.shoesapp.config.ApplicationProperties;
+import com.shoesapp.service.RequestDeadline;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.servlet.FilterChain;
+import javax.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class RequestDeadlineFilterTest {
+
+    private final AtomicLong ticker = new AtomicLong();
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private final AtomicReference<RequestDeadline> seenDeadline = new AtomicReference<>();
+
+    private RequestDeadlineFilter requestDeadlineFilter;
+
+    @BeforeEach
+    public void setup() {
+        ApplicationProperties.Deadline properties = new ApplicationProperties.Deadline();
+        properties.setDefaultBudgetInMillis(10_000);
+        ApplicationProperties.Deadline.Endpoint adminUsers = new ApplicationProperties.Deadline.Endpoint();
+        adminUsers.setPath("/api/admin/users/**");
+        adminUsers.setBudgetInMillis(5_000);
+        properties.getEndpoints().put("admin-users", adminUsers);
+        requestDeadlineFilter = new RequestDeadlineFilter(properties, meterRegistry, ticker::get);
+    }
+
+    @Test
+    void testEndpointBudgetIsApplied() throws Exception {
+        filter(get("/api/admin/users"), HttpStatus.OK);
+
+        assertThat(seenDeadline.get().getEndpoint()).isEqualTo("admin-users");
+        assertThat(seenDeadline.get().remainingNanos()).isEqualTo(TimeUnit.SECONDS.toNanos(5));
+        assertThat(RequestDeadline.current()).isNull();
+    }
+
+    @Test
+    void testDefaultBudgetIsApplied() throws Exception {
+        filter(get("/api/account"), HttpStatus.OK);
+
+        assertThat(seenDeadline.get().getEndpoint()).isEqualTo("default");
+        assertThat(seenDeadline.get().remainingNanos()).isEqualTo(TimeUnit.SECONDS.toNanos(10));
+    }
+
+    @Test
+    void testClientCanOnlyShortenTheBudget() throws Exception {
+        MockHttpServletRequest request = get("/api/admin/users");
+        request.addHeader("X-Request-Timeout", "1500");
+        filter(request, HttpStatus.OK);
+        assertThat(seenDeadline.get().remainingNanos()).isEqualTo(TimeUnit.MILLISECONDS.toNanos(1500));
+
+        request = get("/api/admin/users");
+        request.addHeader("X-Request-Timeout", "60000");
+        filter(request, HttpStatus.OK);
+        assertThat(seenDeadline.get().remainingNanos()).isEqualTo(TimeUnit.SECONDS.toNanos(5));
+
+        request = get("/api/admin/users");
+        request.addHeader("X-Request-Timeout", "soon");
+        filter(request, HttpStatus.OK);
+        assertThat(seenDeadline.get().remainingNanos()).isEqualTo(TimeUnit.SECONDS.toNanos(5));
+    }
+
+    @Test
+    void testOtherPathsHaveNoDeadline() throws Exception {
+        filter(get("/management/health"), HttpStatus.OK);
+
+        assertThat(seenDeadline.get()).isNull();
+    }
+
+    @Test
+    void testExceededDeadlinesAreCounted() throws Exception {
+        filter(get("/api/admin/users"), HttpStatus.SERVICE_UNAVAILABLE, TimeUnit.SECONDS.toNanos(6));
+        filter(get("/api/admin/users"), HttpStatus.SERVICE_UNAVAILABLE, TimeUnit.SECONDS.toNanos(1));
+        filter(get("/api/admin/users"), HttpStatus.OK, TimeUnit.SECONDS.toNanos(6));
+
+        assertThat(meterRegistry.get("http.server.requests.deadline.exceeded").tag("endpoint", "admin-users").counter().count())
+            .isEqualTo(1);
+        assertThat(meterRegistry.get("http.server.requests.deadline.exceeded").tag("endpoint", "default").counter().count()).isZero();
+    }
+
+    private void filter(MockHttpServletRequest request, HttpStatus status) throws Exception {
+        filter(request, status, 0);
+    }
+
+    private void filter(MockHttpServletRequest request, HttpStatus status, long elapsedNanos) throws Exception {
+        FilterChain filterChain = (req, res) -> {
+            seenDeadline.set(RequestDeadline.current());
+            ticker.addAndGet(elapsedNanos);
+            ((HttpServletResponse) res).setStatus(status.value());
+        };
+        seenDeadline.set(null);
+        requestDeadlineFilter.doFilter(request, new MockHttpServletResponse(), filterChain);
+    }
+
+    private static MockHttpServletRequest get(String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", path);
+        request.setServletPath(path);
+        return request;
+    }
+}
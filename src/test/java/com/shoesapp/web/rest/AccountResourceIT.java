@@ -15,14 +15,17 @@ import com.shoesapp.service.UserService;
 import com.shoesapp.service.dto.AdminUserDTO;
 import com.shoesapp.service.dto.PasswordChangeDTO;
 import com.shoesapp.service.dto.UserDTO;
+import com.shoesapp.web.rest.errors.ErrorConstants;
 import com.shoesapp.web.rest.vm.KeyAndPasswordVM;
 import com.shoesapp.web.rest.vm.ManagedUserVM;
 import java.time.Instant;
 import java.util.*;
+import javax.persistence.EntityManager;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.security.test.context.support.WithMockUser;
@@ -51,6 +54,9 @@ class AccountResourceIT {
     @Autowired
     private PasswordEncoder passwordEncoder;
 
+    @Autowired
+    private EntityManager em;
+
     @Autowired
     private MockMvc restAccountMockMvc;
 
@@ -88,6 +94,7 @@ class AccountResourceIT {
         user.setFirstName("john");
         user.setLastName("doe");
         user.setEmail("john.doe@jhipster.com");
+        user.setPhoneNumber("0600000000");
         user.setImageUrl("http://placehold.it/50x50");
         user.setLangKey("en");
         user.setAuthorities(authorities);
@@ -103,7 +110,9 @@ class AccountResourceIT {
             .andExpect(jsonPath("$.email").value("john.doe@jhipster.com"))
             .andExpect(jsonPath("$.imageUrl").value("http://placehold.it/50x50"))
             .andExpect(jsonPath("$.langKey").value("en"))
-            .andExpect(jsonPath("$.authorities").value(AuthoritiesConstants.ADMIN));
+            .andExpect(jsonPath("$.authorities").value(AuthoritiesConstants.ADMIN))
+            .andExpect(jsonPath("$.phoneNumber").doesNotExist())
+            .andExpect(jsonPath("$.createdDate").doesNotExist());
     }
 
     @Test
@@ -122,6 +131,7 @@ class AccountResourceIT {
         validUser.setFirstName("Alice");
         validUser.setLastName("Test");
         validUser.setEmail("test-register-valid@example.com");
+        validUser.setPhoneNumber("0600000000");
         validUser.setImageUrl("http://placehold.it/50x50");
         validUser.setLangKey(Constants.DEFAULT_LANGUAGE);
         validUser.setAuthorities(Collections.singleton(AuthoritiesConstants.USER));
@@ -143,6 +153,7 @@ class AccountResourceIT {
         invalidUser.setFirstName("Funky");
         invalidUser.setLastName("One");
         invalidUser.setEmail("funky@example.com");
+        invalidUser.setPhoneNumber("0600000000");
         invalidUser.setActivated(true);
         invalidUser.setImageUrl("http://placehold.it/50x50");
         invalidUser.setLangKey(Constants.DEFAULT_LANGUAGE);
@@ -165,6 +176,7 @@ class AccountResourceIT {
         invalidUser.setFirstName("Bob");
         invalidUser.setLastName("Green");
         invalidUser.setEmail("invalid"); // <-- invalid
+        invalidUser.setPhoneNumber("0600000000");
         invalidUser.setActivated(true);
         invalidUser.setImageUrl("http://placehold.it/50x50");
         invalidUser.setLangKey(Constants.DEFAULT_LANGUAGE);
@@ -187,6 +199,7 @@ class AccountResourceIT {
         invalidUser.setFirstName("Bob");
         invalidUser.setLastName("Green");
         invalidUser.setEmail("bob@example.com");
+        invalidUser.setPhoneNumber("0600000000");
         invalidUser.setActivated(true);
         invalidUser.setImageUrl("http://placehold.it/50x50");
         invalidUser.setLangKey(Constants.DEFAULT_LANGUAGE);
@@ -209,6 +222,7 @@ class AccountResourceIT {
         invalidUser.setFirstName("Bob");
         invalidUser.setLastName("Green");
         invalidUser.setEmail("bob@example.com");
+        invalidUser.setPhoneNumber("0600000000");
         invalidUser.setActivated(true);
         invalidUser.setImageUrl("http://placehold.it/50x50");
         invalidUser.setLangKey(Constants.DEFAULT_LANGUAGE);
@@ -232,6 +246,7 @@ class AccountResourceIT {
         firstUser.setFirstName("Alice");
         firstUser.setLastName("Something");
         firstUser.setEmail("alice@example.com");
+        firstUser.setPhoneNumber("0600000000");
         firstUser.setImageUrl("http://placehold.it/50x50");
         firstUser.setLangKey(Constants.DEFAULT_LANGUAGE);
         firstUser.setAuthorities(Collections.singleton(AuthoritiesConstants.USER));
@@ -243,6 +258,7 @@ class AccountResourceIT {
         secondUser.setFirstName(firstUser.getFirstName());
         secondUser.setLastName(firstUser.getLastName());
         secondUser.setEmail("alice2@example.com");
+        secondUser.setPhoneNumber("0600000000");
         secondUser.setImageUrl(firstUser.getImageUrl());
         secondUser.setLangKey(firstUser.getLangKey());
         secondUser.setCreatedBy(firstUser.getCreatedBy());
@@ -282,6 +298,7 @@ class AccountResourceIT {
         firstUser.setFirstName("Alice");
         firstUser.setLastName("Test");
         firstUser.setEmail("test-register-duplicate-email@example.com");
+        firstUser.setPhoneNumber("0600000000");
         firstUser.setImageUrl("http://placehold.it/50x50");
         firstUser.setLangKey(Constants.DEFAULT_LANGUAGE);
         firstUser.setAuthorities(Collections.singleton(AuthoritiesConstants.USER));
@@ -301,6 +318,7 @@ class AccountResourceIT {
         secondUser.setFirstName(firstUser.getFirstName());
         secondUser.setLastName(firstUser.getLastName());
         secondUser.setEmail(firstUser.getEmail());
+        secondUser.setPhoneNumber("0600000000");
         secondUser.setImageUrl(firstUser.getImageUrl());
         secondUser.setLangKey(firstUser.getLangKey());
         secondUser.setAuthorities(new HashSet<>(firstUser.getAuthorities()));
@@ -324,6 +342,7 @@ class AccountResourceIT {
         userWithUpperCaseEmail.setFirstName(firstUser.getFirstName());
         userWithUpperCaseEmail.setLastName(firstUser.getLastName());
         userWithUpperCaseEmail.setEmail("TEST-register-duplicate-email@example.com");
+        userWithUpperCaseEmail.setPhoneNumber("0600000000");
         userWithUpperCaseEmail.setImageUrl(firstUser.getImageUrl());
         userWithUpperCaseEmail.setLangKey(firstUser.getLangKey());
         userWithUpperCaseEmail.setAuthorities(new HashSet<>(firstUser.getAuthorities()));
@@ -359,6 +378,7 @@ class AccountResourceIT {
         validUser.setFirstName("Bad");
         validUser.setLastName("Guy");
         validUser.setEmail("badguy@example.com");
+        validUser.setPhoneNumber("0600000000");
         validUser.setActivated(true);
         validUser.setImageUrl("http://placehold.it/50x50");
         validUser.setLangKey(Constants.DEFAULT_LANGUAGE);
@@ -382,6 +402,7 @@ class AccountResourceIT {
         User user = new User();
         user.setLogin("activate-account");
         user.setEmail("activate-account@example.com");
+        user.setPhoneNumber("0600000000");
         user.setPassword(RandomStringUtils.random(60));
         user.setActivated(false);
         user.setActivationKey(activationKey);
@@ -407,6 +428,7 @@ class AccountResourceIT {
         User user = new User();
         user.setLogin("save-account");
         user.setEmail("save-account@example.com");
+        user.setPhoneNumber("0600000000");
         user.setPassword(RandomStringUtils.random(60));
         user.setActivated(true);
         userRepository.saveAndFlush(user);
@@ -416,6 +438,7 @@ class AccountResourceIT {
         userDTO.setFirstName("firstname");
         userDTO.setLastName("lastname");
         userDTO.setEmail("save-account@example.com");
+        userDTO.setPhoneNumber("0600000000");
         userDTO.setActivated(false);
         userDTO.setImageUrl("http://placehold.it/50x50");
         userDTO.setLangKey(Constants.DEFAULT_LANGUAGE);
@@ -443,6 +466,7 @@ class AccountResourceIT {
         User user = new User();
         user.setLogin("save-invalid-email");
         user.setEmail("save-invalid-email@example.com");
+        user.setPhoneNumber("0600000000");
         user.setPassword(RandomStringUtils.random(60));
         user.setActivated(true);
 
@@ -453,6 +477,7 @@ class AccountResourceIT {
         userDTO.setFirstName("firstname");
         userDTO.setLastName("lastname");
         userDTO.setEmail("invalid email");
+        userDTO.setPhoneNumber("0600000000");
         userDTO.setActivated(false);
         userDTO.setImageUrl("http://placehold.it/50x50");
         userDTO.setLangKey(Constants.DEFAULT_LANGUAGE);
@@ -472,6 +497,7 @@ class AccountResourceIT {
         User user = new User();
         user.setLogin("save-existing-email");
         user.setEmail("save-existing-email@example.com");
+        user.setPhoneNumber("0600000000");
         user.setPassword(RandomStringUtils.random(60));
         user.setActivated(true);
         userRepository.saveAndFlush(user);
@@ -479,6 +505,7 @@ class AccountResourceIT {
         User anotherUser = new User();
         anotherUser.setLogin("save-existing-email2");
         anotherUser.setEmail("save-existing-email2@example.com");
+        anotherUser.setPhoneNumber("0600000000");
         anotherUser.setPassword(RandomStringUtils.random(60));
         anotherUser.setActivated(true);
 
@@ -489,6 +516,7 @@ class AccountResourceIT {
         userDTO.setFirstName("firstname");
         userDTO.setLastName("lastname");
         userDTO.setEmail("save-existing-email2@example.com");
+        userDTO.setPhoneNumber("0600000000");
         userDTO.setActivated(false);
         userDTO.setImageUrl("http://placehold.it/50x50");
         userDTO.setLangKey(Constants.DEFAULT_LANGUAGE);
@@ -509,6 +537,7 @@ class AccountResourceIT {
         User user = new User();
         user.setLogin("save-existing-email-and-login");
         user.setEmail("save-existing-email-and-login@example.com");
+        user.setPhoneNumber("0600000000");
         user.setPassword(RandomStringUtils.random(60));
         user.setActivated(true);
         userRepository.saveAndFlush(user);
@@ -518,6 +547,7 @@ class AccountResourceIT {
         userDTO.setFirstName("firstname");
         userDTO.setLastName("lastname");
         userDTO.setEmail("save-existing-email-and-login@example.com");
+        userDTO.setPhoneNumber("0600000000");
         userDTO.setActivated(false);
         userDTO.setImageUrl("http://placehold.it/50x50");
         userDTO.setLangKey(Constants.DEFAULT_LANGUAGE);
@@ -531,6 +561,102 @@ class AccountResourceIT {
         assertThat(updatedUser.getEmail()).isEqualTo("save-existing-email-and-login@example.com");
     }
 
+    @Test
+    @Transactional
+    @WithMockUser("patch-account")
+    void testPatchAccount() throws Exception {
+        User user = new User();
+        user.setLogin("patch-account");
+        user.setEmail("patch-account@example.com");
+        user.setPhoneNumber("0600000000");
+        user.setFirstName("firstname");
+        user.setLastName("lastname");
+        user.setPassword(RandomStringUtils.random(60));
+        user.setActivated(true);
+        userRepository.saveAndFlush(user);
+        long version = user.getVersion();
+
+        restAccountMockMvc
+            .perform(
+                patch("/api/account")
+                    .contentType("application/merge-patch+json")
+                    .header(HttpHeaders.IF_MATCH, "\"" + user.getId() + "-" + version + "\"")
+                    .content("{\"firstName\":\"patched\",\"lastName\":null,\"email\":\"Patched-Account@example.com\"}")
+            )
+            .andExpect(status().isNoContent());
+
+        // the patch is a bulk update, which bypasses the persistence context
+        em.clear();
+        User updatedUser = userRepository.findOneByLogin("patch-account").orElse(null);
+        assertThat(updatedUser.getFirstName()).isEqualTo("patched");
+        assertThat(updatedUser.getLastName()).isNull();
+        assertThat(updatedUser.getEmail()).isEqualTo("patched-account@example.com");
+        assertThat(updatedUser.getLangKey()).isEqualTo(user.getLangKey());
+        assertThat(updatedUser.getLastModifiedBy()).isEqualTo("patch-account");
+        assertThat(updatedUser.getVersion()).isEqualTo(version + 1);
+    }
+
+    @Test
+    @Transactional
+    @WithMockUser("patch-account-stale")
+    void testPatchAccountWithStaleIfMatch() throws Exception {
+        User user = new User();
+        user.setLogin("patch-account-stale");
+        user.setEmail("patch-account-stale@example.com");
+        user.setPhoneNumber("0600000000");
+        user.setPassword(RandomStringUtils.random(60));
+        user.setActivated(true);
+        userRepository.saveAndFlush(user);
+
+        restAccountMockMvc
+            .perform(
+                patch("/api/account")
+                    .contentType("application/merge-patch+json")
+                    .header(HttpHeaders.IF_MATCH, "\"" + user.getId() + "-" + (user.getVersion() + 1) + "\"")
+                    .content("{\"firstName\":\"patched\"}")
+            )
+            .andExpect(status().isPreconditionFailed());
+    }
+
+    @Test
+    @Transactional
+    @WithMockUser("patch-account-existing-email")
+    void testPatchAccountExistingEmail() throws Exception {
+        User user = new User();
+        user.setLogin("patch-account-existing-email");
+        user.setEmail("patch-account-existing-email@example.com");
+        user.setPhoneNumber("0600000000");
+        user.setPassword(RandomStringUtils.random(60));
+        user.setActivated(true);
+        userRepository.saveAndFlush(user);
+
+        User anotherUser = new User();
+        anotherUser.setLogin("patch-account-existing-email2");
+        anotherUser.setEmail("patch-account-existing-email2@example.com");
+        anotherUser.setPhoneNumber("0600000000");
+        anotherUser.setPassword(RandomStringUtils.random(60));
+        anotherUser.setActivated(true);
+        userRepository.saveAndFlush(anotherUser);
+
+        restAccountMockMvc
+            .perform(
+                patch("/api/account")
+                    .contentType("application/merge-patch+json")
+                    .content("{\"email\":\"patch-account-existing-email2@example.com\"}")
+            )
+            .andExpect(status().isBadRequest())
+            .andExpect(jsonPath("$.type").value(ErrorConstants.EMAIL_ALREADY_USED_TYPE.toString()));
+    }
+
+    @Test
+    @Transactional
+    @WithMockUser("patch-account-login")
+    void testPatchAccountLoginIsRejected() throws Exception {
+        restAccountMockMvc
+            .perform(patch("/api/account").contentType("application/merge-patch+json").content("{\"login\":\"admin\"}"))
+            .andExpect(status().isBadRequest());
+    }
+
     @Test
     @Transactional
     @WithMockUser("change-password-wrong-existing-password")
@@ -540,6 +666,7 @@ class AccountResourceIT {
         user.setPassword(passwordEncoder.encode(currentPassword));
         user.setLogin("change-password-wrong-existing-password");
         user.setEmail("change-password-wrong-existing-password@example.com");
+        user.setPhoneNumber("0600000000");
         userRepository.saveAndFlush(user);
 
         restAccountMockMvc
@@ -564,6 +691,7 @@ class AccountResourceIT {
         user.setPassword(passwordEncoder.encode(currentPassword));
         user.setLogin("change-password");
         user.setEmail("change-password@example.com");
+        user.setPhoneNumber("0600000000");
         userRepository.saveAndFlush(user);
 
         restAccountMockMvc
@@ -587,6 +715,7 @@ class AccountResourceIT {
         user.setPassword(passwordEncoder.encode(currentPassword));
         user.setLogin("change-password-too-small");
         user.setEmail("change-password-too-small@example.com");
+        user.setPhoneNumber("0600000000");
         userRepository.saveAndFlush(user);
 
         String newPassword = RandomStringUtils.random(ManagedUserVM.PASSWORD_MIN_LENGTH - 1);
@@ -612,6 +741,7 @@ class AccountResourceIT {
         user.setPassword(passwordEncoder.encode(currentPassword));
         user.setLogin("change-password-too-long");
         user.setEmail("change-password-too-long@example.com");
+        user.setPhoneNumber("0600000000");
         userRepository.saveAndFlush(user);
 
         String newPassword = RandomStringUtils.random(ManagedUserVM.PASSWORD_MAX_LENGTH + 1);
@@ -637,6 +767,7 @@ class AccountResourceIT {
         user.setPassword(passwordEncoder.encode(currentPassword));
         user.setLogin("change-password-empty");
         user.setEmail("change-password-empty@example.com");
+        user.setPhoneNumber("0600000000");
         userRepository.saveAndFlush(user);
 
         restAccountMockMvc
@@ -659,6 +790,7 @@ class AccountResourceIT {
         user.setActivated(true);
         user.setLogin("password-reset");
         user.setEmail("password-reset@example.com");
+        user.setPhoneNumber("0600000000");
         userRepository.saveAndFlush(user);
 
         restAccountMockMvc
@@ -674,6 +806,7 @@ class AccountResourceIT {
         user.setActivated(true);
         user.setLogin("password-reset-upper-case");
         user.setEmail("password-reset-upper-case@example.com");
+        user.setPhoneNumber("0600000000");
         userRepository.saveAndFlush(user);
 
         restAccountMockMvc
@@ -695,6 +828,7 @@ class AccountResourceIT {
         user.setPassword(RandomStringUtils.random(60));
         user.setLogin("finish-password-reset");
         user.setEmail("finish-password-reset@example.com");
+        user.setPhoneNumber("0600000000");
         user.setResetDate(Instant.now().plusSeconds(60));
         user.setResetKey("reset key");
         userRepository.saveAndFlush(user);
@@ -722,6 +856,7 @@ class AccountResourceIT {
         user.setPassword(RandomStringUtils.random(60));
         user.setLogin("finish-password-reset-too-small");
         user.setEmail("finish-password-reset-too-small@example.com");
+        user.setPhoneNumber("0600000000");
         user.setResetDate(Instant.now().plusSeconds(60));
         user.setResetKey("reset key too small");
         userRepository.saveAndFlush(user);
@@ -1,14 +1,20 @@
 package com.shoesapp.web.rest;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.hasItems;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
 import com.shoesapp.IntegrationTest;
 import com.shoesapp.domain.User;
 import com.shoesapp.repository.UserRepository;
 import com.shoesapp.security.AuthoritiesConstants;
+import com.shoesapp.web.rest.vm.UserBatchVM;
+import java.util.List;
 import javax.persistence.EntityManager;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -29,6 +35,8 @@ class PublicUserResourceIT {
 
     private static final String DEFAULT_LOGIN = "johndoe";
 
+    private static final MediaType CBOR = MediaType.valueOf("application/cbor");
+
     @Autowired
     private UserRepository userRepository;
 
@@ -62,6 +70,47 @@ class PublicUserResourceIT {
             .andExpect(jsonPath("$.[*].langKey").doesNotExist());
     }
 
+    @Test
+    @Transactional
+    void getAllPublicUsersAsCbor() throws Exception {
+        // Initialize the database
+        userRepository.saveAndFlush(user);
+
+        byte[] body = restUserMockMvc
+            .perform(get("/api/users?sort=id,desc").accept(CBOR))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(CBOR))
+            .andReturn()
+            .getResponse()
+            .getContentAsByteArray();
+
+        JsonNode users = new ObjectMapper(new CBORFactory()).readTree(body);
+        assertThat(users.findValuesAsText("login")).contains(DEFAULT_LOGIN);
+        assertThat(users.findValues("email")).isEmpty();
+    }
+
+    @Test
+    @Transactional
+    void getPublicUsersInBatch() throws Exception {
+        // Initialize the database
+        userRepository.saveAndFlush(user);
+        User inactive = UserResourceIT.createEntity(em);
+        inactive.setActivated(false);
+        userRepository.saveAndFlush(inactive);
+
+        UserBatchVM batch = new UserBatchVM();
+        batch.setLogins(List.of(inactive.getLogin()));
+        batch.setIds(List.of(user.getId(), user.getId()));
+
+        restUserMockMvc
+            .perform(post("/api/users/_batch").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(batch)))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.length()").value(1))
+            .andExpect(jsonPath("$.[0].login").value(DEFAULT_LOGIN))
+            .andExpect(jsonPath("$.[0].email").doesNotExist());
+    }
+
     @Test
     @Transactional
     void getAllAuthorities() throws Exception {
@@ -4,15 +4,21 @@ import static org.hamcrest.Matchers.emptyString;
 import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.nullValue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
+import com.jayway.jsonpath.JsonPath;
 import com.shoesapp.IntegrationTest;
 import com.shoesapp.domain.User;
+import com.shoesapp.repository.RefreshTokenRepository;
+import com.shoesapp.repository.TokenRevocationRepository;
 import com.shoesapp.repository.UserRepository;
+import com.shoesapp.service.dto.PasswordChangeDTO;
 import com.shoesapp.web.rest.vm.LoginVM;
+import com.shoesapp.web.rest.vm.RefreshTokenVM;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
@@ -31,6 +37,12 @@ class UserJWTControllerIT {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private RefreshTokenRepository refreshTokenRepository;
+
+    @Autowired
+    private TokenRevocationRepository tokenRevocationRepository;
+
     @Autowired
     private PasswordEncoder passwordEncoder;
 
@@ -43,6 +55,7 @@ class UserJWTControllerIT {
         User user = new User();
         user.setLogin("user-jwt-controller");
         user.setEmail("user-jwt-controller@example.com");
+        user.setPhoneNumber("0600000000");
         user.setActivated(true);
         user.setPassword(passwordEncoder.encode("test"));
 
@@ -56,16 +69,120 @@ class UserJWTControllerIT {
             .andExpect(status().isOk())
             .andExpect(jsonPath("$.id_token").isString())
             .andExpect(jsonPath("$.id_token").isNotEmpty())
+            .andExpect(jsonPath("$.refresh_token").isString())
+            .andExpect(jsonPath("$.refresh_token").isNotEmpty())
             .andExpect(header().string("Authorization", not(nullValue())))
             .andExpect(header().string("Authorization", not(is(emptyString()))));
     }
 
+    @Test
+    @Transactional
+    void testRefresh() throws Exception {
+        User user = new User();
+        user.setLogin("user-jwt-controller-refresh");
+        user.setEmail("user-jwt-controller-refresh@example.com");
+        user.setPhoneNumber("0600000000");
+        user.setActivated(true);
+        user.setPassword(passwordEncoder.encode("test"));
+
+        userRepository.saveAndFlush(user);
+
+        LoginVM login = new LoginVM();
+        login.setUsername("user-jwt-controller-refresh");
+        login.setPassword("test");
+        String authorizeResponse = mockMvc
+            .perform(post("/api/authenticate").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(login)))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+
+        RefreshTokenVM refreshToken = new RefreshTokenVM();
+        refreshToken.setRefreshToken(JsonPath.read(authorizeResponse, "$.refresh_token"));
+        mockMvc
+            .perform(
+                post("/api/authenticate/refresh")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(refreshToken))
+            )
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.id_token").isNotEmpty())
+            .andExpect(jsonPath("$.refresh_token").isNotEmpty())
+            .andExpect(jsonPath("$.refresh_token").value(not(refreshToken.getRefreshToken())))
+            .andExpect(header().string("Authorization", not(nullValue())));
+
+        // refresh tokens are single use
+        mockMvc
+            .perform(
+                post("/api/authenticate/refresh")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(refreshToken))
+            )
+            .andExpect(status().isUnauthorized())
+            .andExpect(jsonPath("$.id_token").doesNotExist());
+    }
+
+    /**
+     * Not transactional: the revocation only applies once committed.
+     */
+    @Test
+    void testAuthorizeRightAfterPasswordChange() throws Exception {
+        User user = new User();
+        user.setLogin("user-jwt-controller-password-change");
+        user.setEmail("user-jwt-controller-password-change@example.com");
+        user.setPhoneNumber("0600000000");
+        user.setActivated(true);
+        user.setPassword(passwordEncoder.encode("test"));
+        userRepository.saveAndFlush(user);
+
+        try {
+            LoginVM login = new LoginVM();
+            login.setUsername("user-jwt-controller-password-change");
+            login.setPassword("test");
+            String oldToken = authorize(login);
+
+            mockMvc
+                .perform(
+                    post("/api/account/change-password")
+                        .header("Authorization", "Bearer " + oldToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(TestUtil.convertObjectToJsonBytes(new PasswordChangeDTO("test", "new password")))
+                )
+                .andExpect(status().isOk());
+            login.setPassword("new password");
+            String newToken = authorize(login);
+
+            mockMvc.perform(get("/api/account").header("Authorization", "Bearer " + newToken)).andExpect(status().isOk());
+            mockMvc.perform(get("/api/account").header("Authorization", "Bearer " + oldToken)).andExpect(status().isUnauthorized());
+        } finally {
+            refreshTokenRepository.deleteAllByLogin(user.getLogin());
+            tokenRevocationRepository.deleteById(user.getLogin());
+            userRepository.deleteById(user.getId());
+        }
+    }
+
+    @Test
+    void testRefreshFails() throws Exception {
+        RefreshTokenVM refreshToken = new RefreshTokenVM();
+        refreshToken.setRefreshToken("wrong-refresh-token");
+        mockMvc
+            .perform(
+                post("/api/authenticate/refresh")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(refreshToken))
+            )
+            .andExpect(status().isUnauthorized())
+            .andExpect(jsonPath("$.id_token").doesNotExist())
+            .andExpect(header().doesNotExist("Authorization"));
+    }
+
     @Test
     @Transactional
     void testAuthorizeWithRememberMe() throws Exception {
         User user = new User();
         user.setLogin("user-jwt-controller-remember-me");
         user.setEmail("user-jwt-controller-remember-me@example.com");
+        user.setPhoneNumber("0600000000");
         user.setActivated(true);
         user.setPassword(passwordEncoder.encode("test"));
 
@@ -95,4 +212,14 @@ class UserJWTControllerIT {
             .andExpect(jsonPath("$.id_token").doesNotExist())
             .andExpect(header().doesNotExist("Authorization"));
     }
+
+    private String authorize(LoginVM login) throws Exception {
+        String response = mockMvc
+            .perform(post("/api/authenticate").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(login)))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+        return JsonPath.read(response, "$.id_token");
+    }
 }
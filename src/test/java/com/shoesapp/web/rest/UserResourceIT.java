@@ -3,9 +3,14 @@ package com.shoesapp.web.rest;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.hasItem;
 import static org.hamcrest.Matchers.hasItems;
+import static org.hamcrest.Matchers.not;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.jayway.jsonpath.JsonPath;
 import com.shoesapp.IntegrationTest;
 import com.shoesapp.domain.Authority;
 import com.shoesapp.domain.User;
@@ -15,15 +20,19 @@ import com.shoesapp.service.dto.AdminUserDTO;
 import com.shoesapp.service.dto.UserDTO;
 import com.shoesapp.service.mapper.UserMapper;
 import com.shoesapp.web.rest.vm.ManagedUserVM;
+import com.shoesapp.web.rest.vm.UserBatchVM;
 import java.time.Instant;
 import java.util.*;
 import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 import javax.persistence.EntityManager;
 import org.apache.commons.lang3.RandomStringUtils;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
@@ -48,6 +57,8 @@ class UserResourceIT {
     private static final String DEFAULT_EMAIL = "johndoe@localhost";
     private static final String UPDATED_EMAIL = "jhipster@localhost";
 
+    private static final String DEFAULT_PHONE_NUMBER = "0600000000";
+
     private static final String DEFAULT_FIRSTNAME = "john";
     private static final String UPDATED_FIRSTNAME = "jhipsterFirstName";
 
@@ -86,6 +97,7 @@ class UserResourceIT {
         user.setPassword(RandomStringUtils.random(60));
         user.setActivated(true);
         user.setEmail(RandomStringUtils.randomAlphabetic(5) + DEFAULT_EMAIL);
+        user.setPhoneNumber(DEFAULT_PHONE_NUMBER);
         user.setFirstName(DEFAULT_FIRSTNAME);
         user.setLastName(DEFAULT_LASTNAME);
         user.setImageUrl(DEFAULT_IMAGEURL);
@@ -100,6 +112,7 @@ class UserResourceIT {
         User user = createEntity(em);
         user.setLogin(DEFAULT_LOGIN);
         user.setEmail(DEFAULT_EMAIL);
+        user.setPhoneNumber(DEFAULT_PHONE_NUMBER);
         return user;
     }
 
@@ -120,6 +133,7 @@ class UserResourceIT {
         managedUserVM.setFirstName(DEFAULT_FIRSTNAME);
         managedUserVM.setLastName(DEFAULT_LASTNAME);
         managedUserVM.setEmail(DEFAULT_EMAIL);
+        managedUserVM.setPhoneNumber(DEFAULT_PHONE_NUMBER);
         managedUserVM.setActivated(true);
         managedUserVM.setImageUrl(DEFAULT_IMAGEURL);
         managedUserVM.setLangKey(DEFAULT_LANGKEY);
@@ -156,6 +170,7 @@ class UserResourceIT {
         managedUserVM.setFirstName(DEFAULT_FIRSTNAME);
         managedUserVM.setLastName(DEFAULT_LASTNAME);
         managedUserVM.setEmail(DEFAULT_EMAIL);
+        managedUserVM.setPhoneNumber(DEFAULT_PHONE_NUMBER);
         managedUserVM.setActivated(true);
         managedUserVM.setImageUrl(DEFAULT_IMAGEURL);
         managedUserVM.setLangKey(DEFAULT_LANGKEY);
@@ -185,6 +200,7 @@ class UserResourceIT {
         managedUserVM.setFirstName(DEFAULT_FIRSTNAME);
         managedUserVM.setLastName(DEFAULT_LASTNAME);
         managedUserVM.setEmail("anothermail@localhost");
+        managedUserVM.setPhoneNumber(DEFAULT_PHONE_NUMBER);
         managedUserVM.setActivated(true);
         managedUserVM.setImageUrl(DEFAULT_IMAGEURL);
         managedUserVM.setLangKey(DEFAULT_LANGKEY);
@@ -214,6 +230,7 @@ class UserResourceIT {
         managedUserVM.setFirstName(DEFAULT_FIRSTNAME);
         managedUserVM.setLastName(DEFAULT_LASTNAME);
         managedUserVM.setEmail(DEFAULT_EMAIL); // this email should already be used
+        managedUserVM.setPhoneNumber(DEFAULT_PHONE_NUMBER);
         managedUserVM.setActivated(true);
         managedUserVM.setImageUrl(DEFAULT_IMAGEURL);
         managedUserVM.setLangKey(DEFAULT_LANGKEY);
@@ -249,6 +266,35 @@ class UserResourceIT {
             .andExpect(jsonPath("$.[*].langKey").value(hasItem(DEFAULT_LANGKEY)));
     }
 
+    @Test
+    @Transactional
+    void getAllUsersWithFields() throws Exception {
+        // Initialize the database
+        user.setAuthorities(Set.of(em.find(Authority.class, AuthoritiesConstants.USER)));
+        userRepository.saveAndFlush(user);
+
+        restUserMockMvc
+            .perform(get("/api/admin/users?sort=id,desc&fields=login,firstName,authorities").accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(header().exists(HttpHeaders.ETAG))
+            .andExpect(jsonPath("$.[*].login").value(hasItem(DEFAULT_LOGIN)))
+            .andExpect(jsonPath("$.[*].firstName").value(hasItem(DEFAULT_FIRSTNAME)))
+            .andExpect(jsonPath("$.[?(@.login == '" + DEFAULT_LOGIN + "')].authorities[*]").value(hasItem(AuthoritiesConstants.USER)))
+            .andExpect(jsonPath("$.[*].id").doesNotExist())
+            .andExpect(jsonPath("$.[*].lastName").doesNotExist())
+            .andExpect(jsonPath("$.[*].email").doesNotExist())
+            .andExpect(jsonPath("$.[*].activated").doesNotExist());
+    }
+
+    @Test
+    @Transactional
+    void getAllUsersWithUnknownField() throws Exception {
+        restUserMockMvc
+            .perform(get("/api/admin/users?fields=login,password").accept(MediaType.APPLICATION_JSON))
+            .andExpect(status().isBadRequest());
+    }
+
     @Test
     @Transactional
     void getUser() throws Exception {
@@ -268,6 +314,155 @@ class UserResourceIT {
             .andExpect(jsonPath("$.langKey").value(DEFAULT_LANGKEY));
     }
 
+    @Test
+    @Transactional
+    void getUserAsSmile() throws Exception {
+        // Initialize the database
+        userRepository.saveAndFlush(user);
+
+        MediaType smile = MediaType.valueOf("application/x-jackson-smile");
+        byte[] body = restUserMockMvc
+            .perform(get("/api/admin/users/{login}", user.getLogin()).accept(smile))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(smile))
+            .andReturn()
+            .getResponse()
+            .getContentAsByteArray();
+
+        ObjectMapper smileMapper = new ObjectMapper(new SmileFactory()).registerModule(new JavaTimeModule());
+        AdminUserDTO userDTO = smileMapper.readValue(body, AdminUserDTO.class);
+        assertThat(userDTO.getLogin()).isEqualTo(DEFAULT_LOGIN);
+        assertThat(userDTO.getEmail()).isEqualTo(DEFAULT_EMAIL);
+        assertThat(userDTO.getLangKey()).isEqualTo(DEFAULT_LANGKEY);
+    }
+
+    @Test
+    @Transactional
+    void getUserNotModified() throws Exception {
+        // Initialize the database
+        userRepository.saveAndFlush(user);
+
+        String etag = restUserMockMvc
+            .perform(get("/api/admin/users/{login}", user.getLogin()))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"" + user.getId() + "-" + user.getVersion() + "\""))
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        restUserMockMvc
+            .perform(get("/api/admin/users/{login}", user.getLogin()).header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isNotModified())
+            .andExpect(content().string(""));
+    }
+
+    @Test
+    @Transactional
+    void getAllUsersNotModified() throws Exception {
+        // Initialize the database
+        userRepository.saveAndFlush(user);
+
+        String etag = restUserMockMvc
+            .perform(get("/api/admin/users?sort=id,desc"))
+            .andExpect(status().isOk())
+            .andReturn()
+            .getResponse()
+            .getHeader(HttpHeaders.ETAG);
+
+        restUserMockMvc
+            .perform(get("/api/admin/users?sort=id,desc").header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isNotModified());
+
+        user.setFirstName(UPDATED_FIRSTNAME);
+        userRepository.saveAndFlush(user);
+
+        restUserMockMvc
+            .perform(get("/api/admin/users?sort=id,desc").header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isOk());
+    }
+
+    @Test
+    @Transactional
+    void getUsersInBatch() throws Exception {
+        // Initialize the database
+        userRepository.saveAndFlush(user);
+        User other = userRepository.saveAndFlush(createEntity(em));
+
+        UserBatchVM batch = new UserBatchVM();
+        batch.setLogins(List.of(other.getLogin().toUpperCase(), "unknown", DEFAULT_LOGIN));
+        batch.setIds(List.of(user.getId(), Long.MAX_VALUE));
+
+        restUserMockMvc
+            .perform(
+                post("/api/admin/users/_batch").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(batch))
+            )
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.length()").value(2))
+            .andExpect(jsonPath("$.[0].login").value(other.getLogin()))
+            .andExpect(jsonPath("$.[1].login").value(DEFAULT_LOGIN))
+            .andExpect(jsonPath("$.[1].email").value(DEFAULT_EMAIL))
+            .andExpect(jsonPath("$.[1].authorities").isArray());
+    }
+
+    @Test
+    @Transactional
+    void getTooManyUsersInBatch() throws Exception {
+        UserBatchVM batch = new UserBatchVM();
+        batch.setIds(LongStream.rangeClosed(1, UserBatchVM.MAX_SIZE + 1).boxed().collect(Collectors.toList()));
+
+        restUserMockMvc
+            .perform(
+                post("/api/admin/users/_batch").contentType(MediaType.APPLICATION_JSON).content(TestUtil.convertObjectToJsonBytes(batch))
+            )
+            .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void getUserChanges() throws Exception {
+        // Initialize the database
+        userRepository.saveAndFlush(user);
+
+        String changes = restUserMockMvc
+            .perform(get("/api/admin/user-changes?size=1000"))
+            .andExpect(status().isOk())
+            .andExpect(content().contentType(MediaType.APPLICATION_JSON_VALUE))
+            .andExpect(jsonPath("$.updated.[*].login").value(hasItem(DEFAULT_LOGIN)))
+            .andExpect(jsonPath("$.hasMore").value(false))
+            .andReturn()
+            .getResponse()
+            .getContentAsString();
+
+        restUserMockMvc.perform(delete("/api/admin/users/{login}", user.getLogin())).andExpect(status().isNoContent());
+
+        restUserMockMvc
+            .perform(get("/api/admin/user-changes").param("since", JsonPath.<String>read(changes, "$.cursor")))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.updated.[*].login").value(not(hasItem(DEFAULT_LOGIN))))
+            .andExpect(jsonPath("$.deleted.[*].login").value(hasItem(DEFAULT_LOGIN)))
+            .andExpect(jsonPath("$.cursor").isNotEmpty());
+    }
+
+    @Test
+    @Transactional
+    void getUserChangesWithInvalidCursor() throws Exception {
+        restUserMockMvc.perform(get("/api/admin/user-changes").param("since", "not-a-cursor")).andExpect(status().isBadRequest());
+    }
+
+    @Test
+    @Transactional
+    void getUserNamedChanges() throws Exception {
+        // Initialize the database
+        user.setLogin("changes");
+        userRepository.saveAndFlush(user);
+
+        restUserMockMvc
+            .perform(get("/api/admin/users/{login}", "changes"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.login").value("changes"));
+    }
+
     @Test
     @Transactional
     void getNonExistingUser() throws Exception {
@@ -291,6 +486,7 @@ class UserResourceIT {
         managedUserVM.setFirstName(UPDATED_FIRSTNAME);
         managedUserVM.setLastName(UPDATED_LASTNAME);
         managedUserVM.setEmail(UPDATED_EMAIL);
+        managedUserVM.setPhoneNumber(DEFAULT_PHONE_NUMBER);
         managedUserVM.setActivated(updatedUser.isActivated());
         managedUserVM.setImageUrl(UPDATED_IMAGEURL);
         managedUserVM.setLangKey(UPDATED_LANGKEY);
@@ -318,6 +514,41 @@ class UserResourceIT {
         });
     }
 
+    @Test
+    @Transactional
+    void updateUserWithStaleIfMatch() throws Exception {
+        // Initialize the database
+        userRepository.saveAndFlush(user);
+        String staleEtag = "\"" + user.getId() + "-" + user.getVersion() + "\"";
+        user.setFirstName(UPDATED_FIRSTNAME);
+        userRepository.saveAndFlush(user);
+
+        AdminUserDTO userDTO = new AdminUserDTO(user);
+        userDTO.setLastName(UPDATED_LASTNAME);
+        userDTO.setAuthorities(Collections.singleton(AuthoritiesConstants.USER));
+
+        restUserMockMvc
+            .perform(
+                put("/api/admin/users")
+                    .header(HttpHeaders.IF_MATCH, staleEtag)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(userDTO))
+            )
+            .andExpect(status().isPreconditionFailed());
+
+        long currentVersion = user.getVersion();
+        String currentEtag = "\"" + user.getId() + "-" + currentVersion + "\"";
+        restUserMockMvc
+            .perform(
+                put("/api/admin/users")
+                    .header(HttpHeaders.IF_MATCH, currentEtag)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(TestUtil.convertObjectToJsonBytes(userDTO))
+            )
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, "\"" + user.getId() + "-" + (currentVersion + 1) + "\""));
+    }
+
     @Test
     @Transactional
     void updateUserLogin() throws Exception {
@@ -335,6 +566,7 @@ class UserResourceIT {
         managedUserVM.setFirstName(UPDATED_FIRSTNAME);
         managedUserVM.setLastName(UPDATED_LASTNAME);
         managedUserVM.setEmail(UPDATED_EMAIL);
+        managedUserVM.setPhoneNumber(DEFAULT_PHONE_NUMBER);
         managedUserVM.setActivated(updatedUser.isActivated());
         managedUserVM.setImageUrl(UPDATED_IMAGEURL);
         managedUserVM.setLangKey(UPDATED_LANGKEY);
@@ -374,6 +606,7 @@ class UserResourceIT {
         anotherUser.setPassword(RandomStringUtils.random(60));
         anotherUser.setActivated(true);
         anotherUser.setEmail("jhipster@localhost");
+        anotherUser.setPhoneNumber(DEFAULT_PHONE_NUMBER);
         anotherUser.setFirstName("java");
         anotherUser.setLastName("hipster");
         anotherUser.setImageUrl("");
@@ -390,6 +623,7 @@ class UserResourceIT {
         managedUserVM.setFirstName(updatedUser.getFirstName());
         managedUserVM.setLastName(updatedUser.getLastName());
         managedUserVM.setEmail("jhipster@localhost"); // this email should already be used by anotherUser
+        managedUserVM.setPhoneNumber(DEFAULT_PHONE_NUMBER);
         managedUserVM.setActivated(updatedUser.isActivated());
         managedUserVM.setImageUrl(updatedUser.getImageUrl());
         managedUserVM.setLangKey(updatedUser.getLangKey());
@@ -417,6 +651,7 @@ class UserResourceIT {
         anotherUser.setPassword(RandomStringUtils.random(60));
         anotherUser.setActivated(true);
         anotherUser.setEmail("jhipster@localhost");
+        anotherUser.setPhoneNumber(DEFAULT_PHONE_NUMBER);
         anotherUser.setFirstName("java");
         anotherUser.setLastName("hipster");
         anotherUser.setImageUrl("");
@@ -433,6 +668,7 @@ class UserResourceIT {
         managedUserVM.setFirstName(updatedUser.getFirstName());
         managedUserVM.setLastName(updatedUser.getLastName());
         managedUserVM.setEmail(updatedUser.getEmail());
+        managedUserVM.setPhoneNumber(DEFAULT_PHONE_NUMBER);
         managedUserVM.setActivated(updatedUser.isActivated());
         managedUserVM.setImageUrl(updatedUser.getImageUrl());
         managedUserVM.setLangKey(updatedUser.getLangKey());
@@ -487,6 +723,7 @@ class UserResourceIT {
         userDTO.setFirstName(DEFAULT_FIRSTNAME);
         userDTO.setLastName(DEFAULT_LASTNAME);
         userDTO.setEmail(DEFAULT_EMAIL);
+        userDTO.setPhoneNumber(DEFAULT_PHONE_NUMBER);
         userDTO.setActivated(true);
         userDTO.setImageUrl(DEFAULT_IMAGEURL);
         userDTO.setLangKey(DEFAULT_LANGKEY);